@@ -0,0 +1,53 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.DigigoodsApplication;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application for benchmarks that measure it end to end.
+ *
+ * <p>The application runs with the {@code test} profile on a random port, with SQL logging off
+ * and an in-memory database of its own. Set the {@code SPRING_DATASOURCE_URL} environment
+ * variable, which the forked benchmark JVM inherits, to run against a local database instead and
+ * include network round trips; the driver, user and password are set the same way.
+ */
+final class BenchmarkApplication {
+
+  private BenchmarkApplication() {
+  }
+
+  /**
+   * Start the application.
+   *
+   * @param database the name of the in-memory database, unless a database URL is set
+   * @param properties further properties, as {@code name=value}
+   * @return the running application, to be closed by the caller
+   */
+  static ConfigurableApplicationContext start(String database, String... properties) {
+    // Passed as arguments, since default properties lose to the application and profile files
+    List<String> arguments = new ArrayList<>(List.of(
+        "server.port=0",
+        "spring.jpa.show-sql=false",
+        "spring.jmx.enabled=false"));
+    if (System.getenv("SPRING_DATASOURCE_URL") == null) {
+      arguments.add("spring.datasource.url=jdbc:h2:mem:" + database);
+    }
+    arguments.addAll(List.of(properties));
+    return new SpringApplicationBuilder(DigigoodsApplication.class)
+        .profiles("test")
+        .run(arguments.stream().map(argument -> "--" + argument).toArray(String[]::new));
+  }
+
+  /**
+   * Get the base URL the application serves requests on.
+   *
+   * @param context the running application
+   * @return the base URL, without a trailing slash
+   */
+  static String baseUrl(ConfigurableApplicationContext context) {
+    return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.service.CartPricing;
+import com.example.digigoods.service.CheckoutPlan;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checkout pricing: building the checkout plan with its discount index, and pricing the plan in
+ * fixed point as {@code CheckoutService} does.
+ *
+ * <p>Every product-specific discount applies to a tenth of the catalog, so the catalog size
+ * drives the cost of indexing the discounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartPricingBenchmark {
+
+  /** Distinct products in the cart. */
+  @Param({"1", "10", "100"})
+  public int cartSize;
+
+  /** Discount codes applied, alternating general and product-specific. */
+  @Param({"0", "2", "8"})
+  public int discountCount;
+
+  /** Products in the catalog. */
+  @Param({"100", "10000"})
+  public int catalogSize;
+
+  private Map<Long, Integer> quantities;
+  private List<Product> products;
+  private List<Discount> discounts;
+  private CheckoutPlan plan;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    List<Product> catalog = new ArrayList<>();
+    for (long id = 1; id <= catalogSize; id++) {
+      catalog.add(new Product(id, "Product " + id,
+          BigDecimal.valueOf(1 + random.nextInt(99_999), 2), 1_000));
+    }
+
+    List<Product> shuffled = new ArrayList<>(catalog);
+    Collections.shuffle(shuffled, random);
+    products = List.copyOf(shuffled.subList(0, cartSize));
+    quantities = new LinkedHashMap<>();
+    for (Product product : products) {
+      quantities.put(product.getId(), 1 + random.nextInt(5));
+    }
+
+    discounts = new ArrayList<>();
+    for (int i = 0; i < discountCount; i++) {
+      BigDecimal percentage = BigDecimal.valueOf(100 + random.nextInt(400), 2);
+      if (i % 2 == 0) {
+        discounts.add(discount("G" + i, percentage, DiscountType.GENERAL, Set.of()));
+      } else {
+        Set<Product> applicableProducts = new HashSet<>();
+        for (int j = 0; j < catalogSize / 10; j++) {
+          applicableProducts.add(catalog.get(random.nextInt(catalogSize)));
+        }
+        discounts.add(discount("P" + i, percentage, DiscountType.PRODUCT_SPECIFIC,
+            applicableProducts));
+      }
+    }
+    plan = CheckoutPlan.of(1L, quantities, products, discounts);
+  }
+
+  @Benchmark
+  public CheckoutPlan buildPlan() {
+    return CheckoutPlan.of(1L, quantities, products, discounts);
+  }
+
+  @Benchmark
+  public long price() {
+    CartPricing pricing = CartPricing.of(plan);
+    long subtotal = pricing.subtotal();
+    long finalPrice = pricing.finalPrice();
+    return CartPricing.exceedsMaximumDiscount(subtotal, finalPrice) ? -finalPrice : finalPrice;
+  }
+
+  private static Discount discount(String code, BigDecimal percentage, DiscountType type,
+                                   Set<Product> applicableProducts) {
+    return new Discount(null, code, percentage, type, LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1), 1_000, applicableProducts);
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.service.DiscountService;
+import com.example.digigoods.service.ParallelLookups;
+import com.example.digigoods.service.ProductService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Latency of the checkout product and discount reads, one after another and concurrently.
+ *
+ * <p>{@code sequential} runs both reads in one read-only transaction, as checkout does by
+ * default; {@code parallel} forks both reads into a {@link ParallelLookups} scope and waits for
+ * them in the transaction, as checkout does with {@code checkout.parallel-lookups.enabled}. The
+ * lookups run on virtual threads, which need Java 21. In-memory H2 answers too fast for the
+ * overlap to matter; run it against a local database to see it, as described in
+ * {@link BenchmarkApplication}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutLookupBenchmark {
+
+  private static final int PRODUCTS = 20;
+
+  private ConfigurableApplicationContext context;
+  private ProductService productService;
+  private DiscountService discountService;
+  private ParallelLookups parallelLookups;
+  private TransactionTemplate readOnly;
+  private List<Long> productIds;
+  private List<String> codes;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start("bench-checkout-lookup",
+        "checkout.parallel-lookups.enabled=true");
+    productService = context.getBean(ProductService.class);
+    discountService = context.getBean(DiscountService.class);
+    parallelLookups = context.getBean(ParallelLookups.class);
+    readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    readOnly.setReadOnly(true);
+
+    ProductRepository productRepository = context.getBean(ProductRepository.class);
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PRODUCTS; i++) {
+      products.add(productRepository.save(
+          new Product(null, "Bench Product " + i, new BigDecimal("10.00"), 1_000)));
+    }
+    productIds = products.stream().map(Product::getId).toList();
+    context.getBean(DiscountRepository.class).save(new Discount(null, "BENCH",
+        new BigDecimal("5.00"), DiscountType.PRODUCT_SPECIFIC, LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1), 1_000, Set.copyOf(products)));
+    codes = List.of("BENCH");
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<Discount> sequential() {
+    return readOnly.execute(status -> {
+      productService.getProductsByIds(productIds);
+      return discountService.validateAndGetDiscounts(codes);
+    });
+  }
+
+  @Benchmark
+  public List<Discount> parallel() {
+    return readOnly.execute(status -> {
+      try (ParallelLookups.Scope scope = parallelLookups.open()) {
+        scope.fork(() -> productService.getProductsByIds(productIds));
+        Supplier<List<Discount>> discounts =
+            scope.fork(() -> discountService.validateAndGetDiscounts(codes));
+        scope.join();
+        return discounts.get();
+      }
+    });
+  }
+}
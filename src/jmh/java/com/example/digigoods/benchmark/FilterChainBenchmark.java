@@ -0,0 +1,83 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import jakarta.servlet.FilterChain;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Filter-chain overhead of an authenticated {@code GET /products} request.
+ *
+ * <p>{@code apiChain} runs the request through the API chain alone, which is what every request
+ * used to go through; {@code fullChain} runs it through the full
+ * {@code springSecurityFilterChain}, where the catalog chain matches first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+  private static final FilterChain END_OF_CHAIN = (request, response) -> {};
+
+  private ConfigurableApplicationContext context;
+  private FilterChainProxy apiChain;
+  private FilterChainProxy fullChain;
+  private String authorization;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start("bench-filter-chain");
+    User user = context.getBean(UserRepository.class)
+        .save(new User(null, "benchuser", "password"));
+    authorization = "Bearer " + context.getBean(JwtService.class)
+        .generateToken(user.getId(), user.getUsername());
+    apiChain = new FilterChainProxy(List.of(
+        context.getBean("filterChain", SecurityFilterChain.class)));
+    apiChain.afterPropertiesSet();
+    fullChain = context.getBean(FilterChainProxy.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse apiChain() throws Exception {
+    return filter(apiChain);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse fullChain() throws Exception {
+    return filter(fullChain);
+  }
+
+  private MockHttpServletResponse filter(FilterChainProxy proxy) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+    request.addHeader("Authorization", authorization);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    proxy.doFilter(request, response, END_OF_CHAIN);
+    return response;
+  }
+}
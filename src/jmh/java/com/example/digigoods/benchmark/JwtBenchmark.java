@@ -0,0 +1,61 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.security.VerifiedToken;
+import com.example.digigoods.security.VerifiedTokenCache;
+import com.example.digigoods.service.JwtService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JWT token handling: signing a token at login, and verifying it on every request with and
+ * without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+  private static final String SECRET =
+      "benchmarkSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+  private static final long EXPIRATION = 86_400_000;
+
+  private JwtService cachingService;
+  private JwtService uncachedService;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    cachingService = new JwtService(SECRET, EXPIRATION, new VerifiedTokenCache(10_000));
+    // A cache of size zero evicts every entry, so each verification parses the token
+    uncachedService = new JwtService(SECRET, EXPIRATION, new VerifiedTokenCache(0));
+    token = cachingService.generateToken(1L, "benchuser");
+    cachingService.verify(token);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return cachingService.generateToken(1L, "benchuser");
+  }
+
+  @Benchmark
+  public VerifiedToken verifyCached() {
+    return cachingService.verify(token);
+  }
+
+  @Benchmark
+  public VerifiedToken verifyUncached() {
+    return uncachedService.verify(token);
+  }
+}
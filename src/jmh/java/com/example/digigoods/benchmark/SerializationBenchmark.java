@@ -0,0 +1,88 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON serialization of the entity lists returned by {@code GET /products} and
+ * {@code GET /discounts}, with an object mapper configured like the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  /** Products in the catalog. */
+  @Param({"10", "100", "1000"})
+  public int catalogSize;
+
+  /** Discounts, each applicable to up to ten products. */
+  @Param({"1", "10", "100"})
+  public int discountCount;
+
+  private ObjectMapper objectMapper;
+  private List<Product> products;
+  private List<Discount> discounts;
+
+  @Setup
+  public void setUp() {
+    // Spring Boot's defaults: ISO-8601 dates instead of timestamp arrays
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    Random random = new Random(42);
+    products = new ArrayList<>();
+    for (long id = 1; id <= catalogSize; id++) {
+      products.add(new Product(id, "Product " + id,
+          BigDecimal.valueOf(1 + random.nextInt(99_999), 2), 1_000));
+    }
+
+    discounts = new ArrayList<>();
+    for (long id = 1; id <= discountCount; id++) {
+      Set<Product> applicableProducts = new HashSet<>();
+      for (int i = 0; i < 10; i++) {
+        applicableProducts.add(products.get(random.nextInt(catalogSize)));
+      }
+      discounts.add(new Discount(id, "CODE" + id, BigDecimal.valueOf(1 + random.nextInt(50)),
+          DiscountType.PRODUCT_SPECIFIC, LocalDate.now(), LocalDate.now().plusDays(30), 100,
+          applicableProducts));
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeProducts() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(products);
+  }
+
+  @Benchmark
+  public byte[] serializeDiscounts() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(discounts);
+  }
+}
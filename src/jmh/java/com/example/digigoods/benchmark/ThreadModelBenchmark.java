@@ -0,0 +1,119 @@
+package com.example.digigoods.benchmark;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Throughput and latency of {@code GET /api/profiles/exists/user/{userId}} and
+ * {@code POST /orders} at high concurrency, with requests on platform threads and on virtual
+ * threads.
+ *
+ * <p>Each thread model gets its own application and in-memory database, seeded the same way;
+ * {@value #CLIENTS} client threads then send requests back to back. Both requests are
+ * authenticated and the user lookup of the JWT filter stays on ({@code jwt.stateless=false}), so
+ * every request blocks on JDBC; catalog reads such as {@code GET /products} would skip that
+ * lookup on the anonymous catalog chain. A request that
+ * fails fails the run, since its timing would not be comparable. Virtual threads need Java 21;
+ * on older runtimes the virtual thread run fails at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(ThreadModelBenchmark.CLIENTS)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+  static final int CLIENTS = 400;
+
+  /** Whether requests run on virtual threads. */
+  @Param({"false", "true"})
+  public boolean virtualThreads;
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private ConfigurableApplicationContext context;
+  private HttpRequest profiles;
+  private HttpRequest orders;
+
+  @Setup
+  public void setUp() throws IOException {
+    if (virtualThreads && Runtime.version().feature() < 21) {
+      throw new IllegalStateException("Virtual threads need Java 21");
+    }
+    context = BenchmarkApplication.start("bench-threads-" + virtualThreads,
+        "spring.threads.virtual.enabled=" + virtualThreads,
+        "jwt.stateless=false");
+    String baseUrl = BenchmarkApplication.baseUrl(context);
+    User user = context.getBean(UserRepository.class)
+        .save(new User(null, "benchuser", "password"));
+    Product product = context.getBean(ProductRepository.class)
+        .save(new Product(null, "Bench Product", new BigDecimal("10.00"), 100_000_000));
+    String authorization = "Bearer " + context.getBean(JwtService.class)
+        .generateToken(user.getId(), user.getUsername());
+    String order = new ObjectMapper().writeValueAsString(
+        new CheckoutRequest(user.getId(), List.of(product.getId()), List.of()));
+
+    profiles = HttpRequest.newBuilder(
+            URI.create(baseUrl + "/api/profiles/exists/user/" + user.getId()))
+        .header("Authorization", authorization)
+        .GET()
+        .build();
+    orders = HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+        .header("Authorization", authorization)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(order))
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int getProfileExists() throws IOException, InterruptedException {
+    return send(profiles);
+  }
+
+  @Benchmark
+  public int postOrders() throws IOException, InterruptedException {
+    return send(orders);
+  }
+
+  private int send(HttpRequest request) throws IOException, InterruptedException {
+    int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    if (status >= 400) {
+      throw new IllegalStateException(request.method() + " " + request.uri().getPath()
+          + " failed with status " + status);
+    }
+    return status;
+  }
+}
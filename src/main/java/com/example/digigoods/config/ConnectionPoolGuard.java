@@ -0,0 +1,94 @@
+package com.example.digigoods.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks at startup that the connection pool can serve the configured thread model.
+ *
+ * <p>Background workers each hold a connection while they run. A checkout holds the connection
+ * of its transaction throughout; with parallel lookups it waits on it while each of its two forked
+ * lookups borrows one for its query, three at once. With stock write combining, a checkout
+ * applying a combined batch holds one more for the batch's transaction, after its lookups have
+ * returned theirs. A pool smaller than the background workers plus one checkout lets requests
+ * starve or wait on each other until the connection timeout, so startup fails instead. With
+ * virtual threads the request thread pool no longer bounds how many requests wait for a
+ * connection, so the number of checkouts the pool can serve at once is logged as the effective
+ * concurrency limit.
+ */
+@Component
+public class ConnectionPoolGuard implements InitializingBean {
+
+  private static final Logger log = LoggerFactory.getLogger(ConnectionPoolGuard.class);
+
+  private final DataSource dataSource;
+  private final boolean virtualThreads;
+  private final boolean parallelLookups;
+  private final boolean stockCombining;
+  private final int queueWorkers;
+
+  /**
+   * Create the guard.
+   *
+   * @param dataSource the data source
+   * @param virtualThreads whether requests run on virtual threads
+   * @param parallelLookups whether checkout reads run concurrently
+   * @param stockCombining whether stock decrements are combined
+   * @param asyncEnabled whether checkouts may be queued
+   * @param queueWorkers the number of order queue workers
+   */
+  public ConnectionPoolGuard(
+      DataSource dataSource,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${checkout.parallel-lookups.enabled:false}") boolean parallelLookups,
+      @Value("${inventory.combining.enabled:false}") boolean stockCombining,
+      @Value("${checkout.async.enabled:false}") boolean asyncEnabled,
+      @Value("${checkout.async.workers:2}") int queueWorkers) {
+    this.dataSource = dataSource;
+    this.virtualThreads = virtualThreads;
+    this.parallelLookups = parallelLookups;
+    this.stockCombining = stockCombining;
+    this.queueWorkers = asyncEnabled ? queueWorkers : 0;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (!(dataSource instanceof HikariDataSource hikari)) {
+      return;
+    }
+    check(hikari.getMaximumPoolSize());
+  }
+
+  /**
+   * Check a pool size against the configured thread model.
+   *
+   * @param poolSize the maximum number of pooled connections
+   * @return the number of checkouts the pool can serve at once
+   * @throws IllegalStateException if the pool cannot serve the background workers and one
+   *     checkout at the same time
+   */
+  int check(int poolSize) {
+    // The scheduled jobs share one connection at a time
+    int background = queueWorkers + 1;
+    // The lookups are joined before the stock is taken, so a checkout peaks at the larger need
+    int perCheckout = 1 + Math.max(parallelLookups ? 2 : 0, stockCombining ? 1 : 0);
+    if (poolSize < background + perCheckout) {
+      throw new IllegalStateException(String.format(
+          "Connection pool of %d is too small: background workers hold up to %d connections "
+              + "and a checkout needs %d more; raise spring.datasource.hikari.maximum-pool-size",
+          poolSize, background, perCheckout));
+    }
+
+    int concurrentCheckouts = (poolSize - background) / perCheckout;
+    if (virtualThreads) {
+      log.info("Virtual threads enabled: the connection pool of {} serves {} checkouts at once; "
+          + "further requests wait for a connection", poolSize, concurrentCheckouts);
+    }
+    return concurrentCheckouts;
+  }
+}
@@ -1,18 +1,32 @@
 package com.example.digigoods.config;
 
+import com.example.digigoods.security.BcryptCostCalibrator;
+import com.example.digigoods.security.CalibratedBcryptPasswordEncoder;
 import com.example.digigoods.security.JwtAuthenticationEntryPoint;
 import com.example.digigoods.security.JwtAuthenticationFilter;
+import com.example.digigoods.security.PasswordVerificationPool;
+import com.example.digigoods.security.PooledPasswordEncoder;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 /**
  * Security configuration for the application.
@@ -30,9 +44,33 @@ public class SecurityConfig {
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
   }
 
+  /**
+   * BCrypt password encoder whose hashing runs on the dedicated login pool.
+   *
+   * <p>The cost is calibrated at startup unless {@code security.bcrypt.strength} is set. Hashes
+   * stored with a lower cost, or without the {@code {bcrypt}} prefix, are upgraded on the next
+   * successful login.
+   *
+   * @param passwordVerificationPool the password verification pool
+   * @param strength the fixed BCrypt cost, or 0 to calibrate
+   * @param maxHashMillis the hashing latency budget used for calibration
+   * @param minimumStrength the lowest cost calibration may choose
+   * @return the password encoder
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      PasswordVerificationPool passwordVerificationPool,
+      @Value("${security.bcrypt.strength:0}") int strength,
+      @Value("${security.bcrypt.max-hash-millis:250}") long maxHashMillis,
+      @Value("${security.bcrypt.min-strength:10}") int minimumStrength) {
+    int cost = strength > 0 ? strength
+        : BcryptCostCalibrator.calibrate(Duration.ofMillis(maxHashMillis), minimumStrength);
+    CalibratedBcryptPasswordEncoder bcrypt = new CalibratedBcryptPasswordEncoder(cost);
+
+    DelegatingPasswordEncoder delegating =
+        new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+    delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+    return new PooledPasswordEncoder(delegating, passwordVerificationPool);
   }
 
   @Bean
@@ -41,7 +79,55 @@ public class SecurityConfig {
     return authConfig.getAuthenticationManager();
   }
 
+  /**
+   * Keep the JWT filter out of the servlet container's filter chain.
+   *
+   * <p>As a {@code @Component} it would otherwise be registered for every request; it must only
+   * run inside the API security filter chain.
+   *
+   * @return the disabled filter registration
+   */
+  @Bean
+  public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+    FilterRegistrationBean<JwtAuthenticationFilter> registration =
+        new FilterRegistrationBean<>(jwtAuthenticationFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  /**
+   * Minimal filter chain for anonymous catalog reads.
+   *
+   * <p>{@code GET /products} and {@code GET /discounts} are public, so this chain has no JWT
+   * filter, no security context, session, request cache, CSRF or authorization filters; only
+   * response security headers are kept.
+   *
+   * @param http the HTTP security builder
+   * @return the catalog filter chain
+   * @throws Exception if the chain cannot be built
+   */
+  @Bean
+  @Order(1)
+  public SecurityFilterChain catalogFilterChain(HttpSecurity http) throws Exception {
+    PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+    RequestMatcher catalogReads = new OrRequestMatcher(
+        paths.matcher(HttpMethod.GET, "/products"),
+        paths.matcher(HttpMethod.GET, "/discounts"));
+
+    http.securityMatcher(catalogReads)
+        .csrf(AbstractHttpConfigurer::disable)
+        .logout(AbstractHttpConfigurer::disable)
+        .requestCache(AbstractHttpConfigurer::disable)
+        .securityContext(AbstractHttpConfigurer::disable)
+        .sessionManagement(AbstractHttpConfigurer::disable)
+        .anonymous(AbstractHttpConfigurer::disable)
+        .servletApi(AbstractHttpConfigurer::disable);
+
+    return http.build();
+  }
+
   @Bean
+  @Order(2)
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(authz -> authz
@@ -0,0 +1,100 @@
+package com.example.digigoods.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports virtual threads pinned to their carrier thread ({@code spring.threads.virtual.enabled}).
+ *
+ * <p>A virtual thread that blocks inside a {@code synchronized} block or a native frame keeps its
+ * carrier thread, so a few of them can stall every other virtual thread. This monitor streams
+ * the JFR {@code jdk.VirtualThreadPinned} events longer than the threshold, logs each one with
+ * the top of its stack and records it in the {@code threads.virtual.pinned} timer.
+ */
+@Component
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 8;
+
+  private final boolean enabled;
+  private final Duration threshold;
+  private final Timer pinned;
+  private RecordingStream stream;
+
+  /**
+   * Create the monitor.
+   *
+   * @param enabled whether requests run on virtual threads
+   * @param thresholdMillis the shortest pinning that is reported, in milliseconds
+   * @param meterRegistry the registry to publish the pinned time to
+   */
+  public VirtualThreadPinningMonitor(
+      @Value("${spring.threads.virtual.enabled:false}") boolean enabled,
+      @Value("${threads.virtual.pinning-threshold-ms:20}") long thresholdMillis,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.threshold = Duration.ofMillis(thresholdMillis);
+    this.pinned = Timer.builder("threads.virtual.pinned")
+        .description("Time virtual threads spent pinned to their carrier thread")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Start streaming pinning events once the application is ready.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("Reporting virtual threads pinned for longer than {} ms", threshold.toMillis());
+  }
+
+  @Override
+  public void destroy() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  void record(Duration duration, String thread, List<String> frames) {
+    pinned.record(duration);
+    log.warn("Virtual thread {} was pinned for {} ms at {}", thread, duration.toMillis(),
+        String.join(" <- ", frames));
+  }
+
+  private void onPinned(RecordedEvent event) {
+    List<String> frames = event.getStackTrace() == null
+        ? List.of()
+        : event.getStackTrace().getFrames().stream()
+            .limit(LOGGED_FRAMES)
+            .map(VirtualThreadPinningMonitor::describe)
+            .toList();
+    String thread = event.getThread() == null ? "unknown" : event.getThread().getJavaName();
+    record(event.getDuration(), thread, frames);
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+        + ":" + frame.getLineNumber();
+  }
+}
@@ -2,9 +2,13 @@ package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.LoginRequest;
 import com.example.digigoods.dto.LoginResponse;
+import com.example.digigoods.exception.MissingJwtTokenException;
+import com.example.digigoods.security.VerifiedToken;
 import com.example.digigoods.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -27,11 +31,29 @@ public class AuthController {
    * Login endpoint.
    *
    * @param loginRequest the login request
+   * @param request the HTTP servlet request
    * @return login response with JWT token
    */
   @PostMapping("/login")
-  public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-    LoginResponse response = authService.login(loginRequest);
+  public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+                                             HttpServletRequest request) {
+    LoginResponse response = authService.login(loginRequest, request.getRemoteAddr());
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Logout endpoint, revoking all tokens of the authenticated user.
+   *
+   * @param token the verified JWT token of the authenticated user
+   * @return no content response
+   */
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(@AuthenticationPrincipal VerifiedToken token) {
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+
+    authService.logout(token.getUserId());
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -1,15 +1,27 @@
 package com.example.digigoods.controller;
 
+import com.example.digigoods.dto.BatchCheckoutRequest;
+import com.example.digigoods.dto.BatchOrderResponse;
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.OrderTicketResponse;
+import com.example.digigoods.dto.QuoteResponse;
+import com.example.digigoods.dto.ReservationResponse;
 import com.example.digigoods.exception.MissingJwtTokenException;
+import com.example.digigoods.security.VerifiedToken;
 import com.example.digigoods.service.CheckoutService;
-import com.example.digigoods.service.JwtService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.digigoods.service.IdempotencyService;
+import com.example.digigoods.service.OrderQueueService;
+import com.example.digigoods.service.OrderQueueWorker;
 import jakarta.validation.Valid;
+import java.net.URI;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,41 +32,174 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/orders")
 public class CheckoutController {
 
+  private static final String RESPOND_ASYNC = "respond-async";
+
   private final CheckoutService checkoutService;
-  private final JwtService jwtService;
+  private final IdempotencyService idempotencyService;
+  private final OrderQueueService orderQueueService;
+  private final OrderQueueWorker orderQueueWorker;
 
-  public CheckoutController(CheckoutService checkoutService, JwtService jwtService) {
+  /**
+   * Create the controller.
+   *
+   * @param checkoutService the checkout service
+   * @param idempotencyService the idempotency service
+   * @param orderQueueService the order queue service
+   * @param orderQueueWorker the order queue worker
+   */
+  public CheckoutController(CheckoutService checkoutService,
+                            IdempotencyService idempotencyService,
+                            OrderQueueService orderQueueService,
+                            OrderQueueWorker orderQueueWorker) {
     this.checkoutService = checkoutService;
-    this.jwtService = jwtService;
+    this.idempotencyService = idempotencyService;
+    this.orderQueueService = orderQueueService;
+    this.orderQueueWorker = orderQueueWorker;
   }
 
   /**
    * Create order endpoint.
    *
+   * <p>With an {@code Idempotency-Key} header, retries of the same request return the first
+   * result instead of placing another order. Without one, a {@code Prefer: respond-async} header
+   * queues the priced cart when the order queue is enabled and returns 202 with an order ticket
+   * to poll at {@code /orders/tickets/{ticketId}}. A {@code Quote-Token} header from
+   * {@code /orders/quote} skips re-pricing if the cart, prices and discounts did not change.
+   *
    * @param checkoutRequest the checkout request
-   * @param request the HTTP servlet request
-   * @return order response
+   * @param idempotencyKey the optional idempotency key
+   * @param prefer the optional {@code Prefer} header
+   * @param quoteToken the optional quote token
+   * @param token the verified JWT token of the authenticated user
+   * @return order response, or order ticket response if the order was queued
    */
   @PostMapping
-  public ResponseEntity<OrderResponse> createOrder(
+  public ResponseEntity<?> createOrder(
+      @Valid @RequestBody CheckoutRequest checkoutRequest,
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+      @RequestHeader(value = "Prefer", required = false) String prefer,
+      @RequestHeader(value = "Quote-Token", required = false) String quoteToken,
+      @AuthenticationPrincipal VerifiedToken token) {
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+
+    Long userId = token.getUserId();
+    if (idempotencyKey == null && RESPOND_ASYNC.equalsIgnoreCase(prefer)
+        && orderQueueWorker.isEnabled()) {
+      OrderTicketResponse ticket = checkoutService.acceptCheckout(checkoutRequest, userId);
+      return ResponseEntity.accepted()
+          .location(URI.create("/orders/tickets/" + ticket.getTicketId()))
+          .header("Preference-Applied", RESPOND_ASYNC)
+          .body(ticket);
+    }
+
+    OrderResponse response = idempotencyKey == null
+        ? checkoutService.processCheckout(checkoutRequest, userId, quoteToken)
+        : idempotencyService.execute(userId, idempotencyKey, checkoutRequest,
+            () -> checkoutService.processCheckout(checkoutRequest, userId, quoteToken));
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Price a cart without placing an order endpoint.
+   *
+   * <p>Nothing is written; the returned quote token may be sent with the checkout as a
+   * {@code Quote-Token} header.
+   *
+   * @param checkoutRequest the checkout request
+   * @param token the verified JWT token of the authenticated user
+   * @return quote response
+   */
+  @PostMapping("/quote")
+  public ResponseEntity<QuoteResponse> quote(
+      @Valid @RequestBody CheckoutRequest checkoutRequest,
+      @AuthenticationPrincipal VerifiedToken token) {
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+
+    return ResponseEntity.ok(checkoutService.quoteCheckout(checkoutRequest, token.getUserId()));
+  }
+
+  /**
+   * Get the state of a queued order endpoint.
+   *
+   * @param ticketId the order ticket ID
+   * @param token the verified JWT token of the authenticated user
+   * @return order ticket response
+   */
+  @GetMapping("/tickets/{ticketId}")
+  public ResponseEntity<OrderTicketResponse> getTicket(
+      @PathVariable Long ticketId,
+      @AuthenticationPrincipal VerifiedToken token) {
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+
+    return ResponseEntity.ok(orderQueueService.getTicket(ticketId, token.getUserId()));
+  }
+
+  /**
+   * Create many orders in one request endpoint.
+   *
+   * <p>Each cart succeeds or fails on its own; the response holds one result per cart, in
+   * request order.
+   *
+   * @param batchCheckoutRequest the batch checkout request
+   * @param token the verified JWT token of the authenticated user
+   * @return batch order response
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<BatchOrderResponse> createOrders(
+      @Valid @RequestBody BatchCheckoutRequest batchCheckoutRequest,
+      @AuthenticationPrincipal VerifiedToken token) {
+    if (token == null) {
+      throw new MissingJwtTokenException();
+    }
+
+    BatchOrderResponse response = checkoutService.processBatchCheckout(
+        batchCheckoutRequest.getOrders(), token.getUserId());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Reserve stock for a cart endpoint.
+   *
+   * @param checkoutRequest the checkout request
+   * @param token the verified JWT token of the authenticated user
+   * @return reservation response
+   */
+  @PostMapping("/reservations")
+  public ResponseEntity<ReservationResponse> reserve(
       @Valid @RequestBody CheckoutRequest checkoutRequest,
-      HttpServletRequest request) {
-    // Extract user ID from JWT token
-    String token = extractTokenFromRequest(request);
+      @AuthenticationPrincipal VerifiedToken token) {
     if (token == null) {
       throw new MissingJwtTokenException();
     }
-    Long authenticatedUserId = jwtService.extractUserId(token);
 
-    OrderResponse response = checkoutService.processCheckout(checkoutRequest, authenticatedUserId);
+    ReservationResponse response = checkoutService.reserveCheckout(checkoutRequest,
+        token.getUserId());
     return ResponseEntity.ok(response);
   }
 
-  private String extractTokenFromRequest(HttpServletRequest request) {
-    String bearerToken = request.getHeader("Authorization");
-    if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-      return bearerToken.substring(7);
+  /**
+   * Confirm a reservation as an order endpoint.
+   *
+   * @param reservationId the reservation ID
+   * @param token the verified JWT token of the authenticated user
+   * @return order response
+   */
+  @PostMapping("/reservations/{reservationId}/confirm")
+  public ResponseEntity<OrderResponse> confirm(
+      @PathVariable Long reservationId,
+      @AuthenticationPrincipal VerifiedToken token) {
+    if (token == null) {
+      throw new MissingJwtTokenException();
     }
-    return null;
+
+    OrderResponse response = checkoutService.confirmReservation(reservationId,
+        token.getUserId());
+    return ResponseEntity.ok(response);
   }
 }
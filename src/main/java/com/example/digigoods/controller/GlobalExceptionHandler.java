@@ -2,13 +2,20 @@ package com.example.digigoods.controller;
 
 import com.example.digigoods.dto.ErrorResponse;
 import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.exception.IdempotencyKeyException;
 import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.InvalidReservationException;
+import com.example.digigoods.exception.LoginCapacityExceededException;
 import com.example.digigoods.exception.MissingJwtTokenException;
+import com.example.digigoods.exception.OrderTicketNotFoundException;
 import com.example.digigoods.exception.ProductNotFoundException;
+import com.example.digigoods.exception.ReservationNotFoundException;
+import com.example.digigoods.exception.TooManyLoginAttemptsException;
 import com.example.digigoods.exception.UnauthorizedAccessException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -35,6 +42,54 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
   }
 
+  @ExceptionHandler(ReservationNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleReservationNotFoundException(
+      ReservationNotFoundException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.NOT_FOUND.value(),
+        "Not Found",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+  }
+
+  @ExceptionHandler(OrderTicketNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleOrderTicketNotFoundException(
+      OrderTicketNotFoundException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.NOT_FOUND.value(),
+        "Not Found",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+  }
+
+  @ExceptionHandler(InvalidReservationException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidReservationException(
+      InvalidReservationException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.CONFLICT.value(),
+        "Conflict",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+  }
+
+  @ExceptionHandler(IdempotencyKeyException.class)
+  public ResponseEntity<ErrorResponse> handleIdempotencyKeyException(
+      IdempotencyKeyException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.UNPROCESSABLE_ENTITY.value(),
+        "Unprocessable Entity",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+  }
+
   @ExceptionHandler({InvalidDiscountException.class, ExcessiveDiscountException.class,
                      InsufficientStockException.class})
   public ResponseEntity<ErrorResponse> handleBadRequestExceptions(
@@ -84,6 +139,34 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
   }
 
+  @ExceptionHandler(LoginCapacityExceededException.class)
+  public ResponseEntity<ErrorResponse> handleLoginCapacityExceededException(
+      LoginCapacityExceededException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.SERVICE_UNAVAILABLE.value(),
+        "Service Unavailable",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(error);
+  }
+
+  @ExceptionHandler(TooManyLoginAttemptsException.class)
+  public ResponseEntity<ErrorResponse> handleTooManyLoginAttemptsException(
+      TooManyLoginAttemptsException ex, HttpServletRequest request) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.TOO_MANY_REQUESTS.value(),
+        "Too Many Requests",
+        ex.getMessage(),
+        request.getRequestURI()
+    );
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException ex, HttpServletRequest request) {
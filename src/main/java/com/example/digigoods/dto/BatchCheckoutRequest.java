@@ -0,0 +1,24 @@
+package com.example.digigoods.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for batch checkout request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCheckoutRequest {
+
+  public static final int MAX_ORDERS = 500;
+
+  @NotEmpty(message = "Orders cannot be empty")
+  @Size(max = MAX_ORDERS, message = "At most " + MAX_ORDERS + " orders can be placed at once")
+  private List<@Valid CheckoutRequest> orders;
+}
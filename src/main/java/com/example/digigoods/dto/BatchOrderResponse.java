@@ -0,0 +1,19 @@
+package com.example.digigoods.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for batch checkout response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResponse {
+
+  private int createdCount;
+  private int failedCount;
+  private List<BatchOrderResult> results;
+}
@@ -0,0 +1,21 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one cart of a batch checkout.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResult {
+
+  private int index;
+  private boolean created;
+  private Long orderId;
+  private String message;
+  private BigDecimal finalPrice;
+}
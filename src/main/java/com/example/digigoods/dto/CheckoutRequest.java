@@ -1,6 +1,8 @@
 package com.example.digigoods.dto;
 
-import jakarta.validation.constraints.NotEmpty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -9,6 +11,9 @@ import lombok.NoArgsConstructor;
 
 /**
  * DTO for checkout request.
+ *
+ * <p>A cart is given as line items with a quantity each, as product IDs repeated once per unit,
+ * or both; the units of the same product are added up.
  */
 @Data
 @NoArgsConstructor
@@ -18,8 +23,26 @@ public class CheckoutRequest {
   @NotNull(message = "User ID is required")
   private Long userId;
 
-  @NotEmpty(message = "Product IDs cannot be empty")
   private List<Long> productIds;
 
   private List<String> discountCodes;
+
+  private List<@Valid @NotNull CheckoutItem> items;
+
+  /**
+   * Create a checkout request with the cart given as product IDs.
+   *
+   * @param userId the ID of the ordering user
+   * @param productIds the product IDs, repeated once per unit
+   * @param discountCodes the discount codes
+   */
+  public CheckoutRequest(Long userId, List<Long> productIds, List<String> discountCodes) {
+    this(userId, productIds, discountCodes, null);
+  }
+
+  @JsonIgnore
+  @AssertTrue(message = "Product IDs or items cannot be empty")
+  public boolean isCartPresent() {
+    return (productIds != null && !productIds.isEmpty()) || (items != null && !items.isEmpty());
+  }
 }
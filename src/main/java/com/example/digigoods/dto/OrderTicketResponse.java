@@ -0,0 +1,21 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the state of a queued order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTicketResponse {
+
+  private Long ticketId;
+  private String status;
+  private String message;
+  private BigDecimal finalPrice;
+  private Long orderId;
+}
@@ -0,0 +1,21 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for cart price quote response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResponse {
+
+  private String quoteToken;
+  private BigDecimal originalSubtotal;
+  private BigDecimal finalPrice;
+  private LocalDateTime expiresAt;
+}
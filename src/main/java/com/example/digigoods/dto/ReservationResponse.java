@@ -0,0 +1,20 @@
+package com.example.digigoods.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for stock reservation response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+
+  private Long reservationId;
+  private BigDecimal finalPrice;
+  private LocalDateTime expiresAt;
+}
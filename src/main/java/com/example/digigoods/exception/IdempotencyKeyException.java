@@ -0,0 +1,12 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when an {@code Idempotency-Key} header is malformed or reused for a
+ * different request.
+ */
+public class IdempotencyKeyException extends RuntimeException {
+
+  public IdempotencyKeyException(String message) {
+    super(message);
+  }
+}
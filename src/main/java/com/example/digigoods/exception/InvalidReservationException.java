@@ -0,0 +1,11 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when a stock reservation can no longer be confirmed.
+ */
+public class InvalidReservationException extends RuntimeException {
+
+  public InvalidReservationException(Long reservationId, String reason) {
+    super("Reservation " + reservationId + " cannot be confirmed: " + reason);
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when the login verification pool cannot accept more work.
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+
+  public LoginCapacityExceededException(String message) {
+    super(message);
+  }
+
+  public LoginCapacityExceededException() {
+    super("Too many concurrent login attempts, please retry shortly");
+  }
+}
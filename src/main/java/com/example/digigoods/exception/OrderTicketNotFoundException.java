@@ -0,0 +1,11 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when an order ticket is not found.
+ */
+public class OrderTicketNotFoundException extends RuntimeException {
+
+  public OrderTicketNotFoundException(Long ticketId) {
+    super("Order ticket not found with ID: " + ticketId);
+  }
+}
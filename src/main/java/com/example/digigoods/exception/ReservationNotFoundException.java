@@ -0,0 +1,11 @@
+package com.example.digigoods.exception;
+
+/**
+ * Exception thrown when a stock reservation is not found.
+ */
+public class ReservationNotFoundException extends RuntimeException {
+
+  public ReservationNotFoundException(Long reservationId) {
+    super("Reservation not found with ID: " + reservationId);
+  }
+}
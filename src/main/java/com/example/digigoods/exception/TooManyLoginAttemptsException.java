@@ -0,0 +1,17 @@
+package com.example.digigoods.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when login attempts are throttled.
+ */
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public TooManyLoginAttemptsException(long retryAfterSeconds) {
+    super("Too many login attempts, please retry later");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
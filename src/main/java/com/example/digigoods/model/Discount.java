@@ -1,7 +1,9 @@
 package com.example.digigoods.model;
 
+import com.example.digigoods.service.CatalogChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -23,6 +25,7 @@ import lombok.NoArgsConstructor;
  * Discount entity representing a discount in the system.
  */
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "discounts")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,39 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only record of a discount being redeemed by an order.
+ */
+@Entity
+@Table(name = "discount_redemptions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountRedemption {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "discount_id", nullable = false)
+  private Long discountId;
+
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "redeemed_at", nullable = false)
+  private LocalDateTime redeemedAt;
+}
@@ -0,0 +1,55 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored result of a checkout made with an {@code Idempotency-Key} header.
+ *
+ * <p>The record is inserted before the checkout runs and completed in the same transaction, so
+ * the unique constraint on user and key makes concurrent duplicates wait for the first attempt.
+ */
+@Entity
+@Table(
+    name = "idempotency_records",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_idempotency_records_user_id_key",
+        columnNames = {"user_id", "idempotency_key"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "idempotency_key", nullable = false)
+  private String idempotencyKey;
+
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column
+  private String message;
+
+  @Column(name = "final_price", precision = 19, scale = 2)
+  private BigDecimal finalPrice;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+}
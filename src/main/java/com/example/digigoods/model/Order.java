@@ -1,6 +1,8 @@
 package com.example.digigoods.model;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,7 +15,9 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -45,6 +49,13 @@ public class Order {
   )
   private Set<Product> products = new HashSet<>();
 
+  @ElementCollection
+  @CollectionTable(
+      name = "order_items",
+      joinColumns = @JoinColumn(name = "order_id")
+  )
+  private List<OrderItem> items = new ArrayList<>();
+
   @ManyToMany
   @JoinTable(
       name = "order_applied_discounts",
@@ -53,10 +64,10 @@ public class Order {
   )
   private Set<Discount> appliedDiscounts = new HashSet<>();
 
-  @Column(name = "original_subtotal", nullable = false, precision = 10, scale = 2)
+  @Column(name = "original_subtotal", nullable = false, precision = 19, scale = 2)
   private BigDecimal originalSubtotal;
 
-  @Column(name = "final_price", nullable = false, precision = 10, scale = 2)
+  @Column(name = "final_price", nullable = false, precision = 19, scale = 2)
   private BigDecimal finalPrice;
 
   @Column(name = "order_date", nullable = false)
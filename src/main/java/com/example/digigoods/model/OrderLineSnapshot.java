@@ -0,0 +1,58 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only, denormalized record of one order line as it was sold.
+ *
+ * <p>Copies the product name and prices at purchase time next to the user, product and order
+ * date, so sales can be reported from this table alone.
+ */
+@Entity
+@Table(name = "order_line_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineSnapshot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(name = "product_name", nullable = false)
+  private String productName;
+
+  @Column(nullable = false)
+  private Integer quantity;
+
+  @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+  private BigDecimal unitPrice;
+
+  @Column(name = "discount_amount", nullable = false, precision = 19, scale = 2)
+  private BigDecimal discountAmount;
+
+  @Column(name = "line_price", nullable = false, precision = 19, scale = 2)
+  private BigDecimal linePrice;
+
+  @Column(name = "order_date", nullable = false)
+  private LocalDateTime orderDate;
+}
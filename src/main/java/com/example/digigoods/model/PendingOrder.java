@@ -0,0 +1,70 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Priced checkout request waiting in the order queue; its ID is the order ticket.
+ */
+@Entity
+@Table(name = "pending_orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingOrder {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private PendingOrderStatus status;
+
+  @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+  @Column(nullable = false)
+  private String payload;
+
+  @Column(name = "quoted_price", nullable = false, precision = 19, scale = 2)
+  private BigDecimal quotedPrice;
+
+  @Column(name = "final_price", precision = 19, scale = 2)
+  private BigDecimal finalPrice;
+
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Column(name = "failure_reason")
+  private String failureReason;
+
+  @Column(name = "claim_id", length = 36)
+  private String claimId;
+
+  @Column(nullable = false)
+  private Integer attempts;
+
+  @Column(name = "next_attempt_at")
+  private LocalDateTime nextAttemptAt;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "processed_at")
+  private LocalDateTime processedAt;
+}
@@ -0,0 +1,10 @@
+package com.example.digigoods.model;
+
+/**
+ * Enum representing the state of a queued order.
+ */
+public enum PendingOrderStatus {
+  PENDING,
+  COMPLETED,
+  FAILED
+}
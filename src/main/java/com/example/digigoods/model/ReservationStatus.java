@@ -0,0 +1,10 @@
+package com.example.digigoods.model;
+
+/**
+ * Enum representing the state of a stock reservation.
+ */
+public enum ReservationStatus {
+  HELD,
+  CONFIRMED,
+  RELEASED
+}
@@ -0,0 +1,38 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock taken by a combined update on behalf of a checkout that has not committed yet.
+ *
+ * <p>Claims are written in the same transaction as the combined update and removed in the
+ * checkout's own transaction, so a claim outlives its checkout only if the checkout rolled back
+ * or never finished. Such claims are given back to the product's {@code stock} column.
+ */
+@Entity
+@Table(name = "stock_claims")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockClaim {
+
+  @Id
+  @Column(length = 36)
+  private String id;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(nullable = false)
+  private Integer quantity;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+}
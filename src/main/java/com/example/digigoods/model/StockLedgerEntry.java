@@ -0,0 +1,46 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Journal entry for stock sold from the in-memory ledger of a hot product.
+ *
+ * <p>Entries are written in the same transaction as their order and removed once a flush has
+ * subtracted them from the product's {@code stock} column, so the stock of a hot product is
+ * always {@code stock} minus its unflushed entries.
+ */
+@Entity
+@Table(name = "stock_ledger_entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+
+  @Column(nullable = false)
+  private Integer quantity;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "flush_id", length = 36)
+  private String flushId;
+}
@@ -0,0 +1,73 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock held for a priced cart until it is confirmed as an order or expires.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ReservationStatus status;
+
+  @ElementCollection
+  @CollectionTable(
+      name = "stock_reservation_items",
+      joinColumns = @JoinColumn(name = "reservation_id")
+  )
+  private List<ReservationItem> items = new ArrayList<>();
+
+  @ManyToMany
+  @JoinTable(
+      name = "stock_reservation_discounts",
+      joinColumns = @JoinColumn(name = "reservation_id"),
+      inverseJoinColumns = @JoinColumn(name = "discount_id")
+  )
+  private Set<Discount> appliedDiscounts = new HashSet<>();
+
+  @Column(name = "original_subtotal", nullable = false, precision = 19, scale = 2)
+  private BigDecimal originalSubtotal;
+
+  @Column(name = "final_price", nullable = false, precision = 19, scale = 2)
+  private BigDecimal finalPrice;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+}
@@ -0,0 +1,29 @@
+package com.example.digigoods.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity recording when a user's tokens were last revoked.
+ *
+ * <p>Tokens of the user issued before {@code epochMillis} (in epoch milliseconds) are rejected.
+ */
+@Entity
+@Table(name = "user_token_epochs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTokenEpoch {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Column(name = "epoch_millis", nullable = false)
+  private Long epochMillis;
+}
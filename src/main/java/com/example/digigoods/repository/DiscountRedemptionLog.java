@@ -0,0 +1,17 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.DiscountRedemption;
+import java.util.List;
+
+/**
+ * Batched writes to the discount redemption log.
+ */
+public interface DiscountRedemptionLog {
+
+  /**
+   * Append redemption records in one JDBC batch.
+   *
+   * @param redemptions the redemptions to append
+   */
+  void appendAll(List<DiscountRedemption> redemptions);
+}
@@ -0,0 +1,33 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.DiscountRedemption;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link DiscountRedemptionLog}.
+ */
+public class DiscountRedemptionLogImpl implements DiscountRedemptionLog {
+
+  private static final String INSERT_REDEMPTION_SQL =
+      "INSERT INTO discount_redemptions (discount_id, order_id, user_id, redeemed_at) "
+          + "VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public DiscountRedemptionLogImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void appendAll(List<DiscountRedemption> redemptions) {
+    jdbcTemplate.batchUpdate(INSERT_REDEMPTION_SQL, redemptions, redemptions.size(),
+        (ps, redemption) -> {
+          ps.setLong(1, redemption.getDiscountId());
+          ps.setLong(2, redemption.getOrderId());
+          ps.setLong(3, redemption.getUserId());
+          ps.setTimestamp(4, Timestamp.valueOf(redemption.getRedeemedAt()));
+        });
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.DiscountRedemption;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for DiscountRedemption entity.
+ */
+@Repository
+public interface DiscountRedemptionRepository
+    extends JpaRepository<DiscountRedemption, Long>, DiscountRedemptionLog {
+
+  /**
+   * Find all redemptions recorded for an order.
+   *
+   * @param orderId the order ID
+   * @return list of redemptions
+   */
+  List<DiscountRedemption> findAllByOrderId(Long orderId);
+}
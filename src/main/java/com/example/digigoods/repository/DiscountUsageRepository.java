@@ -0,0 +1,49 @@
+package com.example.digigoods.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Usage write operations on discounts that bypass the persistence context.
+ */
+public interface DiscountUsageRepository {
+
+  /**
+   * Take one use from each of several discounts in one JDBC batch.
+   *
+   * <p>Each row is only updated if it still has a remaining use, so concurrent checkouts can
+   * never redeem a discount more often than allowed.
+   *
+   * @param discountIds the IDs of the discounts to redeem
+   * @return the IDs of the discounts that had no remaining use
+   */
+  List<Long> decrementRemainingUses(Collection<Long> discountIds);
+
+  /**
+   * Give one use back to each of several discounts in one JDBC batch.
+   *
+   * @param discountIds the IDs of the discounts
+   */
+  void incrementRemainingUses(Collection<Long> discountIds);
+
+  /**
+   * Take several uses from each of several discounts in one JDBC batch.
+   *
+   * <p>Each row is only updated if it still has enough remaining uses.
+   *
+   * @param uses the number of uses to take from each discount, keyed by discount ID
+   * @return the IDs of the discounts that had not enough remaining uses
+   */
+  List<Long> decrementRemainingUsesBy(Map<Long, Integer> uses);
+
+  /**
+   * Lock the rows of several discounts in one query and read their remaining uses.
+   *
+   * <p>Rows stay locked until the current transaction ends. Must run inside a transaction.
+   *
+   * @param discountIds the discount IDs
+   * @return the remaining uses of each existing discount, keyed by discount ID
+   */
+  Map<Long, Integer> lockRemainingUses(Collection<Long> discountIds);
+}
@@ -0,0 +1,106 @@
+package com.example.digigoods.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * JDBC implementation of {@link DiscountUsageRepository}.
+ */
+public class DiscountUsageRepositoryImpl implements DiscountUsageRepository {
+
+  private static final String DECREMENT_REMAINING_USES_SQL =
+      "UPDATE discounts SET remaining_uses = remaining_uses - 1 "
+          + "WHERE id = ? AND remaining_uses > 0";
+
+  private static final String INCREMENT_REMAINING_USES_SQL =
+      "UPDATE discounts SET remaining_uses = remaining_uses + 1 WHERE id = ?";
+
+  private static final String DECREMENT_REMAINING_USES_BY_SQL =
+      "UPDATE discounts SET remaining_uses = remaining_uses - ? "
+          + "WHERE id = ? AND remaining_uses >= ?";
+
+  private static final String LOCK_REMAINING_USES_SQL =
+      "SELECT id, remaining_uses FROM discounts WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Create the repository.
+   *
+   * @param jdbcTemplate the JDBC template
+   */
+  public DiscountUsageRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  @Override
+  public List<Long> decrementRemainingUses(Collection<Long> discountIds) {
+    // Lock rows in ID order so concurrent checkouts cannot deadlock on each other
+    List<Long> ids = new ArrayList<>(new TreeSet<>(discountIds));
+
+    int[][] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_REMAINING_USES_SQL, ids, ids.size(),
+        (ps, id) -> ps.setLong(1, id));
+
+    return rejected(updateCounts, ids);
+  }
+
+  @Override
+  public void incrementRemainingUses(Collection<Long> discountIds) {
+    List<Long> ids = new ArrayList<>(new TreeSet<>(discountIds));
+
+    jdbcTemplate.batchUpdate(INCREMENT_REMAINING_USES_SQL, ids, ids.size(),
+        (ps, id) -> ps.setLong(1, id));
+  }
+
+  @Override
+  public List<Long> decrementRemainingUsesBy(Map<Long, Integer> uses) {
+    List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(uses).entrySet());
+
+    int[][] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_REMAINING_USES_BY_SQL, lines,
+        lines.size(),
+        (ps, line) -> {
+          ps.setInt(1, line.getValue());
+          ps.setLong(2, line.getKey());
+          ps.setInt(3, line.getValue());
+        });
+
+    return rejected(updateCounts, lines.stream().map(Map.Entry::getKey).toList());
+  }
+
+  @Override
+  public Map<Long, Integer> lockRemainingUses(Collection<Long> discountIds) {
+    Map<Long, Integer> remainingUses = new HashMap<>();
+    if (discountIds.isEmpty()) {
+      return remainingUses;
+    }
+
+    namedParameterJdbcTemplate.query(LOCK_REMAINING_USES_SQL, Map.of("ids", discountIds),
+        rs -> {
+          remainingUses.put(rs.getLong("id"), rs.getInt("remaining_uses"));
+        });
+    return remainingUses;
+  }
+
+  private List<Long> rejected(int[][] updateCounts, List<Long> ids) {
+    List<Long> exhausted = new ArrayList<>();
+    int index = 0;
+    for (int[] batch : updateCounts) {
+      for (int count : batch) {
+        if (count == 0) {
+          exhausted.add(ids.get(index));
+        }
+        index++;
+      }
+    }
+    return exhausted;
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.IdempotencyRecord;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for IdempotencyRecord entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+  /**
+   * Find the record of an idempotency key of a user.
+   *
+   * @param userId the user ID
+   * @param idempotencyKey the idempotency key
+   * @return an Optional containing the record if found
+   */
+  Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+  /**
+   * Delete all records created before a point in time.
+   *
+   * @param cutoff the oldest creation time to keep
+   * @return number of deleted records
+   */
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
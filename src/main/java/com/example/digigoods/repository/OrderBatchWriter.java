@@ -0,0 +1,20 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.Order;
+import java.util.List;
+
+/**
+ * Batched inserts of orders that bypass the persistence context.
+ */
+public interface OrderBatchWriter {
+
+  /**
+   * Insert orders with their items and product and discount links in JDBC batches.
+   *
+   * <p>Orders use identity IDs, which Hibernate cannot insert in batches. Each order gets its
+   * generated ID and order date set. Must run inside a transaction.
+   *
+   * @param orders the new orders
+   */
+  void insertAll(List<Order> orders);
+}
@@ -0,0 +1,112 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderItem;
+import com.example.digigoods.model.Product;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link OrderBatchWriter}.
+ */
+public class OrderBatchWriterImpl implements OrderBatchWriter {
+
+  private static final String INSERT_ORDER_SQL =
+      "INSERT INTO orders (user_id, original_subtotal, final_price, order_date) "
+          + "VALUES (?, ?, ?, ?)";
+
+  private static final String INSERT_ORDER_PRODUCT_SQL =
+      "INSERT INTO order_products (order_id, product_id) VALUES (?, ?)";
+
+  private static final String INSERT_ORDER_ITEM_SQL =
+      "INSERT INTO order_items (order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
+
+  private static final String INSERT_ORDER_DISCOUNT_SQL =
+      "INSERT INTO order_applied_discounts (order_id, discount_id) VALUES (?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OrderBatchWriterImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertAll(List<Order> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+      try (PreparedStatement ps = connection.prepareStatement(INSERT_ORDER_SQL,
+          new String[] {"id"})) {
+        for (Order order : orders) {
+          // Set the order date as the entity's @PrePersist callback would
+          order.setOrderDate(now);
+          ps.setLong(1, order.getUser().getId());
+          ps.setBigDecimal(2, order.getOriginalSubtotal());
+          ps.setBigDecimal(3, order.getFinalPrice());
+          ps.setTimestamp(4, Timestamp.valueOf(now));
+          ps.addBatch();
+        }
+        ps.executeBatch();
+
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+          for (Order order : orders) {
+            if (!keys.next()) {
+              throw new IllegalStateException("Missing generated ID for batch inserted order");
+            }
+            order.setId(keys.getLong(1));
+          }
+        }
+      }
+      return null;
+    });
+
+    List<Map.Entry<Long, Long>> productLinks = new ArrayList<>();
+    List<Map.Entry<Long, OrderItem>> items = new ArrayList<>();
+    List<Map.Entry<Long, Long>> discountLinks = new ArrayList<>();
+    for (Order order : orders) {
+      for (OrderItem item : order.getItems()) {
+        items.add(Map.entry(order.getId(), item));
+      }
+      for (Product product : order.getProducts()) {
+        productLinks.add(Map.entry(order.getId(), product.getId()));
+      }
+      for (Discount discount : order.getAppliedDiscounts()) {
+        discountLinks.add(Map.entry(order.getId(), discount.getId()));
+      }
+    }
+
+    insertLinks(INSERT_ORDER_PRODUCT_SQL, productLinks);
+    insertLinks(INSERT_ORDER_DISCOUNT_SQL, discountLinks);
+    if (!items.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, items, items.size(),
+          (ps, item) -> {
+            ps.setLong(1, item.getKey());
+            ps.setLong(2, item.getValue().getProductId());
+            ps.setInt(3, item.getValue().getQuantity());
+            ps.setBigDecimal(4, item.getValue().getUnitPrice());
+          });
+    }
+  }
+
+  private void insertLinks(String sql, List<Map.Entry<Long, Long>> links) {
+    if (links.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(sql, links, links.size(),
+        (ps, link) -> {
+          ps.setLong(1, link.getKey());
+          ps.setLong(2, link.getValue());
+        });
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OrderLineSnapshot;
+import java.util.List;
+
+/**
+ * Batched writes to the order line snapshots.
+ */
+public interface OrderLineSnapshotLog {
+
+  /**
+   * Append order line snapshots in one JDBC batch.
+   *
+   * @param snapshots the snapshots to append
+   */
+  void appendAll(List<OrderLineSnapshot> snapshots);
+}
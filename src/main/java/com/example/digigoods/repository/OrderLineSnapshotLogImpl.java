@@ -0,0 +1,39 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OrderLineSnapshot;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link OrderLineSnapshotLog}.
+ */
+public class OrderLineSnapshotLogImpl implements OrderLineSnapshotLog {
+
+  private static final String INSERT_SNAPSHOT_SQL =
+      "INSERT INTO order_line_snapshots (order_id, user_id, product_id, product_name, quantity, "
+          + "unit_price, discount_amount, line_price, order_date) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OrderLineSnapshotLogImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void appendAll(List<OrderLineSnapshot> snapshots) {
+    jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, snapshots, snapshots.size(),
+        (ps, snapshot) -> {
+          ps.setLong(1, snapshot.getOrderId());
+          ps.setLong(2, snapshot.getUserId());
+          ps.setLong(3, snapshot.getProductId());
+          ps.setString(4, snapshot.getProductName());
+          ps.setInt(5, snapshot.getQuantity());
+          ps.setBigDecimal(6, snapshot.getUnitPrice());
+          ps.setBigDecimal(7, snapshot.getDiscountAmount());
+          ps.setBigDecimal(8, snapshot.getLinePrice());
+          ps.setTimestamp(9, Timestamp.valueOf(snapshot.getOrderDate()));
+        });
+  }
+}
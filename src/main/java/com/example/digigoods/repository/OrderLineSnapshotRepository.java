@@ -0,0 +1,40 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.OrderLineSnapshot;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrderLineSnapshot entity.
+ */
+@Repository
+public interface OrderLineSnapshotRepository
+    extends JpaRepository<OrderLineSnapshot, Long>, OrderLineSnapshotLog {
+
+  /**
+   * Find all order line snapshots of a user.
+   *
+   * @param userId the user ID
+   * @return list of snapshots
+   */
+  List<OrderLineSnapshot> findAllByUserId(Long userId);
+
+  /**
+   * Sum the revenue of a product over a period.
+   *
+   * @param productId the product ID
+   * @param from the start of the period, inclusive
+   * @param to the end of the period, exclusive
+   * @return the summed line prices, zero if nothing was sold
+   */
+  @Query("SELECT COALESCE(SUM(s.linePrice), 0) FROM OrderLineSnapshot s "
+      + "WHERE s.productId = :productId AND s.orderDate >= :from AND s.orderDate < :to")
+  BigDecimal sumRevenueByProductId(@Param("productId") Long productId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,92 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.PendingOrder;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for PendingOrder entity.
+ */
+@Repository
+public interface PendingOrderRepository extends JpaRepository<PendingOrder, Long> {
+
+  /**
+   * Find a queued order of a user.
+   *
+   * @param id the ticket ID
+   * @param userId the ID of the user owning the ticket
+   * @return an Optional containing the queued order if found
+   */
+  Optional<PendingOrder> findByIdAndUserId(Long id, Long userId);
+
+  /**
+   * Find the IDs of unclaimed pending orders due for an attempt, oldest first.
+   *
+   * @param now the current time
+   * @param pageable the maximum number of IDs to return
+   * @return list of pending order IDs
+   */
+  @Query("SELECT p.id FROM PendingOrder p "
+      + "WHERE p.status = com.example.digigoods.model.PendingOrderStatus.PENDING "
+      + "AND p.claimId IS NULL "
+      + "AND (p.nextAttemptAt IS NULL OR p.nextAttemptAt <= :now) ORDER BY p.id")
+  List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+  /**
+   * Claim a pending order that nobody else has claimed.
+   *
+   * <p>The claim locks the row until the transaction ends; a concurrent claim of the same row
+   * waits and then finds it claimed.
+   *
+   * @param id the ID to claim
+   * @param claimId a unique ID for this claim
+   * @return number of claimed rows
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE PendingOrder p SET p.claimId = :claimId "
+      + "WHERE p.id = :id "
+      + "AND p.status = com.example.digigoods.model.PendingOrderStatus.PENDING "
+      + "AND p.claimId IS NULL")
+  int claim(@Param("id") Long id, @Param("claimId") String claimId);
+
+  /**
+   * Claim the pending orders among the given ones that nobody else has claimed.
+   *
+   * <p>Claims all of them under one claim ID in a single statement, so the entities of earlier
+   * claims in the same transaction are not detached by later ones.
+   *
+   * @param ids the IDs to claim
+   * @param claimId a unique ID for this claim
+   * @return number of claimed rows
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE PendingOrder p SET p.claimId = :claimId "
+      + "WHERE p.id IN :ids "
+      + "AND p.status = com.example.digigoods.model.PendingOrderStatus.PENDING "
+      + "AND p.claimId IS NULL")
+  int claimAll(@Param("ids") Collection<Long> ids, @Param("claimId") String claimId);
+
+  /**
+   * Find the pending order of a claim.
+   *
+   * @param claimId the claim ID
+   * @return an Optional containing the claimed pending order if found
+   */
+  Optional<PendingOrder> findByClaimId(String claimId);
+
+  /**
+   * Find the pending orders of a batch claim, oldest first.
+   *
+   * @param claimId the claim ID
+   * @return list of claimed pending orders
+   */
+  List<PendingOrder> findAllByClaimIdOrderById(String claimId);
+}
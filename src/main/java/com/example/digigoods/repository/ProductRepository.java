@@ -2,14 +2,18 @@ package com.example.digigoods.repository;
 
 import com.example.digigoods.model.Product;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Product entity.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository
+    extends JpaRepository<Product, Long>, ProductStockRepository {
 
   /**
    * Find all products by their IDs.
@@ -18,4 +22,13 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
    * @return list of products
    */
   List<Product> findAllByIdIn(List<Long> ids);
+
+  /**
+   * Find the current stock of a product.
+   *
+   * @param id the product ID
+   * @return an Optional containing the stock if the product exists
+   */
+  @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+  Optional<Integer> findStockById(@Param("id") Long id);
 }
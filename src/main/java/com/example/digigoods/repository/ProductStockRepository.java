@@ -0,0 +1,40 @@
+package com.example.digigoods.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock write operations on products that bypass the persistence context.
+ */
+public interface ProductStockRepository {
+
+  /**
+   * Decrement the stock of several products in one JDBC batch.
+   *
+   * <p>Each row is only updated if it still has enough stock, so concurrent checkouts can never
+   * drive stock below zero.
+   *
+   * @param quantities the quantity to take from each product, keyed by product ID
+   * @return the IDs of the products whose stock was not decremented because it was insufficient
+   */
+  List<Long> decrementStock(Map<Long, Integer> quantities);
+
+  /**
+   * Return stock to several products in one JDBC batch.
+   *
+   * @param quantities the quantity to return to each product, keyed by product ID
+   */
+  void incrementStock(Map<Long, Integer> quantities);
+
+  /**
+   * Lock the rows of several products in one query and read their stock.
+   *
+   * <p>Rows stay locked until the current transaction ends, so the returned stock can be
+   * allocated without racing other checkouts. Must run inside a transaction.
+   *
+   * @param productIds the product IDs
+   * @return the stock of each existing product, keyed by product ID
+   */
+  Map<Long, Integer> lockStock(Collection<Long> productIds);
+}
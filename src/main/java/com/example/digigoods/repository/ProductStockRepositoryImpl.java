@@ -0,0 +1,89 @@
+package com.example.digigoods.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * JDBC implementation of {@link ProductStockRepository}.
+ */
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+  private static final String DECREMENT_STOCK_SQL =
+      "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+  private static final String INCREMENT_STOCK_SQL =
+      "UPDATE products SET stock = stock + ? WHERE id = ?";
+
+  private static final String LOCK_STOCK_SQL =
+      "SELECT id, stock FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  /**
+   * Create the repository.
+   *
+   * @param jdbcTemplate the JDBC template
+   */
+  public ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  @Override
+  public List<Long> decrementStock(Map<Long, Integer> quantities) {
+    // Lock rows in ID order so concurrent checkouts cannot deadlock on each other
+    List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+
+    int[][] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, lines, lines.size(),
+        (ps, line) -> {
+          ps.setInt(1, line.getValue());
+          ps.setLong(2, line.getKey());
+          ps.setInt(3, line.getValue());
+        });
+
+    List<Long> insufficient = new ArrayList<>();
+    int index = 0;
+    for (int[] batch : updateCounts) {
+      for (int count : batch) {
+        if (count == 0) {
+          insufficient.add(lines.get(index).getKey());
+        }
+        index++;
+      }
+    }
+    return insufficient;
+  }
+
+  @Override
+  public void incrementStock(Map<Long, Integer> quantities) {
+    List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+
+    jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, lines, lines.size(),
+        (ps, line) -> {
+          ps.setInt(1, line.getValue());
+          ps.setLong(2, line.getKey());
+        });
+  }
+
+  @Override
+  public Map<Long, Integer> lockStock(Collection<Long> productIds) {
+    Map<Long, Integer> stock = new HashMap<>();
+    if (productIds.isEmpty()) {
+      return stock;
+    }
+
+    // Lock rows in ID order so concurrent checkouts cannot deadlock on each other
+    namedParameterJdbcTemplate.query(LOCK_STOCK_SQL, Map.of("ids", productIds),
+        rs -> {
+          stock.put(rs.getLong("id"), rs.getInt("stock"));
+        });
+    return stock;
+  }
+}
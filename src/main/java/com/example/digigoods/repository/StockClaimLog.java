@@ -0,0 +1,28 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockClaim;
+import java.util.List;
+
+/**
+ * Batched operations on the stock claims of combined stock updates.
+ */
+public interface StockClaimLog {
+
+  /**
+   * Record claims in one JDBC batch.
+   *
+   * @param claims the claims to record
+   */
+  void recordAll(List<StockClaim> claims);
+
+  /**
+   * Remove claims in one JDBC batch.
+   *
+   * <p>A claim removed by a concurrent transaction is not removed again, so whoever removes a
+   * claim owns its stock.
+   *
+   * @param ids the claim IDs
+   * @return the IDs of the claims removed by this call
+   */
+  List<String> removeAll(List<String> ids);
+}
@@ -0,0 +1,54 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockClaim;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link StockClaimLog}.
+ */
+public class StockClaimLogImpl implements StockClaimLog {
+
+  private static final String INSERT_CLAIM_SQL =
+      "INSERT INTO stock_claims (id, product_id, quantity, created_at) VALUES (?, ?, ?, ?)";
+
+  private static final String DELETE_CLAIM_SQL =
+      "DELETE FROM stock_claims WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public StockClaimLogImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void recordAll(List<StockClaim> claims) {
+    jdbcTemplate.batchUpdate(INSERT_CLAIM_SQL, claims, claims.size(),
+        (ps, claim) -> {
+          ps.setString(1, claim.getId());
+          ps.setLong(2, claim.getProductId());
+          ps.setInt(3, claim.getQuantity());
+          ps.setTimestamp(4, Timestamp.valueOf(claim.getCreatedAt()));
+        });
+  }
+
+  @Override
+  public List<String> removeAll(List<String> ids) {
+    int[][] updateCounts = jdbcTemplate.batchUpdate(DELETE_CLAIM_SQL, ids, ids.size(),
+        (ps, id) -> ps.setString(1, id));
+
+    List<String> removed = new ArrayList<>();
+    int index = 0;
+    for (int[] batch : updateCounts) {
+      for (int count : batch) {
+        if (count != 0) {
+          removed.add(ids.get(index));
+        }
+        index++;
+      }
+    }
+    return removed;
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockClaim;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for StockClaim entity.
+ */
+@Repository
+public interface StockClaimRepository extends JpaRepository<StockClaim, String>, StockClaimLog {
+
+  /**
+   * Find claims created before a point in time, oldest first.
+   *
+   * @param createdBefore the point in time
+   * @param pageable the maximum number of claims to return
+   * @return list of claims
+   */
+  List<StockClaim> findAllByCreatedAtBeforeOrderByCreatedAt(LocalDateTime createdBefore,
+                                                            Pageable pageable);
+}
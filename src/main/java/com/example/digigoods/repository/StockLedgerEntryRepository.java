@@ -0,0 +1,22 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockLedgerEntry;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for StockLedgerEntry entity.
+ */
+@Repository
+public interface StockLedgerEntryRepository
+    extends JpaRepository<StockLedgerEntry, Long>, StockLedgerJournal {
+
+  /**
+   * Find all journal entries of an order.
+   *
+   * @param orderId the order ID
+   * @return list of journal entries
+   */
+  List<StockLedgerEntry> findAllByOrderId(Long orderId);
+}
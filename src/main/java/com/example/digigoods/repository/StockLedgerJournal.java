@@ -0,0 +1,49 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockLedgerEntry;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched journal operations of the hot product stock ledger.
+ */
+public interface StockLedgerJournal {
+
+  /**
+   * Append journal entries in one JDBC batch.
+   *
+   * @param entries the entries to append
+   */
+  void appendAll(List<StockLedgerEntry> entries);
+
+  /**
+   * Subtract all committed, unflushed entries from product stock and remove them.
+   *
+   * <p>Entries are first claimed with the given flush ID, so entries committed while the flush
+   * runs are left for the next one. Must run inside a transaction.
+   *
+   * @param flushId a unique ID for this flush
+   * @return the number of flushed entries
+   */
+  int flushPending(String flushId);
+
+  /**
+   * Compute the current stock of a product from its stock column, its unflushed entries and
+   * the quantities held for it through the ledger by stock reservations.
+   *
+   * <p>Holds taken from the stock column are already subtracted from it and are not counted
+   * again.
+   *
+   * @param productId the product ID
+   * @return the stock, or {@code null} if the product does not exist
+   */
+  Integer findLedgerStock(Long productId);
+
+  /**
+   * Find the products with stock held through the ledger by reservations that have not expired.
+   *
+   * @param now the current time
+   * @return the distinct product IDs
+   */
+  List<Long> findLedgerHeldProductIds(LocalDateTime now);
+}
@@ -0,0 +1,82 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockLedgerEntry;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link StockLedgerJournal}.
+ */
+public class StockLedgerJournalImpl implements StockLedgerJournal {
+
+  private static final String INSERT_ENTRY_SQL =
+      "INSERT INTO stock_ledger_entries (product_id, order_id, quantity, created_at) "
+          + "VALUES (?, ?, ?, ?)";
+
+  private static final String CLAIM_ENTRIES_SQL =
+      "UPDATE stock_ledger_entries SET flush_id = ? WHERE flush_id IS NULL";
+
+  private static final String APPLY_ENTRIES_SQL =
+      "UPDATE products SET stock = stock - (SELECT SUM(e.quantity) FROM stock_ledger_entries e "
+          + "WHERE e.product_id = products.id AND e.flush_id = ?) "
+          + "WHERE id IN (SELECT product_id FROM stock_ledger_entries WHERE flush_id = ?)";
+
+  private static final String DELETE_ENTRIES_SQL =
+      "DELETE FROM stock_ledger_entries WHERE flush_id = ?";
+
+  private static final String LEDGER_STOCK_SQL =
+      "SELECT p.stock - COALESCE((SELECT SUM(e.quantity) FROM stock_ledger_entries e "
+          + "WHERE e.product_id = p.id AND e.flush_id IS NULL), 0) "
+          + "- COALESCE((SELECT SUM(i.quantity) FROM stock_reservation_items i "
+          + "JOIN stock_reservations r ON r.id = i.reservation_id "
+          + "WHERE i.product_id = p.id AND i.from_ledger = TRUE AND r.status = 'HELD'), 0) "
+          + "FROM products p WHERE p.id = ?";
+
+  private static final String LEDGER_HELD_PRODUCTS_SQL =
+      "SELECT DISTINCT i.product_id FROM stock_reservation_items i "
+          + "JOIN stock_reservations r ON r.id = i.reservation_id "
+          + "WHERE i.from_ledger = TRUE AND r.status = 'HELD' AND r.expires_at > ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public StockLedgerJournalImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void appendAll(List<StockLedgerEntry> entries) {
+    jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, entries, entries.size(),
+        (ps, entry) -> {
+          ps.setLong(1, entry.getProductId());
+          ps.setLong(2, entry.getOrderId());
+          ps.setInt(3, entry.getQuantity());
+          ps.setTimestamp(4, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+  }
+
+  @Override
+  public int flushPending(String flushId) {
+    int claimed = jdbcTemplate.update(CLAIM_ENTRIES_SQL, flushId);
+    if (claimed == 0) {
+      return 0;
+    }
+    jdbcTemplate.update(APPLY_ENTRIES_SQL, flushId, flushId);
+    jdbcTemplate.update(DELETE_ENTRIES_SQL, flushId);
+    return claimed;
+  }
+
+  @Override
+  public Integer findLedgerStock(Long productId) {
+    return DataAccessUtils.singleResult(
+        jdbcTemplate.queryForList(LEDGER_STOCK_SQL, Integer.class, productId));
+  }
+
+  @Override
+  public List<Long> findLedgerHeldProductIds(LocalDateTime now) {
+    return jdbcTemplate.queryForList(LEDGER_HELD_PRODUCTS_SQL, Long.class,
+        Timestamp.valueOf(now));
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.StockReservation;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for StockReservation entity.
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+  /**
+   * Mark a held, unexpired reservation of a user as confirmed.
+   *
+   * @param id the reservation ID
+   * @param userId the ID of the user owning the reservation
+   * @param now the current time
+   * @return number of updated rows; 0 if the reservation cannot be confirmed
+   */
+  @Modifying
+  @Query("UPDATE StockReservation r "
+      + "SET r.status = com.example.digigoods.model.ReservationStatus.CONFIRMED "
+      + "WHERE r.id = :id AND r.userId = :userId "
+      + "AND r.status = com.example.digigoods.model.ReservationStatus.HELD "
+      + "AND r.expiresAt > :now")
+  int confirm(@Param("id") Long id, @Param("userId") Long userId,
+              @Param("now") LocalDateTime now);
+
+  /**
+   * Mark a held reservation as released.
+   *
+   * @param id the reservation ID
+   * @return number of updated rows; 0 if the reservation is no longer held
+   */
+  @Modifying
+  @Query("UPDATE StockReservation r "
+      + "SET r.status = com.example.digigoods.model.ReservationStatus.RELEASED "
+      + "WHERE r.id = :id AND r.status = com.example.digigoods.model.ReservationStatus.HELD")
+  int release(@Param("id") Long id);
+
+  /**
+   * Find held reservations that expired before a point in time, oldest first.
+   *
+   * @param now the current time
+   * @param pageable the maximum number of reservations to return
+   * @return list of expired reservations
+   */
+  @Query("SELECT r FROM StockReservation r "
+      + "WHERE r.status = com.example.digigoods.model.ReservationStatus.HELD "
+      + "AND r.expiresAt <= :now ORDER BY r.expiresAt")
+  List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
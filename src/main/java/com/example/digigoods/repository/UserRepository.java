@@ -3,6 +3,9 @@ package com.example.digigoods.repository;
 import com.example.digigoods.model.User;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +21,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return an Optional containing the user if found
    */
   Optional<User> findByUsername(String username);
+
+  /**
+   * Replace the password hash of a user.
+   *
+   * @param username the username
+   * @param password the new password hash
+   * @return number of updated rows
+   */
+  @Modifying
+  @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+  int updatePassword(@Param("username") String username, @Param("password") String password);
 }
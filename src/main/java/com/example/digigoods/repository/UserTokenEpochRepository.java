@@ -0,0 +1,12 @@
+package com.example.digigoods.repository;
+
+import com.example.digigoods.model.UserTokenEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for UserTokenEpoch entity.
+ */
+@Repository
+public interface UserTokenEpochRepository extends JpaRepository<UserTokenEpoch, Long> {
+}
@@ -0,0 +1,24 @@
+package com.example.digigoods.security;
+
+import java.util.Collection;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * User details that also carry the user ID, so callers of the authentication manager do not
+ * need to load the user again after a successful authentication.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AuthenticatedUser extends User {
+
+  private final Long id;
+
+  public AuthenticatedUser(Long id, String username, String password,
+                           Collection<? extends GrantedAuthority> authorities) {
+    super(username, password, authorities);
+    this.id = id;
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.digigoods.security;
+
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt cost factor for the machine the application runs on.
+ *
+ * <p>Hash time doubles with each cost step, so the calibrator measures increasing costs until a
+ * hash exceeds the latency budget and returns the last cost that stayed within it.
+ */
+public final class BcryptCostCalibrator {
+
+  private static final Logger log = LoggerFactory.getLogger(BcryptCostCalibrator.class);
+
+  private static final int LOWEST_COST = 4;
+  private static final int HIGHEST_COST = 31;
+  private static final String SAMPLE_PASSWORD = "calibration-password";
+
+  private BcryptCostCalibrator() {
+  }
+
+  /**
+   * Find the largest cost whose hash time stays within the budget.
+   *
+   * @param budget the maximum acceptable time to hash one password
+   * @param minimumCost the cost to use when even that cost exceeds the budget
+   * @return the calibrated cost
+   */
+  public static int calibrate(Duration budget, int minimumCost) {
+    long budgetNanos = budget.toNanos();
+    int cost = LOWEST_COST;
+    measure(cost);
+    while (cost < HIGHEST_COST && measure(cost + 1) <= budgetNanos) {
+      cost++;
+    }
+    int calibrated = Math.max(cost, minimumCost);
+    log.info("Calibrated BCrypt cost {} for a {} ms hashing budget", calibrated,
+        budget.toMillis());
+    return calibrated;
+  }
+
+  private static long measure(int cost) {
+    String salt = BCrypt.gensalt(cost);
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < 2; i++) {
+      long start = System.nanoTime();
+      BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+}
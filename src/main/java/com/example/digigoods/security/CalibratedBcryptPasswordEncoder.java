@@ -0,0 +1,36 @@
+package com.example.digigoods.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that knows the cost it was calibrated to.
+ *
+ * <p>Only hashes weaker than that cost are rehashed. Calibrating down on slower hardware leaves
+ * stronger hashes as they are: rehashing them would weaken stored passwords.
+ */
+public class CalibratedBcryptPasswordEncoder extends BCryptPasswordEncoder {
+
+  private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+  private final int strength;
+
+  public CalibratedBcryptPasswordEncoder(int strength) {
+    super(strength);
+    this.strength = strength;
+  }
+
+  public int getStrength() {
+    return strength;
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+  }
+}
@@ -1,6 +1,7 @@
 package com.example.digigoods.security;
 
 import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.TokenRevocationService;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -9,9 +10,12 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -19,16 +23,35 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * JWT authentication filter.
+ *
+ * <p>The token is verified once per request and the resulting {@link VerifiedToken} becomes the
+ * authentication principal, available to controllers through {@code @AuthenticationPrincipal}.
+ * In stateless mode ({@code jwt.stateless=true}) the principal is built from the token claims
+ * alone and the per-request user lookup is skipped; revoked tokens are rejected in both modes.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
+  private final TokenRevocationService tokenRevocationService;
+  private final boolean stateless;
 
-  public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+  /**
+   * Create the filter.
+   *
+   * @param jwtService the JWT service
+   * @param userDetailsService the user details service used outside stateless mode
+   * @param tokenRevocationService the token revocation service
+   * @param stateless whether to build the principal from token claims only
+   */
+  public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                 TokenRevocationService tokenRevocationService,
+                                 @Value("${jwt.stateless:false}") boolean stateless) {
     this.jwtService = jwtService;
     this.userDetailsService = userDetailsService;
+    this.tokenRevocationService = tokenRevocationService;
+    this.stateless = stateless;
   }
 
   @Override
@@ -36,13 +59,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
     final String requestTokenHeader = request.getHeader("Authorization");
 
-    String username = null;
-    String jwtToken = null;
+    VerifiedToken verifiedToken = null;
 
-    if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-      jwtToken = requestTokenHeader.substring(7);
+    if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")
+        && SecurityContextHolder.getContext().getAuthentication() == null) {
+      String jwtToken = requestTokenHeader.substring(7);
       try {
-        username = jwtService.extractUsername(jwtToken);
+        verifiedToken = jwtService.verify(jwtToken);
       } catch (IllegalArgumentException e) {
         logger.error("Unable to get JWT Token");
       } catch (ExpiredJwtException e) {
@@ -54,18 +77,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       }
     }
 
-    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+    if (verifiedToken != null && tokenRevocationService.isRevoked(verifiedToken)) {
+      logger.error("JWT Token has been revoked");
+      verifiedToken = null;
+    }
 
-      if (jwtService.validateToken(jwtToken, userDetails.getUsername())) {
-        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-            new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
-        usernamePasswordAuthenticationToken
-            .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-      }
+    if (verifiedToken != null) {
+      UsernamePasswordAuthenticationToken authenticationToken =
+          new UsernamePasswordAuthenticationToken(
+              verifiedToken, null, loadAuthorities(verifiedToken));
+      authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+      SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
     filterChain.doFilter(request, response);
   }
+
+  private Collection<? extends GrantedAuthority> loadAuthorities(VerifiedToken verifiedToken) {
+    if (stateless) {
+      return List.of();
+    }
+    return userDetailsService.loadUserByUsername(verifiedToken.getSubject()).getAuthorities();
+  }
 }
@@ -0,0 +1,237 @@
+package com.example.digigoods.security;
+
+import com.example.digigoods.exception.TooManyLoginAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory throttle for login attempts, keyed by username and by client address.
+ *
+ * <p>Each key owns a token bucket limiting the attempt rate and a sliding-window failure counter
+ * that locks the key out after too many failed logins. Per-key state is a single immutable value
+ * updated by compare-and-set, so checks never block. Keys live in a size-bounded table and are
+ * dropped once idle for longer than the failure window. Throttled attempts and lockouts are
+ * counted as {@code auth.login.throttled} and {@code auth.login.lockouts}.
+ */
+@Component
+public class LoginThrottle {
+
+  private static final String USERNAME = "username";
+  private static final String ADDRESS = "ip";
+
+  private final Limits usernameLimits;
+  private final Limits addressLimits;
+  private final long windowNanos;
+  private final long lockoutNanos;
+  private final LongSupplier clock;
+  private final Cache<String, AtomicReference<KeyState>> keys;
+  private final MeterRegistry meterRegistry;
+  private final Counter lockouts;
+
+  /**
+   * Create the throttle.
+   *
+   * @param usernameBurst attempts allowed at once per username
+   * @param usernamePerMinute sustained attempts per minute per username
+   * @param usernameMaxFailures failures within the window that lock a username out
+   * @param addressBurst attempts allowed at once per client address
+   * @param addressPerMinute sustained attempts per minute per client address
+   * @param addressMaxFailures failures within the window that lock a client address out
+   * @param windowSeconds length of the sliding failure window
+   * @param lockoutSeconds how long a locked out key stays locked
+   * @param maxKeys maximum number of tracked keys
+   * @param meterRegistry the registry to publish throttle metrics to
+   */
+  @Autowired
+  public LoginThrottle(
+      @Value("${auth.throttle.username.burst:5}") int usernameBurst,
+      @Value("${auth.throttle.username.per-minute:10}") int usernamePerMinute,
+      @Value("${auth.throttle.username.max-failures:5}") int usernameMaxFailures,
+      @Value("${auth.throttle.ip.burst:20}") int addressBurst,
+      @Value("${auth.throttle.ip.per-minute:60}") int addressPerMinute,
+      @Value("${auth.throttle.ip.max-failures:50}") int addressMaxFailures,
+      @Value("${auth.throttle.window-seconds:900}") long windowSeconds,
+      @Value("${auth.throttle.lockout-seconds:900}") long lockoutSeconds,
+      @Value("${auth.throttle.max-keys:100000}") long maxKeys,
+      MeterRegistry meterRegistry) {
+    this(new Limits(usernameBurst, usernamePerMinute, usernameMaxFailures),
+        new Limits(addressBurst, addressPerMinute, addressMaxFailures),
+        windowSeconds, lockoutSeconds, maxKeys, meterRegistry, System::nanoTime);
+  }
+
+  LoginThrottle(Limits usernameLimits, Limits addressLimits, long windowSeconds,
+                long lockoutSeconds, long maxKeys, MeterRegistry meterRegistry,
+                LongSupplier clock) {
+    this.usernameLimits = usernameLimits;
+    this.addressLimits = addressLimits;
+    this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+    this.lockoutNanos = TimeUnit.SECONDS.toNanos(lockoutSeconds);
+    this.clock = clock;
+    this.keys = Caffeine.newBuilder()
+        .maximumSize(maxKeys)
+        .expireAfterAccess(Math.max(windowSeconds, lockoutSeconds), TimeUnit.SECONDS)
+        .build();
+    this.meterRegistry = meterRegistry;
+    this.lockouts = Counter.builder("auth.login.lockouts")
+        .description("Usernames and client addresses locked out after repeated failures")
+        .register(meterRegistry);
+    Gauge.builder("auth.login.throttle.keys", keys, Cache::estimatedSize)
+        .description("Usernames and client addresses tracked by the login throttle")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Take one attempt from the username and client address buckets.
+   *
+   * @param username the username being logged in
+   * @param clientAddress the client address
+   * @throws TooManyLoginAttemptsException if either key is rate limited or locked out
+   */
+  public void acquire(String username, String clientAddress) {
+    long now = clock.getAsLong();
+    acquireKey(USERNAME, usernameKey(username), usernameLimits, now);
+    acquireKey(ADDRESS, addressKey(clientAddress), addressLimits, now);
+  }
+
+  /**
+   * Record a failed login for both keys, locking them out once they fail too often.
+   *
+   * @param username the username being logged in
+   * @param clientAddress the client address
+   */
+  public void recordFailure(String username, String clientAddress) {
+    long now = clock.getAsLong();
+    recordKeyFailure(usernameKey(username), usernameLimits, now);
+    recordKeyFailure(addressKey(clientAddress), addressLimits, now);
+  }
+
+  /**
+   * Record a successful login, clearing the failure history of the username.
+   *
+   * @param username the username that logged in
+   */
+  public void recordSuccess(String username) {
+    AtomicReference<KeyState> state = keys.getIfPresent(usernameKey(username));
+    if (state != null) {
+      state.updateAndGet(KeyState::withoutFailures);
+    }
+  }
+
+  private void acquireKey(String keyType, String key, Limits limits, long now) {
+    AtomicReference<KeyState> state = state(key, limits, now);
+    while (true) {
+      KeyState current = state.get();
+      if (current.lockedUntil() - now > 0) {
+        throw throttled(keyType, "lockout", current.lockedUntil() - now);
+      }
+      double tokens = Math.min(limits.burst(),
+          current.tokens() + (now - current.refilledAt()) * limits.tokensPerNano());
+      if (tokens < 1) {
+        throw throttled(keyType, "rate", (long) ((1 - tokens) / limits.tokensPerNano()));
+      }
+      if (state.compareAndSet(current, current.withTokens(tokens - 1, now))) {
+        return;
+      }
+    }
+  }
+
+  private void recordKeyFailure(String key, Limits limits, long now) {
+    AtomicReference<KeyState> state = state(key, limits, now);
+    while (true) {
+      KeyState current = state.get();
+      KeyState next = current.withFailure(now, windowNanos);
+      if (next.estimatedFailures(now, windowNanos) >= limits.maxFailures()) {
+        next = next.lockUntil(now + lockoutNanos);
+      }
+      if (state.compareAndSet(current, next)) {
+        if (next.lockedUntil() != current.lockedUntil()) {
+          lockouts.increment();
+        }
+        return;
+      }
+    }
+  }
+
+  private AtomicReference<KeyState> state(String key, Limits limits, long now) {
+    return keys.get(key, k -> new AtomicReference<>(KeyState.initial(limits.burst(), now)));
+  }
+
+  private TooManyLoginAttemptsException throttled(String keyType, String reason, long nanos) {
+    meterRegistry.counter("auth.login.throttled", "key", keyType, "reason", reason).increment();
+    return new TooManyLoginAttemptsException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos)));
+  }
+
+  private static String usernameKey(String username) {
+    return USERNAME + ":" + String.valueOf(username).toLowerCase(Locale.ROOT);
+  }
+
+  private static String addressKey(String clientAddress) {
+    return ADDRESS + ":" + clientAddress;
+  }
+
+  /**
+   * Throttling limits for one kind of key.
+   *
+   * @param burst attempts allowed at once
+   * @param perMinute sustained attempts per minute
+   * @param maxFailures failures within the window that trigger a lockout
+   */
+  record Limits(int burst, int perMinute, int maxFailures) {
+
+    double tokensPerNano() {
+      return perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+    }
+  }
+
+  /**
+   * Immutable throttle state of a single key.
+   */
+  private record KeyState(double tokens, long refilledAt, long windowStart,
+                          int previousFailures, int currentFailures, long lockedUntil) {
+
+    static KeyState initial(int burst, long now) {
+      return new KeyState(burst, now, now, 0, 0, now);
+    }
+
+    KeyState withTokens(double newTokens, long now) {
+      return new KeyState(newTokens, now, windowStart, previousFailures, currentFailures,
+          lockedUntil);
+    }
+
+    KeyState withFailure(long now, long windowNanos) {
+      long elapsed = now - windowStart;
+      if (elapsed >= 2 * windowNanos) {
+        return new KeyState(tokens, refilledAt, now, 0, 1, lockedUntil);
+      }
+      if (elapsed >= windowNanos) {
+        return new KeyState(tokens, refilledAt, windowStart + windowNanos, currentFailures, 1,
+            lockedUntil);
+      }
+      return new KeyState(tokens, refilledAt, windowStart, previousFailures,
+          currentFailures + 1, lockedUntil);
+    }
+
+    KeyState withoutFailures() {
+      return new KeyState(tokens, refilledAt, windowStart, 0, 0, lockedUntil);
+    }
+
+    KeyState lockUntil(long until) {
+      return new KeyState(tokens, refilledAt, windowStart, 0, 0, until);
+    }
+
+    double estimatedFailures(long now, long windowNanos) {
+      double previousWeight = 1 - (now - windowStart) / (double) windowNanos;
+      return previousFailures * Math.max(0, previousWeight) + currentFailures;
+    }
+  }
+}
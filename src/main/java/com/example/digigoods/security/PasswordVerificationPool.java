@@ -0,0 +1,112 @@
+package com.example.digigoods.security;
+
+import com.example.digigoods.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dedicated, size-limited pool for CPU-bound password verification.
+ *
+ * <p>Logins run on a fixed number of threads with a bounded queue in front of them. When the
+ * queue is full new logins are rejected immediately with {@link LoginCapacityExceededException},
+ * so a login burst cannot occupy every request thread. Queue depth, active threads, rejections,
+ * queue wait and verification time are published under {@code auth.login.*}.
+ */
+@Component
+public class PasswordVerificationPool implements DisposableBean {
+
+  private final ThreadPoolExecutor executor;
+  private final Timer queueWaitTimer;
+  private final Timer verificationTimer;
+  private final Counter rejectedCounter;
+
+  /**
+   * Create the pool.
+   *
+   * @param poolSize the number of verification threads, or 0 for one per available processor
+   * @param queueCapacity the number of logins allowed to wait for a thread
+   * @param meterRegistry the registry to publish pool metrics to
+   */
+  public PasswordVerificationPool(@Value("${auth.login.pool-size:0}") int poolSize,
+                                  @Value("${auth.login.queue-capacity:64}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+    int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("login-"),
+        new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("auth.login.queue.depth", executor, e -> e.getQueue().size())
+        .description("Logins waiting for a password verification thread")
+        .register(meterRegistry);
+    Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Password verifications in progress")
+        .register(meterRegistry);
+    this.rejectedCounter = Counter.builder("auth.login.rejected")
+        .description("Logins rejected because the verification queue was full")
+        .register(meterRegistry);
+    this.queueWaitTimer = Timer.builder("auth.login.queue.wait")
+        .description("Time logins spent waiting for a verification thread")
+        .register(meterRegistry);
+    this.verificationTimer = Timer.builder("auth.login.verification")
+        .description("Time spent verifying credentials")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Run a password verification task on the pool and wait for its result.
+   *
+   * @param task the verification task
+   * @param <T> the result type
+   * @return the task result
+   * @throws LoginCapacityExceededException if the pool queue is full
+   */
+  public <T> T execute(Supplier<T> task) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        long startedAt = System.nanoTime();
+        queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+        try {
+          return task.get();
+        } finally {
+          verificationTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      rejectedCounter.increment();
+      throw new LoginCapacityExceededException();
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new LoginCapacityExceededException("Login was interrupted while waiting");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
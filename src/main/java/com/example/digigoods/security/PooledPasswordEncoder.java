@@ -0,0 +1,35 @@
+package com.example.digigoods.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder that runs password hashing on the {@link PasswordVerificationPool}.
+ *
+ * <p>Only the CPU-bound {@link #encode(CharSequence)} and {@link #matches(CharSequence, String)}
+ * calls are moved to the pool, while the user lookup stays on the request thread.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+  private final PasswordEncoder delegate;
+  private final PasswordVerificationPool pool;
+
+  public PooledPasswordEncoder(PasswordEncoder delegate, PasswordVerificationPool pool) {
+    this.delegate = delegate;
+    this.pool = pool;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return pool.execute(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return pool.execute(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+}
@@ -2,22 +2,30 @@ package com.example.digigoods.security;
 
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.PasswordRehashService;
 import java.util.ArrayList;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 /**
  * User details service implementation.
+ *
+ * <p>Also receives upgraded password hashes after a successful login and stores them in the
+ * background.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
+  private final PasswordRehashService passwordRehashService;
 
-  public UserDetailsServiceImpl(UserRepository userRepository) {
+  public UserDetailsServiceImpl(UserRepository userRepository,
+                                PasswordRehashService passwordRehashService) {
     this.userRepository = userRepository;
+    this.passwordRehashService = passwordRehashService;
   }
 
   @Override
@@ -25,10 +33,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     User user = userRepository.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-    return new org.springframework.security.core.userdetails.User(
+    return new AuthenticatedUser(
+        user.getId(),
         user.getUsername(),
         user.getPassword(),
         new ArrayList<>()
     );
   }
+
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    passwordRehashService.storeRehashedPassword(user.getUsername(), newPassword);
+
+    Long userId = user instanceof AuthenticatedUser authenticatedUser
+        ? authenticatedUser.getId() : null;
+    return new AuthenticatedUser(userId, user.getUsername(), newPassword, user.getAuthorities());
+  }
 }
@@ -0,0 +1,25 @@
+package com.example.digigoods.security;
+
+import java.security.Principal;
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * Claims of a JWT token whose signature and expiry have already been verified.
+ *
+ * <p>Produced once per request by the JWT filter and used as the authentication principal,
+ * so controllers can read the caller's identity without parsing the token again.
+ */
+@Value
+public class VerifiedToken implements Principal {
+
+  String subject;
+  Long userId;
+  Instant issuedAt;
+  Instant expiresAt;
+
+  @Override
+  public String getName() {
+    return subject;
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.digigoods.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded cache of already verified JWT tokens.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the raw token, so the cache never holds bearer
+ * tokens themselves, and each entry expires at the token's own {@code exp} claim. Hit, miss and
+ * eviction counts are published as {@code cache.*} metrics tagged {@code cache=jwt.tokens}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+  private static final String CACHE_NAME = "jwt.tokens";
+
+  private final Cache<String, VerifiedToken> cache;
+
+  /**
+   * Create the cache.
+   *
+   * @param maximumSize the maximum number of verified tokens to keep
+   */
+  public VerifiedTokenCache(@Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new TokenExpiry())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Return the cached verification result for a token, verifying and caching it on a miss.
+   *
+   * @param token the raw JWT token
+   * @param verifier the function performing the full signature and expiry check
+   * @return the verified token
+   */
+  public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+    return cache.get(digest(token), key -> verifier.apply(token));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+  }
+
+  private static String digest(String token) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(
+          messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+    @Override
+    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), value.getExpiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                  long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
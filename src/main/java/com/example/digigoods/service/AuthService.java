@@ -2,10 +2,14 @@ package com.example.digigoods.service;
 
 import com.example.digigoods.dto.LoginRequest;
 import com.example.digigoods.dto.LoginResponse;
-import com.example.digigoods.model.User;
-import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.exception.LoginCapacityExceededException;
+import com.example.digigoods.exception.TooManyLoginAttemptsException;
+import com.example.digigoods.security.AuthenticatedUser;
+import com.example.digigoods.security.LoginThrottle;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
@@ -17,36 +21,70 @@ public class AuthService {
 
   private final AuthenticationManager authenticationManager;
   private final JwtService jwtService;
-  private final UserRepository userRepository;
+  private final TokenRevocationService tokenRevocationService;
+  private final LoginThrottle loginThrottle;
 
   public AuthService(AuthenticationManager authenticationManager,
                      JwtService jwtService,
-                     UserRepository userRepository) {
+                     TokenRevocationService tokenRevocationService,
+                     LoginThrottle loginThrottle) {
     this.authenticationManager = authenticationManager;
     this.jwtService = jwtService;
-    this.userRepository = userRepository;
+    this.tokenRevocationService = tokenRevocationService;
+    this.loginThrottle = loginThrottle;
   }
 
   /**
    * Authenticate user and generate JWT token.
    *
+   * <p>Throttled attempts are rejected before any database access or hashing. The password hash
+   * is checked on the dedicated password verification pool, and the user loaded during
+   * authentication is reused to build the token. A saturated pool is not a failed attempt and is
+   * not counted by the throttle.
+   *
    * @param loginRequest the login request
+   * @param clientAddress the address of the client attempting to log in
    * @return login response with JWT token
+   * @throws TooManyLoginAttemptsException if the username or client address is throttled
    * @throws AuthenticationException if authentication fails
+   * @throws LoginCapacityExceededException if the verification pool is saturated
    */
-  public LoginResponse login(LoginRequest loginRequest) {
-    authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(
-            loginRequest.getUsername(),
-            loginRequest.getPassword()
-        )
-    );
+  public LoginResponse login(LoginRequest loginRequest, String clientAddress) {
+    loginThrottle.acquire(loginRequest.getUsername(), clientAddress);
+
+    Authentication authentication;
+    try {
+      authentication = authenticationManager.authenticate(
+          new UsernamePasswordAuthenticationToken(
+              loginRequest.getUsername(),
+              loginRequest.getPassword()
+          )
+      );
+    } catch (AuthenticationException e) {
+      // Unknown usernames are still hashed against a dummy password, and the authentication
+      // provider wraps anything that check throws
+      if (e instanceof InternalAuthenticationServiceException
+          && e.getCause() instanceof LoginCapacityExceededException capacityExceeded) {
+        throw capacityExceeded;
+      }
+      loginThrottle.recordFailure(loginRequest.getUsername(), clientAddress);
+      throw e;
+    }
+    loginThrottle.recordSuccess(loginRequest.getUsername());
 
-    User user = userRepository.findByUsername(loginRequest.getUsername())
-        .orElseThrow(() -> new RuntimeException("User not found"));
+    AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
 
     String token = jwtService.generateToken(user.getId(), user.getUsername());
 
     return new LoginResponse(token, user.getId(), user.getUsername());
   }
+
+  /**
+   * Log a user out by revoking every token issued to them so far.
+   *
+   * @param userId the user ID
+   */
+  public void logout(Long userId) {
+    tokenRevocationService.revokeTokens(userId);
+  }
 }
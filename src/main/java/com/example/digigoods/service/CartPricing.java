@@ -0,0 +1,232 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-point pricing of one checkout plan.
+ *
+ * <p>Prices are held in cents and percentages in basis points (hundredths of a percent), so
+ * the pricing loops run on primitive arrays without allocating. Every rounding step matches
+ * {@code BigDecimal} division to two decimals with {@code HALF_UP}; amounts are converted to
+ * and from {@link BigDecimal} only at the API boundary.
+ */
+public final class CartPricing {
+
+  /** The largest total discount allowed, in basis points of the original subtotal. */
+  public static final int MAX_DISCOUNT_BASIS_POINTS = 7_500;
+
+  private static final long BASIS_POINTS_PER_UNIT = 10_000;
+
+  // One entry per distinct product, in request order
+  private final long[] unitPrices;
+  private final int[] quantities;
+  private final int[] productBasisPoints;
+  // General discounts, in the order they are applied
+  private final int[] generalBasisPoints;
+
+  private CartPricing(long[] unitPrices, int[] quantities, int[] productBasisPoints,
+                      int[] generalBasisPoints) {
+    this.unitPrices = unitPrices;
+    this.quantities = quantities;
+    this.productBasisPoints = productBasisPoints;
+    this.generalBasisPoints = generalBasisPoints;
+  }
+
+  /**
+   * Convert a checkout plan into fixed-point pricing input.
+   *
+   * @param plan the checkout plan
+   * @return the pricing of the plan
+   * @throws ArithmeticException if a price has fractions of a cent
+   */
+  public static CartPricing of(CheckoutPlan plan) {
+    int lines = plan.getQuantities().size();
+    long[] unitPrices = new long[lines];
+    int[] quantities = new int[lines];
+    int[] productBasisPoints = new int[lines];
+    int line = 0;
+    for (Map.Entry<Long, Integer> quantity : plan.getQuantities().entrySet()) {
+      unitPrices[line] = toCents(plan.getUnitPrice(quantity.getKey()));
+      quantities[line] = quantity.getValue();
+      productBasisPoints[line] = plan.getProductDiscounts().basisPointsFor(quantity.getKey());
+      line++;
+    }
+
+    List<Discount> generalDiscounts = plan.getDiscounts().stream()
+        .filter(discount -> discount.getType() == DiscountType.GENERAL)
+        .toList();
+    int[] generalBasisPoints = new int[generalDiscounts.size()];
+    for (int i = 0; i < generalBasisPoints.length; i++) {
+      generalBasisPoints[i] = toBasisPoints(generalDiscounts.get(i).getPercentage());
+    }
+
+    return new CartPricing(unitPrices, quantities, productBasisPoints, generalBasisPoints);
+  }
+
+  /**
+   * Calculate the original subtotal, before any discount.
+   *
+   * @return the subtotal in cents
+   */
+  public long subtotal() {
+    long subtotal = 0;
+    for (int i = 0; i < unitPrices.length; i++) {
+      subtotal = Math.addExact(subtotal, Math.multiplyExact(unitPrices[i], quantities[i]));
+    }
+    return subtotal;
+  }
+
+  /**
+   * Calculate the final price: product-specific discounts per unit first, then the general
+   * discounts one after another on the running total.
+   *
+   * @return the final price in cents
+   */
+  public long finalPrice() {
+    long total = 0;
+    for (int i = 0; i < unitPrices.length; i++) {
+      total = Math.addExact(total, Math.multiplyExact(discountedUnitPrice(i), quantities[i]));
+    }
+
+    for (int basisPoints : generalBasisPoints) {
+      total -= percentOf(total, basisPoints);
+    }
+    return total;
+  }
+
+  /**
+   * Split a final price over the cart lines.
+   *
+   * <p>Each line starts at its price after product-specific discounts. The remaining difference
+   * to the final price, which the general discounts took off the whole cart, is shared in
+   * proportion to those line prices; the cents left over by rounding go to the lines with the
+   * largest remainders. The line prices add up to the final price exactly.
+   *
+   * @param finalPrice the final price of the cart in cents
+   * @return the price of each line in cents, in request order
+   */
+  public long[] linePrices(long finalPrice) {
+    long[] linePrices = new long[unitPrices.length];
+    long subtotal = 0;
+    for (int i = 0; i < unitPrices.length; i++) {
+      linePrices[i] = Math.multiplyExact(discountedUnitPrice(i), quantities[i]);
+      subtotal = Math.addExact(subtotal, linePrices[i]);
+    }
+
+    long reduction = subtotal - finalPrice;
+    if (reduction == 0 || subtotal == 0) {
+      return linePrices;
+    }
+
+    long[] remainders = new long[linePrices.length];
+    long allocated = 0;
+    for (int i = 0; i < linePrices.length; i++) {
+      long[] share = multiplyDivide(linePrices[i], reduction, subtotal);
+      // Round the share down, as Math.floorDiv does; discounts over 100% make lines negative
+      if (share[1] != 0 && (share[1] < 0) != (subtotal < 0)) {
+        share[0]--;
+        share[1] += subtotal;
+      }
+      remainders[i] = share[1];
+      linePrices[i] -= share[0];
+      allocated += share[0];
+    }
+
+    Integer[] byRemainder = new Integer[linePrices.length];
+    for (int i = 0; i < byRemainder.length; i++) {
+      byRemainder[i] = i;
+    }
+    Arrays.sort(byRemainder, (a, b) -> Long.compare(remainders[b], remainders[a]));
+    for (int i = 0; i < reduction - allocated; i++) {
+      linePrices[byRemainder[i]]--;
+    }
+    return linePrices;
+  }
+
+  /**
+   * Check whether a final price is discounted by more than
+   * {@link #MAX_DISCOUNT_BASIS_POINTS}, with the discount rounded to hundredths of a percent.
+   *
+   * @param subtotal the original subtotal in cents
+   * @param finalPrice the final price in cents
+   * @return true if the discount is too large
+   * @throws ArithmeticException if the subtotal is zero
+   */
+  public static boolean exceedsMaximumDiscount(long subtotal, long finalPrice) {
+    long discountBasisPoints = multiplyDivideHalfUp(subtotal - finalPrice,
+        BASIS_POINTS_PER_UNIT, subtotal);
+    return discountBasisPoints > MAX_DISCOUNT_BASIS_POINTS;
+  }
+
+  /**
+   * Convert an amount to cents.
+   *
+   * @param amount the amount
+   * @return the amount in cents
+   * @throws ArithmeticException if the amount has fractions of a cent
+   */
+  public static long toCents(BigDecimal amount) {
+    return amount.movePointRight(2).longValueExact();
+  }
+
+  /**
+   * Convert cents to an amount with two decimals.
+   *
+   * @param cents the amount in cents
+   * @return the amount
+   */
+  public static BigDecimal toAmount(long cents) {
+    return BigDecimal.valueOf(cents, 2);
+  }
+
+  /**
+   * Convert a percentage to basis points.
+   *
+   * @param percentage the percentage
+   * @return the percentage in basis points
+   * @throws ArithmeticException if the percentage has more than two decimals
+   */
+  public static int toBasisPoints(BigDecimal percentage) {
+    return percentage.movePointRight(2).intValueExact();
+  }
+
+  private long discountedUnitPrice(int line) {
+    long unitPrice = unitPrices[line];
+    if (productBasisPoints[line] > 0) {
+      unitPrice -= percentOf(unitPrice, productBasisPoints[line]);
+    }
+    return unitPrice;
+  }
+
+  private static long percentOf(long cents, int basisPoints) {
+    return multiplyDivideHalfUp(cents, basisPoints, BASIS_POINTS_PER_UNIT);
+  }
+
+  private static long multiplyDivideHalfUp(long value, long factor, long divisor) {
+    long[] division = multiplyDivide(value, factor, divisor);
+    long quotient = division[0];
+    long remainder = Math.abs(division[1]);
+    // Round half away from zero, as RoundingMode.HALF_UP does
+    if (remainder >= Math.abs(divisor) - remainder) {
+      quotient += (Long.signum(value) * Long.signum(factor) < 0) == (divisor < 0) ? 1 : -1;
+    }
+    return quotient;
+  }
+
+  private static long[] multiplyDivide(long value, long factor, long divisor) {
+    long product = value * factor;
+    if (Math.multiplyHigh(value, factor) == product >> 63) {
+      return new long[] {product / divisor, product % divisor};
+    }
+    // Totals of large orders times basis points or shares outgrow a long; the quotient does not
+    BigInteger[] division = BigInteger.valueOf(value).multiply(BigInteger.valueOf(factor))
+        .divideAndRemainder(BigInteger.valueOf(divisor));
+    return new long[] {division[0].longValueExact(), division[1].longValueExact()};
+  }
+}
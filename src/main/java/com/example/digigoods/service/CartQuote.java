@@ -0,0 +1,32 @@
+package com.example.digigoods.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A priced cart, remembered by {@link QuoteService}.
+ *
+ * @param token the quote token a checkout may present to reuse the price
+ * @param cartKey the canonical form of the quoted cart
+ * @param originalSubtotal the subtotal before discounts
+ * @param finalPrice the price after discounts
+ * @param expiresAt when the quote is forgotten
+ */
+public record CartQuote(String token, CartKey cartKey, BigDecimal originalSubtotal,
+                        BigDecimal finalPrice, LocalDateTime expiresAt) {
+
+  /**
+   * Canonical form of a cart: equal for carts that are priced the same.
+   *
+   * @param quantities the quantity of each product, sorted by product ID
+   * @param discountCodes the distinct discount codes, in the order they are applied
+   * @param day the day the discounts were validated for
+   * @param catalogVersion the {@link CatalogVersion} the cart is priced at
+   */
+  public record CartKey(Map<Long, Integer> quantities, List<String> discountCodes,
+                        LocalDate day, long catalogVersion) {
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.digigoods.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener of products and discounts bumping the {@link CatalogVersion}.
+ */
+public class CatalogChangeListener {
+
+  private final CatalogVersion catalogVersion;
+
+  public CatalogChangeListener(CatalogVersion catalogVersion) {
+    this.catalogVersion = catalogVersion;
+  }
+
+  /**
+   * Record that a product or discount was written.
+   *
+   * @param entity the written product or discount
+   */
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void changed(Object entity) {
+    catalogVersion.bump();
+  }
+}
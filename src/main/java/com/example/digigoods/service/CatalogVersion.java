@@ -0,0 +1,46 @@
+package com.example.digigoods.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of the product prices and discounts that quotes are priced from.
+ *
+ * <p>{@link CatalogChangeListener} bumps the version whenever a product or discount is written
+ * through JPA, and again once the writing transaction completes, so a quote priced from rows read
+ * before the write committed is not remembered under the new version. Stock and discount use
+ * counters are updated with JDBC and leave the version alone. Like the hot stock ledger, the
+ * version assumes a single application instance; catalog edits made elsewhere are only seen once
+ * the quotes priced before them expire.
+ */
+@Component
+public class CatalogVersion {
+
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * Get the current version.
+   *
+   * @return the version
+   */
+  public long current() {
+    return version.get();
+  }
+
+  /**
+   * Record a change of a product or discount.
+   */
+  public void bump() {
+    version.incrementAndGet();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          version.incrementAndGet();
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.digigoods.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observes the individual stages of a checkout.
+ *
+ * <p>Each stage is recorded as a {@code checkout.stage} observation tagged with {@code stage} and
+ * {@code outcome}; the meter handler turns it into a timer and, with tracing enabled, into a child
+ * span of the current request span.
+ */
+@Component
+public class CheckoutObservations {
+
+  static final String STAGE_OBSERVATION = "checkout.stage";
+
+  private final ObservationRegistry observationRegistry;
+
+  public CheckoutObservations(ObservationRegistry observationRegistry) {
+    this.observationRegistry = observationRegistry;
+  }
+
+  /**
+   * Run a checkout stage that produces a result.
+   *
+   * @param stage the stage name
+   * @param body the stage body
+   * @param <T> the result type
+   * @return the result of the stage body
+   */
+  public <T> T stage(String stage, Supplier<T> body) {
+    Observation observation = Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+        .contextualName("checkout " + stage)
+        .lowCardinalityKeyValue("stage", stage)
+        .start();
+    try (Observation.Scope scope = observation.openScope()) {
+      T result = body.get();
+      observation.lowCardinalityKeyValue("outcome", "success");
+      return result;
+    } catch (RuntimeException e) {
+      observation.lowCardinalityKeyValue("outcome", "error");
+      observation.error(e);
+      throw e;
+    } finally {
+      observation.stop();
+    }
+  }
+
+  /**
+   * Run a checkout stage that produces no result.
+   *
+   * @param stage the stage name
+   * @param body the stage body
+   */
+  public void stage(String stage, Runnable body) {
+    stage(stage, () -> {
+      body.run();
+      return null;
+    });
+  }
+}
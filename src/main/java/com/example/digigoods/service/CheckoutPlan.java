@@ -0,0 +1,174 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.CheckoutItem;
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Everything a checkout needs, loaded once.
+ *
+ * <p>The plan is built from one round of batched queries and then shared by every later checkout
+ * stage, so no stage has to reload products, discounts or the user. The cart is priced at the
+ * unit prices of the plan: the current product prices, or the prices a reservation was taken at.
+ */
+@Getter
+public final class CheckoutPlan {
+
+  private final Long userId;
+  private final Map<Long, Product> productsById;
+  private final Map<Long, Integer> quantities;
+  private final Map<Long, BigDecimal> unitPrices;
+  private final List<Discount> discounts;
+  private final ProductDiscountIndex productDiscounts;
+
+  private CheckoutPlan(Long userId, Map<Long, Product> productsById,
+                       Map<Long, Integer> quantities, Map<Long, BigDecimal> unitPrices,
+                       List<Discount> discounts) {
+    this.userId = userId;
+    this.productsById = productsById;
+    this.quantities = quantities;
+    this.unitPrices = unitPrices;
+    this.discounts = discounts;
+    this.productDiscounts = ProductDiscountIndex.of(discounts);
+  }
+
+  /**
+   * Build a checkout plan from product IDs repeated once per unit.
+   *
+   * @param userId the ID of the ordering user
+   * @param productIds the requested product IDs, repeated once per unit
+   * @param products the products for the requested IDs, each loaded once
+   * @param discounts the validated discounts
+   * @return the checkout plan
+   */
+  public static CheckoutPlan of(Long userId, List<Long> productIds, List<Product> products,
+                                List<Discount> discounts) {
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    for (Long productId : productIds) {
+      quantities.merge(productId, 1, Integer::sum);
+    }
+    return of(userId, quantities, products, discounts);
+  }
+
+  /**
+   * Build a checkout plan.
+   *
+   * @param userId the ID of the ordering user
+   * @param quantities the requested quantity of each product, in request order
+   * @param products the products for the requested IDs, each loaded once
+   * @param discounts the validated discounts
+   * @return the checkout plan
+   */
+  public static CheckoutPlan of(Long userId, Map<Long, Integer> quantities,
+                                List<Product> products, List<Discount> discounts) {
+    Map<Long, Product> loadedProducts = new HashMap<>();
+    for (Product product : products) {
+      loadedProducts.put(product.getId(), product);
+    }
+
+    Map<Long, Product> productsById = new LinkedHashMap<>();
+    Map<Long, BigDecimal> unitPrices = new LinkedHashMap<>();
+    for (Long productId : quantities.keySet()) {
+      Product product = loadedProducts.get(productId);
+      productsById.put(productId, product);
+      unitPrices.put(productId, product == null ? null : product.getPrice());
+    }
+
+    return new CheckoutPlan(userId,
+        Collections.unmodifiableMap(productsById),
+        Collections.unmodifiableMap(new LinkedHashMap<>(quantities)),
+        Collections.unmodifiableMap(unitPrices),
+        List.copyOf(discounts));
+  }
+
+  /**
+   * Copy the plan with the unit prices some of its products were priced at before.
+   *
+   * @param pricedAt the earlier unit price of each product, keyed by product ID; products without
+   *     one keep their current price
+   * @return the repriced plan
+   */
+  public CheckoutPlan withUnitPrices(Map<Long, BigDecimal> pricedAt) {
+    Map<Long, BigDecimal> repriced = new LinkedHashMap<>(unitPrices);
+    pricedAt.forEach((productId, unitPrice) -> {
+      if (unitPrice != null && repriced.containsKey(productId)) {
+        repriced.put(productId, unitPrice);
+      }
+    });
+    return new CheckoutPlan(userId, productsById, quantities,
+        Collections.unmodifiableMap(repriced), discounts);
+  }
+
+  /**
+   * Add up the requested quantity of each product of a checkout request.
+   *
+   * <p>Units given as repeated product IDs and as line items are combined, so the result has
+   * one entry per distinct product.
+   *
+   * @param request the checkout request
+   * @return the quantity of each product, in request order
+   * @throws ArithmeticException if the quantity of a product overflows
+   */
+  public static Map<Long, Integer> quantitiesOf(CheckoutRequest request) {
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    if (request.getProductIds() != null) {
+      for (Long productId : request.getProductIds()) {
+        quantities.merge(productId, 1, Math::addExact);
+      }
+    }
+    if (request.getItems() != null) {
+      for (CheckoutItem item : request.getItems()) {
+        quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+      }
+    }
+    return quantities;
+  }
+
+  /**
+   * Get a product of the plan by its ID.
+   *
+   * @param productId the product ID
+   * @return the product
+   */
+  public Product getProduct(Long productId) {
+    return productsById.get(productId);
+  }
+
+  /**
+   * Get the distinct products of the plan.
+   *
+   * @return the products, in request order
+   */
+  public Collection<Product> getProducts() {
+    return productsById.values();
+  }
+
+  /**
+   * Get the unit price a product of the plan is priced at.
+   *
+   * @param productId the product ID
+   * @return the unit price
+   */
+  public BigDecimal getUnitPrice(Long productId) {
+    return unitPrices.get(productId);
+  }
+
+  /**
+   * Get the requested quantity of a product.
+   *
+   * @param productId the product ID
+   * @return the number of requested units
+   */
+  public int getQuantity(Long productId) {
+    return quantities.getOrDefault(productId, 0);
+  }
+}
@@ -1,23 +1,35 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.dto.BatchOrderResponse;
+import com.example.digigoods.dto.BatchOrderResult;
 import com.example.digigoods.dto.CheckoutRequest;
 import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.dto.OrderTicketResponse;
+import com.example.digigoods.dto.QuoteResponse;
+import com.example.digigoods.dto.ReservationResponse;
 import com.example.digigoods.exception.ExcessiveDiscountException;
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.exception.UnauthorizedAccessException;
 import com.example.digigoods.model.Discount;
-import com.example.digigoods.model.DiscountType;
 import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderItem;
+import com.example.digigoods.model.PendingOrder;
 import com.example.digigoods.model.Product;
+import com.example.digigoods.model.StockReservation;
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.OrderRepository;
 import com.example.digigoods.repository.UserRepository;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,22 +39,51 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class CheckoutService {
 
-  private static final BigDecimal MAX_DISCOUNT_PERCENTAGE = new BigDecimal("75.00");
-  private static final BigDecimal HUNDRED = new BigDecimal("100.00");
-
   private final ProductService productService;
   private final DiscountService discountService;
   private final OrderRepository orderRepository;
   private final UserRepository userRepository;
+  private final ReservationService reservationService;
+  private final OrderQueueService orderQueueService;
+  private final QuoteService quoteService;
+  private final OrderSnapshotService orderSnapshotService;
+  private final ParallelLookups parallelLookups;
+  private final CheckoutObservations observations;
 
+  /**
+   * Create the service.
+   *
+   * @param productService the product service
+   * @param discountService the discount service
+   * @param orderRepository the order repository
+   * @param userRepository the user repository
+   * @param reservationService the stock reservation service
+   * @param orderQueueService the order queue service
+   * @param quoteService the quote service
+   * @param orderSnapshotService the order line snapshot service
+   * @param parallelLookups the pool running independent checkout reads concurrently
+   * @param observations the per-stage checkout observations
+   */
   public CheckoutService(ProductService productService,
                          DiscountService discountService,
                          OrderRepository orderRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         ReservationService reservationService,
+                         OrderQueueService orderQueueService,
+                         QuoteService quoteService,
+                         OrderSnapshotService orderSnapshotService,
+                         ParallelLookups parallelLookups,
+                         CheckoutObservations observations) {
     this.productService = productService;
     this.discountService = discountService;
     this.orderRepository = orderRepository;
     this.userRepository = userRepository;
+    this.reservationService = reservationService;
+    this.orderQueueService = orderQueueService;
+    this.quoteService = quoteService;
+    this.orderSnapshotService = orderSnapshotService;
+    this.parallelLookups = parallelLookups;
+    this.observations = observations;
   }
 
   /**
@@ -54,141 +95,394 @@ public class CheckoutService {
    */
   @Transactional
   public OrderResponse processCheckout(CheckoutRequest request, Long authenticatedUserId) {
-    // 1. Authentication & Authorization
-    validateUserAuthorization(request.getUserId(), authenticatedUserId);
-
-    // 2. Product Validation
-    List<Product> products = productService.getProductsByIds(request.getProductIds());
+    return processCheckout(request, authenticatedUserId, null);
+  }
 
-    // 3. Original Subtotal Calculation
-    BigDecimal originalSubtotal = calculateOriginalSubtotal(request.getProductIds(), products);
+  /**
+   * Process checkout request, reusing the price of a quote if nothing changed since.
+   *
+   * <p>Products and discounts are always loaded and validated. Pricing is skipped if the quote
+   * token is still known, the cart is the quoted one and no product or discount changed since.
+   *
+   * @param request the checkout request
+   * @param authenticatedUserId the ID of the authenticated user
+   * @param quoteToken the token of a quote from {@link #quoteCheckout(CheckoutRequest, Long)},
+   *     or null to price the cart
+   * @return order response
+   */
+  @Transactional
+  public OrderResponse processCheckout(CheckoutRequest request, Long authenticatedUserId,
+                                       String quoteToken) {
+    // 1. Authentication & Authorization
+    observations.stage("authorization",
+        () -> validateUserAuthorization(request.getUserId(), authenticatedUserId));
 
-    // 4. Discount Validation
-    List<Discount> discounts = discountService.validateAndGetDiscounts(request.getDiscountCodes());
+    // Quotes are matched on the catalog version from before the products and discounts load
+    CartQuote quote = quoteToken == null
+        ? null
+        : quoteService.findReusable(quoteToken, quoteService.cartKey(request));
 
-    // 5. Discount Application
-    BigDecimal finalPrice = applyDiscounts(request.getProductIds(), products, discounts,
-        originalSubtotal);
+    // 2-3. Product and Discount Validation
+    CheckoutPlan plan = loadPlan(request);
 
-    // 6. Maximum Discount Rule
-    validateMaximumDiscount(originalSubtotal, finalPrice);
+    // 4-6. Subtotal, Discount Application and Maximum Discount Rule, unless already quoted
+    Totals totals = quote == null
+        ? price(plan)
+        : new Totals(quote.originalSubtotal(), quote.finalPrice());
 
     // 7. Final Commit
-    commitTransaction(request, products, discounts, originalSubtotal, finalPrice);
+    observations.stage("commit", () -> commitTransaction(plan, totals));
 
-    return new OrderResponse("Order created successfully!", finalPrice);
+    return new OrderResponse("Order created successfully!", totals.finalPrice());
   }
 
-  private void validateUserAuthorization(Long requestUserId, Long authenticatedUserId) {
-    if (!requestUserId.equals(authenticatedUserId)) {
-      throw new UnauthorizedAccessException("User cannot place order for another user");
+  /**
+   * Price a cart without placing an order.
+   *
+   * <p>The cart is validated and priced with the same rules as
+   * {@link #processCheckout(CheckoutRequest, Long)}, but no stock or discount use is taken.
+   * Quotes are remembered, so quoting the same cart again within the quote TTL skips loading and
+   * pricing it unless a product or discount changed since.
+   *
+   * @param request the checkout request
+   * @param authenticatedUserId the ID of the authenticated user
+   * @return quote response
+   */
+  @Transactional(readOnly = true)
+  public QuoteResponse quoteCheckout(CheckoutRequest request, Long authenticatedUserId) {
+    observations.stage("authorization",
+        () -> validateUserAuthorization(request.getUserId(), authenticatedUserId));
+
+    // An unchanged cart quoted at the current catalog version is neither loaded nor priced
+    CartQuote.CartKey cartKey = quoteService.cartKey(request);
+    CartQuote quote = quoteService.find(cartKey);
+    if (quote == null) {
+      Totals totals = price(loadPlan(request));
+      quote = quoteService.remember(cartKey, totals.originalSubtotal(), totals.finalPrice());
     }
+    return new QuoteResponse(quote.token(), quote.originalSubtotal(), quote.finalPrice(),
+        quote.expiresAt());
   }
 
-  private BigDecimal calculateOriginalSubtotal(List<Long> productIds, List<Product> products) {
-    Map<Long, Product> productMap = products.stream()
-        .collect(Collectors.toMap(Product::getId, Function.identity()));
+  /**
+   * Price a cart and hold its stock and discount uses for a limited time.
+   *
+   * <p>This is the first phase of a two-phase checkout: all validation, pricing, stock and
+   * discount use checks happen here, so {@link #confirmReservation(Long, Long)} only has to turn
+   * the held quantities and uses into an order.
+   *
+   * @param request the checkout request
+   * @param authenticatedUserId the ID of the authenticated user
+   * @return reservation response
+   */
+  @Transactional
+  public ReservationResponse reserveCheckout(CheckoutRequest request, Long authenticatedUserId) {
+    observations.stage("authorization",
+        () -> validateUserAuthorization(request.getUserId(), authenticatedUserId));
+
+    CheckoutPlan plan = loadPlan(request);
+    Totals totals = price(plan);
+
+    StockReservation reservation = observations.stage("reserve",
+        () -> reservationService.hold(plan, totals.originalSubtotal(), totals.finalPrice()));
 
-    return productIds.stream()
-        .map(productMap::get)
-        .map(Product::getPrice)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return new ReservationResponse(reservation.getId(), reservation.getFinalPrice(),
+        reservation.getExpiresAt());
+  }
+
+  /**
+   * Turn a held reservation into an order.
+   *
+   * @param reservationId the reservation ID
+   * @param authenticatedUserId the ID of the authenticated user
+   * @return order response
+   */
+  @Transactional
+  public OrderResponse confirmReservation(Long reservationId, Long authenticatedUserId) {
+    return observations.stage("confirm", () -> {
+      StockReservation reservation = reservationService.confirm(reservationId,
+          authenticatedUserId);
+      Map<Long, Integer> quantities = reservationService.quantitiesOf(reservation);
+      List<Discount> discounts = List.copyOf(reservation.getAppliedDiscounts());
+
+      // Stock and discount uses were taken by the hold, and the order is sold at the prices
+      // the reservation was priced at, not the current ones
+      CheckoutPlan plan = CheckoutPlan.of(authenticatedUserId, quantities,
+              productService.getProductsByIds(List.copyOf(quantities.keySet())), discounts)
+          .withUnitPrices(reservationService.unitPricesOf(reservation));
+      Order order = saveOrder(plan,
+          new Totals(reservation.getOriginalSubtotal(), reservation.getFinalPrice()));
+      // Only stock held through the ledger is journalled; column holds are already taken
+      productService.journalHotStock(order.getId(),
+          reservationService.ledgerQuantitiesOf(reservation));
+      discountService.recordRedemptions(order.getId(), authenticatedUserId, discounts);
+      orderSnapshotService.recordLines(order, plan);
+
+      orderRepository.flush();
+      return new OrderResponse("Order created successfully!", reservation.getFinalPrice());
+    });
   }
 
-  private BigDecimal applyDiscounts(List<Long> productIds, List<Product> products,
-                                    List<Discount> discounts,
-                                    BigDecimal originalSubtotal) {
-    Map<Long, Product> productMap = products.stream()
-        .collect(Collectors.toMap(Product::getId, Function.identity()));
+  /**
+   * Process many checkout requests in one transaction.
+   *
+   * <p>The products and discounts of all carts are loaded with one query each and every cart is
+   * priced with the same rules as {@link #processCheckout(CheckoutRequest, Long)}. Stock and
+   * discount uses are then allocated cart by cart, in request order, against rows locked once for
+   * the whole batch, and the accepted carts are written with JDBC batches. A rejected cart is
+   * reported in its result and does not affect the others.
+   *
+   * @param requests the checkout requests
+   * @param authenticatedUserId the ID of the authenticated user
+   * @return batch order response with one result per request
+   */
+  @Transactional
+  public BatchOrderResponse processBatchCheckout(List<CheckoutRequest> requests,
+                                                 Long authenticatedUserId) {
+    return checkoutAll(requests,
+        request -> validateUserAuthorization(request.getUserId(), authenticatedUserId));
+  }
 
-    // Separate discounts by type
-    List<Discount> productSpecificDiscounts = discounts.stream()
-        .filter(d -> d.getType() == DiscountType.PRODUCT_SPECIFIC)
-        .toList();
+  /**
+   * Validate and price a cart and queue it to be committed later.
+   *
+   * <p>All checks of {@link #processCheckout(CheckoutRequest, Long)} up to the final commit run
+   * here, so the request is only queued if it would have been priced. Stock and discount uses are
+   * taken when {@link OrderQueueWorker} commits the queued order.
+   *
+   * @param request the checkout request
+   * @param authenticatedUserId the ID of the authenticated user
+   * @return the ticket of the queued order
+   */
+  @Transactional
+  public OrderTicketResponse acceptCheckout(CheckoutRequest request, Long authenticatedUserId) {
+    observations.stage("authorization",
+        () -> validateUserAuthorization(request.getUserId(), authenticatedUserId));
 
-    List<Discount> generalDiscounts = discounts.stream()
-        .filter(d -> d.getType() == DiscountType.GENERAL)
+    CheckoutPlan plan = loadPlan(request);
+    Totals totals = price(plan);
+
+    PendingOrder pendingOrder = observations.stage("enqueue",
+        () -> orderQueueService.enqueue(request, totals.finalPrice()));
+    return orderQueueService.toTicket(pendingOrder);
+  }
+
+  /**
+   * Commit checkout requests that were authorized when they were queued.
+   *
+   * <p>The requests are revalidated, repriced and committed like a batch checkout, so a cart
+   * whose stock or discounts ran out while it was queued fails in its result.
+   *
+   * @param requests the queued checkout requests
+   * @return batch order response with one result per request
+   */
+  @Transactional
+  public BatchOrderResponse commitQueuedCheckouts(List<CheckoutRequest> requests) {
+    return checkoutAll(requests, request -> {});
+  }
+
+  private BatchOrderResponse checkoutAll(List<CheckoutRequest> requests,
+                                         Consumer<CheckoutRequest> authorization) {
+    // 2-3. Product and Discount Loading for all carts
+    List<Map<Long, Integer>> quantities = requests.stream()
+        .map(CheckoutPlan::quantitiesOf)
         .toList();
+    Map<Long, Product> products = observations.stage("product-validation",
+        () -> productService.loadProducts(quantities.stream()
+            .flatMap(cart -> cart.keySet().stream())
+            .toList()));
+    Map<String, Discount> discounts = observations.stage("discount-validation",
+        () -> discountService.loadDiscounts(requests.stream()
+            .filter(request -> request.getDiscountCodes() != null)
+            .flatMap(request -> request.getDiscountCodes().stream())
+            .toList()));
+
+    BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+    List<PricedCart> carts = new ArrayList<>();
+    for (int index = 0; index < requests.size(); index++) {
+      CheckoutRequest request = requests.get(index);
+      try {
+        // 1. Authorization, then per-cart validation against the loaded entities
+        authorization.accept(request);
+        Map<Long, Integer> cart = quantities.get(index);
+        CheckoutPlan plan = CheckoutPlan.of(request.getUserId(), cart,
+            productService.selectProducts(List.copyOf(cart.keySet()), products),
+            discountService.selectDiscounts(request.getDiscountCodes(), discounts));
+
+        // 4-6. Subtotal, Discount Application and Maximum Discount Rule
+        carts.add(new PricedCart(index, plan, price(plan)));
+      } catch (UnauthorizedAccessException | ProductNotFoundException | InvalidDiscountException
+               | ExcessiveDiscountException e) {
+        results[index] = new BatchOrderResult(index, false, null, e.getMessage(), null);
+      }
+    }
 
-    // Apply product-specific discounts first
-    BigDecimal intermediateSubtotal = applyProductSpecificDiscounts(
-        productIds, productMap, productSpecificDiscounts);
+    // 7. Final Commit of the accepted carts
+    observations.stage("batch-commit", () -> commitBatch(carts, results));
 
-    // Apply general discounts to intermediate subtotal
-    return applyGeneralDiscounts(intermediateSubtotal, generalDiscounts);
+    int created = (int) Arrays.stream(results).filter(BatchOrderResult::isCreated).count();
+    return new BatchOrderResponse(created, results.length - created, List.of(results));
   }
 
-  private BigDecimal applyProductSpecificDiscounts(List<Long> productIds,
-                                                   Map<Long, Product> productMap,
-                                                   List<Discount> productSpecificDiscounts) {
-    BigDecimal total = BigDecimal.ZERO;
+  private CheckoutPlan loadPlan(CheckoutRequest request) {
+    // Quantities are added up per product, so every later step scales with distinct products
+    Map<Long, Integer> quantities = CheckoutPlan.quantitiesOf(request);
 
-    for (Long productId : productIds) {
-      Product product = productMap.get(productId);
-      BigDecimal itemPrice = product.getPrice();
+    // 2. Product Validation
+    Supplier<List<Product>> products = () -> observations.stage("product-validation",
+        () -> productService.getProductsByIds(List.copyOf(quantities.keySet())));
 
-      // Find applicable discounts for this product
-      BigDecimal totalDiscountPercentage = productSpecificDiscounts.stream()
-          .filter(discount -> discount.getApplicableProducts().contains(product))
-          .map(Discount::getPercentage)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // 3. Discount Validation
+    Supplier<List<Discount>> discounts = () -> observations.stage("discount-validation",
+        () -> discountService.validateAndGetDiscounts(request.getDiscountCodes()));
 
-      // Apply discount
-      if (totalDiscountPercentage.compareTo(BigDecimal.ZERO) > 0) {
-        BigDecimal discountAmount = itemPrice.multiply(totalDiscountPercentage)
-            .divide(HUNDRED, 2, RoundingMode.HALF_UP);
-        itemPrice = itemPrice.subtract(discountAmount);
-      }
+    // Every later stage works from this plan instead of reloading entities
+    if (!parallelLookups.isEnabled()) {
+      return CheckoutPlan.of(request.getUserId(), quantities, products.get(), discounts.get());
+    }
 
-      total = total.add(itemPrice);
+    // The two reads are independent, so both are forked and this thread only waits for them
+    try (ParallelLookups.Scope scope = parallelLookups.open()) {
+      Supplier<List<Product>> loadedProducts = scope.fork(products);
+      Supplier<List<Discount>> loadedDiscounts = scope.fork(discounts);
+      scope.join();
+      return CheckoutPlan.of(request.getUserId(), quantities, loadedProducts.get(),
+          loadedDiscounts.get());
     }
+  }
+
+  private Totals price(CheckoutPlan plan) {
+    // Price in cents and basis points; amounts are only converted for the response and order
+    CartPricing pricing = CartPricing.of(plan);
+
+    // 4. Original Subtotal Calculation
+    long originalSubtotal = observations.stage("subtotal", pricing::subtotal);
+
+    // 5. Discount Application
+    long finalPrice = observations.stage("discount-application", pricing::finalPrice);
 
-    return total;
+    // 6. Maximum Discount Rule
+    observations.stage("max-discount",
+        () -> validateMaximumDiscount(originalSubtotal, finalPrice));
+
+    return new Totals(CartPricing.toAmount(originalSubtotal), CartPricing.toAmount(finalPrice));
   }
 
-  private BigDecimal applyGeneralDiscounts(BigDecimal subtotal, List<Discount> generalDiscounts) {
-    BigDecimal currentPrice = subtotal;
+  private void validateUserAuthorization(Long requestUserId, Long authenticatedUserId) {
+    if (!requestUserId.equals(authenticatedUserId)) {
+      throw new UnauthorizedAccessException("User cannot place order for another user");
+    }
+  }
 
-    for (Discount discount : generalDiscounts) {
-      BigDecimal discountAmount = currentPrice.multiply(discount.getPercentage())
-          .divide(HUNDRED, 2, RoundingMode.HALF_UP);
-      currentPrice = currentPrice.subtract(discountAmount);
+  private void validateMaximumDiscount(long originalSubtotal, long finalPrice) {
+    if (CartPricing.exceedsMaximumDiscount(originalSubtotal, finalPrice)) {
+      throw new ExcessiveDiscountException();
     }
+  }
+
+  private void commitTransaction(CheckoutPlan plan, Totals totals) {
+    // Take product stock and discount uses first so an oversold cart fails before the order
+    // is written
+    productService.validateAndUpdateStock(plan);
+    discountService.updateDiscountUsage(plan.getDiscounts());
 
-    return currentPrice;
+    Order order = saveOrder(plan, totals);
+
+    // Journal hot product sales, log discount redemptions and snapshot the order lines
+    productService.journalHotStock(order.getId(), plan.getQuantities());
+    discountService.recordRedemptions(order.getId(), plan.getUserId(), plan.getDiscounts());
+    orderSnapshotService.recordLines(order, plan);
+
+    // Flush pending writes so they are timed as part of this stage
+    orderRepository.flush();
   }
 
-  private void validateMaximumDiscount(BigDecimal originalSubtotal, BigDecimal finalPrice) {
-    BigDecimal totalDiscount = originalSubtotal.subtract(finalPrice);
-    BigDecimal discountPercentage = totalDiscount.multiply(HUNDRED)
-        .divide(originalSubtotal, 2, RoundingMode.HALF_UP);
+  private void commitBatch(List<PricedCart> carts, BatchOrderResult[] results) {
+    // Lock the stock and discount rows of all carts once, then hand them out in request order
+    Map<Long, Integer> stock = productService.lockStock(carts.stream()
+        .flatMap(cart -> cart.plan().getQuantities().keySet().stream())
+        .toList());
+    Map<Long, Integer> remainingUses = discountService.lockRemainingUses(carts.stream()
+        .flatMap(cart -> cart.plan().getDiscounts().stream())
+        .toList());
+
+    List<PricedCart> accepted = new ArrayList<>();
+    for (PricedCart cart : carts) {
+      try {
+        discountService.allocateUses(cart.plan().getDiscounts(), remainingUses);
+        try {
+          productService.allocateStock(cart.plan(), stock);
+        } catch (InsufficientStockException e) {
+          discountService.releaseUses(cart.plan().getDiscounts(), remainingUses);
+          throw e;
+        }
+        accepted.add(cart);
+      } catch (InsufficientStockException | InvalidDiscountException e) {
+        results[cart.index()] = new BatchOrderResult(cart.index(), false, null, e.getMessage(),
+            null);
+      }
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    // Take the allocated stock and discount uses with one batch of guarded updates each
+    Map<Long, Integer> quantities = new HashMap<>();
+    Map<Long, Integer> uses = new HashMap<>();
+    for (PricedCart cart : accepted) {
+      cart.plan().getQuantities().forEach((productId, quantity) ->
+          quantities.merge(productId, quantity, Integer::sum));
+      cart.plan().getDiscounts().forEach(discount ->
+          uses.merge(discount.getId(), 1, Integer::sum));
+    }
+    productService.takeAllocatedStock(quantities);
+    discountService.takeAllocatedUses(uses);
 
-    if (discountPercentage.compareTo(MAX_DISCOUNT_PERCENTAGE) > 0) {
-      throw new ExcessiveDiscountException();
+    List<Order> orders = accepted.stream()
+        .map(cart -> newOrder(cart.plan(), cart.totals()))
+        .toList();
+    orderRepository.insertAll(orders);
+
+    Map<Long, Map<Long, Integer>> hotQuantities = new HashMap<>();
+    for (int i = 0; i < accepted.size(); i++) {
+      PricedCart cart = accepted.get(i);
+      hotQuantities.put(orders.get(i).getId(), cart.plan().getQuantities());
+      results[cart.index()] = new BatchOrderResult(cart.index(), true, orders.get(i).getId(),
+          "Order created successfully!", cart.totals().finalPrice());
     }
+    productService.journalHotStock(hotQuantities);
+    discountService.recordRedemptions(orders);
+    orderSnapshotService.recordLines(orders, accepted.stream().map(PricedCart::plan).toList());
   }
 
-  private void commitTransaction(CheckoutRequest request, List<Product> products,
-                                 List<Discount> discounts, BigDecimal originalSubtotal,
-                                 BigDecimal finalPrice) {
-    // Get user
-    User user = userRepository.findById(request.getUserId())
-        .orElseThrow(() -> new RuntimeException("User not found"));
+  private Order saveOrder(CheckoutPlan plan, Totals totals) {
+    return orderRepository.save(newOrder(plan, totals));
+  }
+
+  private Order newOrder(CheckoutPlan plan, Totals totals) {
+    // The user is already authenticated, so attach it by reference without loading it
+    User user = userRepository.getReferenceById(plan.getUserId());
+
+    // One item per distinct product, with its quantity and the unit price it was sold at
+    List<OrderItem> items = new ArrayList<>();
+    for (Product product : plan.getProducts()) {
+      items.add(new OrderItem(product.getId(), plan.getQuantity(product.getId()),
+          plan.getUnitPrice(product.getId())));
+    }
 
-    // Create order
     Order order = new Order();
     order.setUser(user);
-    order.setProducts(new HashSet<>(products));
-    order.setAppliedDiscounts(new HashSet<>(discounts));
-    order.setOriginalSubtotal(originalSubtotal);
-    order.setFinalPrice(finalPrice);
-
-    orderRepository.save(order);
+    order.setProducts(new HashSet<>(plan.getProducts()));
+    order.setItems(items);
+    order.setAppliedDiscounts(new HashSet<>(plan.getDiscounts()));
+    order.setOriginalSubtotal(totals.originalSubtotal());
+    order.setFinalPrice(totals.finalPrice());
+    return order;
+  }
 
-    // Update product stock
-    productService.validateAndUpdateStock(request.getProductIds());
+  private record Totals(BigDecimal originalSubtotal, BigDecimal finalPrice) {
+  }
 
-    // Update discount usage
-    discountService.updateDiscountUsage(discounts);
+  private record PricedCart(int index, CheckoutPlan plan, Totals totals) {
   }
 }
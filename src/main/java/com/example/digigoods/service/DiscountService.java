@@ -2,9 +2,19 @@ package com.example.digigoods.service;
 
 import com.example.digigoods.exception.InvalidDiscountException;
 import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountRedemption;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.repository.DiscountRedemptionRepository;
 import com.example.digigoods.repository.DiscountRepository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
 /**
@@ -14,9 +24,12 @@ import org.springframework.stereotype.Service;
 public class DiscountService {
 
   private final DiscountRepository discountRepository;
+  private final DiscountRedemptionRepository discountRedemptionRepository;
 
-  public DiscountService(DiscountRepository discountRepository) {
+  public DiscountService(DiscountRepository discountRepository,
+                         DiscountRedemptionRepository discountRedemptionRepository) {
     this.discountRepository = discountRepository;
+    this.discountRedemptionRepository = discountRedemptionRepository;
   }
 
   /**
@@ -40,16 +53,52 @@ public class DiscountService {
       return List.of();
     }
 
-    List<Discount> discounts = discountRepository.findAllByCodeIn(discountCodes);
+    return selectDiscounts(discountCodes, loadDiscounts(discountCodes));
+  }
+
+  /**
+   * Load the discounts referenced by several carts in one query.
+   *
+   * <p>Unknown codes are left out; {@link #selectDiscounts(List, Map)} reports them per cart.
+   *
+   * @param discountCodes the discount codes of all carts, possibly with duplicates
+   * @return the existing discounts, keyed by code
+   */
+  public Map<String, Discount> loadDiscounts(Collection<String> discountCodes) {
+    List<String> distinctCodes = discountCodes.stream().distinct().toList();
+    if (distinctCodes.isEmpty()) {
+      return Map.of();
+    }
+
+    return discountRepository.findAllByCodeIn(distinctCodes).stream()
+        .collect(Collectors.toMap(Discount::getCode, Function.identity()));
+  }
+
+  /**
+   * Validate and pick the discounts of one cart from discounts loaded by
+   * {@link #loadDiscounts(Collection)}.
+   *
+   * @param discountCodes the discount codes of the cart
+   * @param loadedDiscounts the loaded discounts, keyed by code
+   * @return list of valid discounts
+   * @throws InvalidDiscountException if any discount is invalid
+   */
+  public List<Discount> selectDiscounts(List<String> discountCodes,
+                                        Map<String, Discount> loadedDiscounts) {
+    if (discountCodes == null || discountCodes.isEmpty()) {
+      return List.of();
+    }
+
+    List<Discount> discounts = discountCodes.stream()
+        .distinct()
+        .map(loadedDiscounts::get)
+        .filter(Objects::nonNull)
+        .toList();
 
     // Check if all codes were found
     if (discounts.size() != discountCodes.size()) {
-      List<String> foundCodes = discounts.stream()
-          .map(Discount::getCode)
-          .toList();
-
       String missingCode = discountCodes.stream()
-          .filter(code -> !foundCodes.contains(code))
+          .filter(code -> !loadedDiscounts.containsKey(code))
           .findFirst()
           .orElse("unknown");
 
@@ -68,12 +117,140 @@ public class DiscountService {
   /**
    * Update remaining uses for discounts.
    *
+   * <p>One use is taken from every discount in a single batch of guarded updates, so a discount
+   * can never be redeemed more often than its remaining uses allow, however many checkouts race
+   * for it.
+   *
    * @param discounts the list of discounts to update
+   * @throws InvalidDiscountException if any discount has no remaining uses left
    */
   public void updateDiscountUsage(List<Discount> discounts) {
+    if (discounts.isEmpty()) {
+      return;
+    }
+
+    List<Long> exhausted = discountRepository.decrementRemainingUses(
+        discounts.stream().map(Discount::getId).toList());
+
+    if (!exhausted.isEmpty()) {
+      String code = discounts.stream()
+          .filter(discount -> discount.getId().equals(exhausted.get(0)))
+          .map(Discount::getCode)
+          .findFirst()
+          .orElse("unknown");
+      throw new InvalidDiscountException(code, "discount has no remaining uses");
+    }
+  }
+
+  /**
+   * Give back the uses taken by {@link #updateDiscountUsage(List)}.
+   *
+   * @param discounts the discounts to give one use back to
+   */
+  public void releaseDiscountUsage(Collection<Discount> discounts) {
+    if (discounts.isEmpty()) {
+      return;
+    }
+
+    discountRepository.incrementRemainingUses(discounts.stream().map(Discount::getId).toList());
+  }
+
+  /**
+   * Lock the rows of the discounts of several carts and read their remaining uses.
+   *
+   * <p>The returned counts are the budget {@link #allocateUses(List, Map)} hands out to the carts
+   * of a batch. Must run inside a transaction.
+   *
+   * @param discounts the discounts of all carts
+   * @return the remaining uses of each discount, keyed by discount ID
+   */
+  public Map<Long, Integer> lockRemainingUses(Collection<Discount> discounts) {
+    return discountRepository.lockRemainingUses(discounts.stream()
+        .map(Discount::getId)
+        .collect(Collectors.toCollection(TreeSet::new)));
+  }
+
+  /**
+   * Allocate one use of every discount of a cart, all or nothing.
+   *
+   * @param discounts the discounts of the cart
+   * @param remainingUses the unallocated uses, keyed by discount ID; reduced on success
+   * @throws InvalidDiscountException if any discount has no remaining uses left
+   */
+  public void allocateUses(List<Discount> discounts, Map<Long, Integer> remainingUses) {
+    for (Discount discount : discounts) {
+      if (remainingUses.getOrDefault(discount.getId(), 0) <= 0) {
+        throw new InvalidDiscountException(discount.getCode(), "discount has no remaining uses");
+      }
+    }
     for (Discount discount : discounts) {
-      discount.setRemainingUses(discount.getRemainingUses() - 1);
-      discountRepository.save(discount);
+      remainingUses.merge(discount.getId(), -1, Integer::sum);
+    }
+  }
+
+  /**
+   * Give back uses allocated by {@link #allocateUses(List, Map)}.
+   *
+   * @param discounts the discounts of the cart
+   * @param remainingUses the unallocated uses, keyed by discount ID
+   */
+  public void releaseUses(List<Discount> discounts, Map<Long, Integer> remainingUses) {
+    for (Discount discount : discounts) {
+      remainingUses.merge(discount.getId(), 1, Integer::sum);
+    }
+  }
+
+  /**
+   * Take the uses allocated by {@link #allocateUses(List, Map)} in one batch of guarded updates.
+   *
+   * @param uses the allocated uses, keyed by discount ID
+   * @throws IllegalStateException if a locked row no longer has the allocated uses
+   */
+  public void takeAllocatedUses(Map<Long, Integer> uses) {
+    if (uses.isEmpty()) {
+      return;
+    }
+
+    List<Long> exhausted = discountRepository.decrementRemainingUsesBy(uses);
+    if (!exhausted.isEmpty()) {
+      throw new IllegalStateException("Allocated uses are no longer available for discounts "
+          + exhausted);
+    }
+  }
+
+  /**
+   * Append a redemption record for every discount applied to an order.
+   *
+   * @param orderId the order ID
+   * @param userId the ID of the ordering user
+   * @param discounts the discounts applied to the order
+   */
+  public void recordRedemptions(Long orderId, Long userId, List<Discount> discounts) {
+    if (discounts.isEmpty()) {
+      return;
+    }
+
+    LocalDateTime redeemedAt = LocalDateTime.now();
+    discountRedemptionRepository.appendAll(discounts.stream()
+        .map(discount -> new DiscountRedemption(null, discount.getId(), orderId, userId,
+            redeemedAt))
+        .toList());
+  }
+
+  /**
+   * Append a redemption record for every discount applied to several orders, in one batch.
+   *
+   * @param orders the saved orders
+   */
+  public void recordRedemptions(List<Order> orders) {
+    LocalDateTime redeemedAt = LocalDateTime.now();
+    List<DiscountRedemption> redemptions = orders.stream()
+        .flatMap(order -> order.getAppliedDiscounts().stream()
+            .map(discount -> new DiscountRedemption(null, discount.getId(), order.getId(),
+                order.getUser().getId(), redeemedAt)))
+        .toList();
+    if (!redemptions.isEmpty()) {
+      discountRedemptionRepository.appendAll(redemptions);
     }
   }
 
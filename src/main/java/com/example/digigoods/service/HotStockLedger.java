@@ -0,0 +1,227 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.StockLedgerEntry;
+import com.example.digigoods.repository.StockLedgerEntryRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory stock ledger for hot products ({@code inventory.ledger.hot-product-ids}).
+ *
+ * <p>For hot products the in-memory counters decide whether stock is available, so checkouts
+ * never wait on the product row lock. Each sale is journalled in the order's transaction and
+ * the journal is subtracted from the {@code stock} column in batches on a schedule and at
+ * shutdown. After a crash the counters are rebuilt from the stock column minus the unflushed
+ * journal and the stock reservations hold through the ledger. The ledger assumes a single
+ * application instance sells the hot products.
+ *
+ * <p>Reservations remember where their stock was taken from, so a product may become hot while
+ * holds taken from its stock column are open. The opposite is refused at startup: the stock
+ * column still counts stock held through the ledger, so a product stays hot until those holds
+ * expire.
+ */
+@Service
+public class HotStockLedger implements InitializingBean {
+
+  private final Set<Long> hotProductIds;
+  private final int stripes;
+  private final StockLedgerEntryRepository stockLedgerEntryRepository;
+  private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+  /**
+   * Create the ledger.
+   *
+   * @param hotProductIds the IDs of the products served from the ledger
+   * @param stripes the number of counter stripes per product, 0 for one per processor
+   * @param stockLedgerEntryRepository the journal repository
+   */
+  public HotStockLedger(@Value("${inventory.ledger.hot-product-ids:}") List<Long> hotProductIds,
+                        @Value("${inventory.ledger.stripes:0}") int stripes,
+                        StockLedgerEntryRepository stockLedgerEntryRepository) {
+    this.hotProductIds = Set.copyOf(hotProductIds);
+    this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    this.stockLedgerEntryRepository = stockLedgerEntryRepository;
+  }
+
+  /**
+   * Check that no product left the ledger while reservations hold its stock through it.
+   *
+   * @throws IllegalStateException if a product that is no longer hot has open ledger holds
+   */
+  @Override
+  public void afterPropertiesSet() {
+    List<Long> cooled = stockLedgerEntryRepository.findLedgerHeldProductIds(LocalDateTime.now())
+        .stream()
+        .filter(productId -> !isHot(productId))
+        .toList();
+    if (!cooled.isEmpty()) {
+      throw new IllegalStateException("Products " + cooled + " have stock held through the hot "
+          + "stock ledger by open reservations; keep them in inventory.ledger.hot-product-ids "
+          + "until the holds expire");
+    }
+  }
+
+  /**
+   * Check whether a product is served from the ledger.
+   *
+   * @param productId the product ID
+   * @return true if the product is hot
+   */
+  public boolean isHot(Long productId) {
+    return hotProductIds.contains(productId);
+  }
+
+  /**
+   * Take stock of hot products, all or nothing.
+   *
+   * <p>Within a transaction the stock is returned to the ledger if the transaction does not
+   * commit.
+   *
+   * @param quantities the quantity to take from each hot product, keyed by product ID
+   * @return the IDs of the products with insufficient stock; empty if everything was taken
+   */
+  public List<Long> take(Map<Long, Integer> quantities) {
+    List<Map.Entry<Long, Integer>> taken = new ArrayList<>();
+    for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+      if (!stockOf(line.getKey()).tryTake(line.getValue())) {
+        release(taken);
+        return List.of(line.getKey());
+      }
+      taken.add(line);
+    }
+
+    if (!taken.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            release(taken);
+          }
+        }
+      });
+    }
+    return List.of();
+  }
+
+  /**
+   * Return stock of hot products to the ledger, once the current transaction commits.
+   *
+   * <p>Counters not loaded yet are left alone; they pick up the returned stock from the
+   * database when they are loaded.
+   *
+   * @param quantities the quantity to return to each hot product, keyed by product ID
+   */
+  public void restore(Map<Long, Integer> quantities) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      restoreLoaded(quantities);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        restoreLoaded(quantities);
+      }
+    });
+  }
+
+  /**
+   * Get the stock of a hot product available in the ledger.
+   *
+   * @param productId the product ID
+   * @return the available stock
+   */
+  public int available(Long productId) {
+    return stockOf(productId).available();
+  }
+
+  /**
+   * Journal the hot product stock sold by an order.
+   *
+   * <p>Must run in the order's transaction so the journal commits or rolls back with it.
+   *
+   * @param orderId the order ID
+   * @param quantities the sold quantities, keyed by product ID; non-hot products are ignored
+   */
+  public void journal(Long orderId, Map<Long, Integer> quantities) {
+    journalAll(Map.of(orderId, quantities));
+  }
+
+  /**
+   * Journal the hot product stock sold by several orders in one batch.
+   *
+   * <p>Must run in the orders' transaction so the journal commits or rolls back with them.
+   * Non-hot products are ignored.
+   *
+   * @param quantitiesByOrder the sold quantities, keyed by order ID and then by product ID
+   */
+  public void journalAll(Map<Long, Map<Long, Integer>> quantitiesByOrder) {
+    LocalDateTime now = LocalDateTime.now();
+    List<StockLedgerEntry> entries = new ArrayList<>();
+    for (Map.Entry<Long, Map<Long, Integer>> order : quantitiesByOrder.entrySet()) {
+      order.getValue().forEach((productId, quantity) -> {
+        if (isHot(productId)) {
+          entries.add(new StockLedgerEntry(null, productId, order.getKey(), quantity, now, null));
+        }
+      });
+    }
+    if (!entries.isEmpty()) {
+      stockLedgerEntryRepository.appendAll(entries);
+    }
+  }
+
+  /**
+   * Subtract the committed journal from the stock column of the hot products.
+   */
+  @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval:1000}")
+  @Transactional
+  public void flush() {
+    if (!hotProductIds.isEmpty()) {
+      stockLedgerEntryRepository.flushPending(UUID.randomUUID().toString());
+    }
+  }
+
+  /**
+   * Flush the journal one last time before the application stops.
+   */
+  @EventListener(ContextClosedEvent.class)
+  @Transactional
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private StripedStock stockOf(Long productId) {
+    return stocks.computeIfAbsent(productId, id -> {
+      Integer stock = stockLedgerEntryRepository.findLedgerStock(id);
+      return new StripedStock(stripes, stock != null ? stock : 0);
+    });
+  }
+
+  private void release(List<Map.Entry<Long, Integer>> taken) {
+    for (Map.Entry<Long, Integer> line : taken) {
+      stockOf(line.getKey()).release(line.getValue());
+    }
+  }
+
+  private void restoreLoaded(Map<Long, Integer> quantities) {
+    quantities.forEach((productId, quantity) -> {
+      StripedStock stock = stocks.get(productId);
+      if (stock != null) {
+        stock.release(quantity);
+      }
+    });
+  }
+}
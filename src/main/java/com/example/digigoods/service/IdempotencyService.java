@@ -0,0 +1,189 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.exception.IdempotencyKeyException;
+import com.example.digigoods.model.IdempotencyRecord;
+import com.example.digigoods.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service making checkouts with an {@code Idempotency-Key} header run at most once.
+ *
+ * <p>Results are kept in a bounded, TTL-evicted in-memory table of futures, so a duplicate
+ * arriving while the first attempt is still running waits for it instead of running the checkout
+ * again. Every result is also stored in the database in the checkout's own transaction; the
+ * unique constraint on user and key covers duplicates that reach another instance or arrive after
+ * the in-memory entry was evicted.
+ */
+@Service
+public class IdempotencyService {
+
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyRecordRepository idempotencyRecordRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration ttl;
+  private final Cache<Key, InFlight> results;
+
+  /**
+   * Create the service.
+   *
+   * @param idempotencyRecordRepository the idempotency record repository
+   * @param transactionManager the transaction manager
+   * @param ttlSeconds how long results are kept
+   * @param maximumSize the maximum number of results kept in memory
+   */
+  public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${checkout.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${checkout.idempotency.maximum-size:100000}")
+                            long maximumSize) {
+    this.idempotencyRecordRepository = idempotencyRecordRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.results = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /**
+   * Run a checkout once per idempotency key and user, replaying its first result afterwards.
+   *
+   * @param userId the ID of the authenticated user
+   * @param idempotencyKey the value of the {@code Idempotency-Key} header
+   * @param request the checkout request
+   * @param checkout the checkout to run
+   * @return the result of the first checkout made with this key
+   * @throws IdempotencyKeyException if the key is malformed or was used for another request
+   */
+  public OrderResponse execute(Long userId, String idempotencyKey, CheckoutRequest request,
+                               Supplier<OrderResponse> checkout) {
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new IdempotencyKeyException(
+          "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+    }
+
+    Key key = new Key(userId, idempotencyKey);
+    String requestHash = hash(request);
+    InFlight inFlight = new InFlight(requestHash, new CompletableFuture<>());
+    InFlight existing = results.asMap().putIfAbsent(key, inFlight);
+
+    if (existing != null) {
+      checkSameRequest(existing.requestHash(), requestHash);
+      return await(existing.result());
+    }
+
+    try {
+      OrderResponse response = runOnce(key, requestHash, checkout);
+      inFlight.result().complete(response);
+      return response;
+    } catch (RuntimeException e) {
+      // Failed checkouts are not stored, so a retry may run again
+      results.asMap().remove(key, inFlight);
+      inFlight.result().completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Delete stored results older than the TTL.
+   */
+  @Scheduled(fixedDelayString = "${checkout.idempotency.purge-interval:3600000}")
+  public void purgeExpired() {
+    transactionTemplate.executeWithoutResult(status ->
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+  }
+
+  private OrderResponse runOnce(Key key, String requestHash, Supplier<OrderResponse> checkout) {
+    try {
+      return transactionTemplate.execute(status -> {
+        IdempotencyRecord existing = idempotencyRecordRepository
+            .findByUserIdAndIdempotencyKey(key.userId(), key.idempotencyKey())
+            .orElse(null);
+        if (existing != null) {
+          return replay(existing, requestHash);
+        }
+
+        // Claim the key first; a concurrent duplicate blocks on the unique constraint until
+        // this transaction ends
+        IdempotencyRecord claimed = idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(
+            null, key.userId(), key.idempotencyKey(), requestHash, null, null,
+            LocalDateTime.now()));
+
+        OrderResponse response = checkout.get();
+        claimed.setMessage(response.getMessage());
+        claimed.setFinalPrice(response.getFinalPrice());
+        return response;
+      });
+    } catch (DataIntegrityViolationException e) {
+      // Another attempt with the same key committed first
+      return transactionTemplate.execute(status -> idempotencyRecordRepository
+          .findByUserIdAndIdempotencyKey(key.userId(), key.idempotencyKey())
+          .map(record -> replay(record, requestHash))
+          .orElseThrow(() -> e));
+    }
+  }
+
+  private OrderResponse replay(IdempotencyRecord record, String requestHash) {
+    checkSameRequest(record.getRequestHash(), requestHash);
+    return new OrderResponse(record.getMessage(), record.getFinalPrice());
+  }
+
+  private void checkSameRequest(String storedHash, String requestHash) {
+    if (!storedHash.equals(requestHash)) {
+      throw new IdempotencyKeyException(
+          "Idempotency-Key was already used for a different request");
+    }
+  }
+
+  private OrderResponse await(CompletableFuture<OrderResponse> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private String hash(CheckoutRequest request) {
+    String canonical = request.getUserId() + "|" + request.getProductIds() + "|"
+        + request.getDiscountCodes();
+    if (request.getItems() != null) {
+      // Appended only when present, so hashes stored for product ID carts stay valid
+      canonical += "|" + request.getItems();
+    }
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(
+          messageDigest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record Key(Long userId, String idempotencyKey) {
+  }
+
+  private record InFlight(String requestHash, CompletableFuture<OrderResponse> result) {
+  }
+}
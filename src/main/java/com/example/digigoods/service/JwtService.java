@@ -1,10 +1,14 @@
 package com.example.digigoods.service;
 
+import com.example.digigoods.security.VerifiedToken;
+import com.example.digigoods.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -15,11 +19,31 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
-  @Value("${jwt.secret:mySecretKey}")
-  private String secret;
+  // The standard iat claim has second resolution; revocation compares issue times in millis
+  private static final String ISSUED_AT_MILLIS = "iatMillis";
 
-  @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-  private Long expiration;
+  private final Long expiration;
+  private final SecretKey signingKey;
+  private final JwtParser parser;
+  private final VerifiedTokenCache tokenCache;
+
+  /**
+   * Create the service, building the signing key and token parser once.
+   *
+   * @param secret the HMAC secret used to sign and verify tokens
+   * @param expiration the token lifetime in milliseconds
+   * @param tokenCache the cache of already verified tokens
+   */
+  public JwtService(@Value("${jwt.secret:mySecretKey}") String secret,
+                    @Value("${jwt.expiration:86400000}") Long expiration,
+                    VerifiedTokenCache tokenCache) {
+    this.expiration = expiration;
+    this.tokenCache = tokenCache;
+    this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    this.parser = Jwts.parser()
+        .verifyWith(signingKey)
+        .build();
+  }
 
   /**
    * Generate JWT token for a user.
@@ -29,15 +53,51 @@ public class JwtService {
    * @return JWT token
    */
   public String generateToken(Long userId, String username) {
+    long now = System.currentTimeMillis();
     return Jwts.builder()
         .subject(username)
         .claim("userId", userId)
-        .issuedAt(new Date())
-        .expiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSigningKey())
+        .claim(ISSUED_AT_MILLIS, now)
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + expiration))
+        .signWith(signingKey)
         .compact();
   }
 
+  /**
+   * Verify the signature and expiry of a JWT token and return its claims.
+   *
+   * <p>Tokens seen before are answered from the verified-token cache until they expire.
+   *
+   * @param token the JWT token
+   * @return the verified token claims
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered, expired or has no
+   *     issue time
+   */
+  public VerifiedToken verify(String token) {
+    return tokenCache.get(token, this::parse);
+  }
+
+  private VerifiedToken parse(String token) {
+    Claims claims = parser.parseSignedClaims(token).getPayload();
+    if (claims.getIssuedAt() == null) {
+      throw new MalformedJwtException("JWT token has no issued-at claim");
+    }
+    return new VerifiedToken(
+        claims.getSubject(),
+        claims.get("userId", Long.class),
+        issuedAt(claims),
+        claims.getExpiration().toInstant()
+    );
+  }
+
+  private static Instant issuedAt(Claims claims) {
+    Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS, Long.class);
+    return issuedAtMillis != null
+        ? Instant.ofEpochMilli(issuedAtMillis)
+        : claims.getIssuedAt().toInstant();
+  }
+
   /**
    * Extract username from JWT token.
    *
@@ -45,7 +105,7 @@ public class JwtService {
    * @return username
    */
   public String extractUsername(String token) {
-    return extractClaim(token, Claims::getSubject);
+    return verify(token).getSubject();
   }
 
   /**
@@ -55,7 +115,7 @@ public class JwtService {
    * @return user ID
    */
   public Long extractUserId(String token) {
-    return extractClaim(token, claims -> claims.get("userId", Long.class));
+    return verify(token).getUserId();
   }
 
   /**
@@ -65,7 +125,7 @@ public class JwtService {
    * @return true if expired, false otherwise
    */
   public boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+    return verify(token).getExpiresAt().isBefore(Instant.now());
   }
 
   /**
@@ -76,28 +136,8 @@ public class JwtService {
    * @return true if valid, false otherwise
    */
   public boolean validateToken(String token, String username) {
-    final String extractedUsername = extractUsername(token);
-    return (extractedUsername.equals(username) && !isTokenExpired(token));
-  }
-
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
-  }
-
-  private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
-  }
-
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser()
-        .verifyWith(getSigningKey())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
-  }
-
-  private SecretKey getSigningKey() {
-    return Keys.hmacShaKeyFor(secret.getBytes());
+    VerifiedToken verifiedToken = verify(token);
+    return verifiedToken.getSubject().equals(username)
+        && !verifiedToken.getExpiresAt().isBefore(Instant.now());
   }
 }
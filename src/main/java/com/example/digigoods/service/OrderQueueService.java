@@ -0,0 +1,231 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.BatchOrderResult;
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderTicketResponse;
+import com.example.digigoods.exception.OrderTicketNotFoundException;
+import com.example.digigoods.model.PendingOrder;
+import com.example.digigoods.model.PendingOrderStatus;
+import com.example.digigoods.repository.PendingOrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for the durable queue of accepted, not yet committed orders.
+ *
+ * <p>Each accepted checkout request is stored in {@code pending_orders} and identified by its
+ * ticket ID. {@link OrderQueueWorker} claims pending orders in batches, commits them and
+ * records the outcome on each ticket. An order that could not be processed stays pending and is
+ * retried with an exponential backoff, up to {@code checkout.async.max-attempts} attempts.
+ */
+@Service
+public class OrderQueueService {
+
+  private static final int MAX_FAILURE_REASON_LENGTH = 255;
+
+  private final PendingOrderRepository pendingOrderRepository;
+  private final ObjectMapper objectMapper;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+
+  /**
+   * Create the service.
+   *
+   * @param pendingOrderRepository the pending order repository
+   * @param objectMapper the mapper storing checkout requests
+   * @param maxAttempts the number of attempts after which an order that could not be processed
+   *     fails
+   * @param retryBackoffMillis the delay before the first retry, in milliseconds; doubled on every
+   *     further retry
+   */
+  public OrderQueueService(PendingOrderRepository pendingOrderRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${checkout.async.max-attempts:5}") int maxAttempts,
+                           @Value("${checkout.async.retry-backoff:1000}")
+                           long retryBackoffMillis) {
+    this.pendingOrderRepository = pendingOrderRepository;
+    this.objectMapper = objectMapper;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+  }
+
+  /**
+   * Append a priced checkout request to the queue.
+   *
+   * @param request the checkout request
+   * @param quotedPrice the final price computed when the request was accepted
+   * @return the saved pending order
+   */
+  public PendingOrder enqueue(CheckoutRequest request, BigDecimal quotedPrice) {
+    PendingOrder pendingOrder = new PendingOrder();
+    pendingOrder.setUserId(request.getUserId());
+    pendingOrder.setStatus(PendingOrderStatus.PENDING);
+    pendingOrder.setPayload(write(request));
+    pendingOrder.setQuotedPrice(quotedPrice);
+    pendingOrder.setAttempts(0);
+    pendingOrder.setCreatedAt(LocalDateTime.now());
+    return pendingOrderRepository.save(pendingOrder);
+  }
+
+  /**
+   * Find the oldest unclaimed pending orders due for an attempt.
+   *
+   * @param batchSize the maximum number of orders to find
+   * @return the pending order IDs, oldest first
+   */
+  public List<Long> due(int batchSize) {
+    return pendingOrderRepository.findDueIds(LocalDateTime.now(),
+        PageRequest.ofSize(batchSize));
+  }
+
+  /**
+   * Claim a pending order.
+   *
+   * <p>Must run inside a transaction; the claim holds the row until it ends, and is undone if
+   * the transaction rolls back.
+   *
+   * @param id the pending order ID
+   * @return the claimed pending order, or null if it was claimed or processed by someone else
+   */
+  public PendingOrder claim(Long id) {
+    String claimId = UUID.randomUUID().toString();
+    if (pendingOrderRepository.claim(id, claimId) == 0) {
+      return null;
+    }
+    return pendingOrderRepository.findByClaimId(claimId).orElse(null);
+  }
+
+  /**
+   * Claim a batch of pending orders.
+   *
+   * <p>Must run inside a transaction, like {@link #claim(Long)}.
+   *
+   * @param ids the pending order IDs
+   * @return the claimed pending orders, oldest first, without those claimed or processed by
+   *     someone else
+   */
+  public List<PendingOrder> claimAll(List<Long> ids) {
+    String claimId = UUID.randomUUID().toString();
+    if (pendingOrderRepository.claimAll(ids, claimId) == 0) {
+      return List.of();
+    }
+    return pendingOrderRepository.findAllByClaimIdOrderById(claimId);
+  }
+
+  /**
+   * Read the checkout request of a pending order.
+   *
+   * @param pendingOrder the pending order
+   * @return the checkout request
+   */
+  public CheckoutRequest requestOf(PendingOrder pendingOrder) {
+    try {
+      return objectMapper.readValue(pendingOrder.getPayload(), CheckoutRequest.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable payload of pending order "
+          + pendingOrder.getId(), e);
+    }
+  }
+
+  /**
+   * Record the outcome of a claimed pending order.
+   *
+   * @param pendingOrder the claimed pending order
+   * @param result the checkout result
+   */
+  public void complete(PendingOrder pendingOrder, BatchOrderResult result) {
+    if (result.isCreated()) {
+      pendingOrder.setStatus(PendingOrderStatus.COMPLETED);
+      pendingOrder.setFinalPrice(result.getFinalPrice());
+      pendingOrder.setOrderId(result.getOrderId());
+    } else {
+      pendingOrder.setStatus(PendingOrderStatus.FAILED);
+      pendingOrder.setFailureReason(truncate(result.getMessage()));
+    }
+    pendingOrder.setProcessedAt(LocalDateTime.now());
+  }
+
+  /**
+   * Schedule another attempt of a pending order that could not be processed.
+   *
+   * <p>The order stays pending until its next attempt is due. Once it used up its attempts it is
+   * failed instead. Must run inside a transaction.
+   *
+   * @param id the pending order ID
+   * @param reason the failure reason reported on the ticket if no attempts are left
+   */
+  public void retry(Long id, String reason) {
+    PendingOrder pendingOrder = pendingOrderRepository.findById(id).orElse(null);
+    if (pendingOrder == null || pendingOrder.getStatus() != PendingOrderStatus.PENDING) {
+      return;
+    }
+
+    int attempts = pendingOrder.getAttempts() + 1;
+    pendingOrder.setAttempts(attempts);
+    LocalDateTime now = LocalDateTime.now();
+    if (attempts >= maxAttempts) {
+      pendingOrder.setStatus(PendingOrderStatus.FAILED);
+      pendingOrder.setFailureReason(truncate(reason));
+      pendingOrder.setProcessedAt(now);
+    } else {
+      Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+      pendingOrder.setNextAttemptAt(now.plus(backoff));
+    }
+  }
+
+  /**
+   * Get the state of an order ticket of a user.
+   *
+   * @param ticketId the ticket ID
+   * @param userId the ID of the authenticated user
+   * @return the ticket state
+   * @throws OrderTicketNotFoundException if the user has no such ticket
+   */
+  public OrderTicketResponse getTicket(Long ticketId, Long userId) {
+    PendingOrder pendingOrder = pendingOrderRepository.findByIdAndUserId(ticketId, userId)
+        .orElseThrow(() -> new OrderTicketNotFoundException(ticketId));
+    return toTicket(pendingOrder);
+  }
+
+  /**
+   * Describe a pending order as an order ticket.
+   *
+   * @param pendingOrder the pending order
+   * @return the ticket state
+   */
+  public OrderTicketResponse toTicket(PendingOrder pendingOrder) {
+    String message = switch (pendingOrder.getStatus()) {
+      case PENDING -> "Order is queued";
+      case COMPLETED -> "Order created successfully!";
+      case FAILED -> pendingOrder.getFailureReason();
+    };
+    BigDecimal finalPrice = pendingOrder.getStatus() == PendingOrderStatus.COMPLETED
+        ? pendingOrder.getFinalPrice()
+        : pendingOrder.getQuotedPrice();
+    return new OrderTicketResponse(pendingOrder.getId(), pendingOrder.getStatus().name(),
+        message, finalPrice, pendingOrder.getOrderId());
+  }
+
+  private String write(CheckoutRequest request) {
+    try {
+      return objectMapper.writeValueAsString(request);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Checkout request cannot be queued", e);
+    }
+  }
+
+  private String truncate(String reason) {
+    if (reason == null || reason.length() <= MAX_FAILURE_REASON_LENGTH) {
+      return reason;
+    }
+    return reason.substring(0, MAX_FAILURE_REASON_LENGTH);
+  }
+}
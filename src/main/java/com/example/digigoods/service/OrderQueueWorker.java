@@ -0,0 +1,190 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.BatchOrderResponse;
+import com.example.digigoods.model.PendingOrder;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Worker threads committing the orders of the order queue ({@code checkout.async.enabled}).
+ *
+ * <p>Each worker polls the queue for a batch of due pending orders, claims them and commits
+ * them through {@link CheckoutService#commitQueuedCheckouts(List)} in one transaction, together
+ * with their ticket outcomes. An order rejected for its stock or discounts fails on its ticket
+ * without affecting the others. Any other error rolls the batch back, and its orders are then
+ * committed one per transaction: an order failing again on its own is left pending for a later
+ * retry, so one bad order cannot hold up the rest of the batch. A claim that is not committed
+ * is rolled back with the orders, so a crashed worker leaves them pending for the next one.
+ */
+@Component
+public class OrderQueueWorker implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderQueueWorker.class);
+
+  private final OrderQueueService orderQueueService;
+  private final CheckoutService checkoutService;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final int workers;
+  private final int batchSize;
+  private final long pollInterval;
+  private ScheduledExecutorService executor;
+
+  /**
+   * Create the worker.
+   *
+   * @param orderQueueService the order queue service
+   * @param checkoutService the checkout service
+   * @param transactionManager the transaction manager
+   * @param enabled whether checkouts may be queued
+   * @param workers the number of worker threads; 0 leaves draining to {@link #drain()} callers
+   * @param batchSize the maximum number of due orders read per poll
+   * @param pollInterval the delay between polls of an idle worker, in milliseconds
+   */
+  public OrderQueueWorker(OrderQueueService orderQueueService,
+                          CheckoutService checkoutService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${checkout.async.enabled:false}") boolean enabled,
+                          @Value("${checkout.async.workers:2}") int workers,
+                          @Value("${checkout.async.batch-size:100}") int batchSize,
+                          @Value("${checkout.async.poll-interval:200}") long pollInterval) {
+    this.orderQueueService = orderQueueService;
+    this.checkoutService = checkoutService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.workers = workers;
+    this.batchSize = batchSize;
+    this.pollInterval = pollInterval;
+  }
+
+  /**
+   * Check whether checkouts may be queued.
+   *
+   * @return true if the order queue is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Start the worker threads once the application is ready.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled || workers <= 0) {
+      return;
+    }
+
+    executor = Executors.newScheduledThreadPool(workers,
+        new CustomizableThreadFactory("order-queue-"));
+    for (int i = 0; i < workers; i++) {
+      executor.scheduleWithFixedDelay(this::drainQuietly, pollInterval, pollInterval,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Commit pending orders until no more are due.
+   *
+   * @return the number of processed pending orders
+   */
+  public int drain() {
+    int processed = 0;
+    List<Long> due;
+    do {
+      due = orderQueueService.due(batchSize);
+      processed += processBatch(due);
+    } while (due.size() == batchSize);
+    return processed;
+  }
+
+  @Override
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  private void drainQuietly() {
+    try {
+      drain();
+    } catch (RuntimeException e) {
+      // Keep the worker scheduled; the next poll retries
+      log.error("Order queue worker failed", e);
+    }
+  }
+
+  private int processBatch(List<Long> ids) {
+    if (ids.size() <= 1) {
+      return processEach(ids);
+    }
+
+    try {
+      Integer processed = transactionTemplate.execute(status -> {
+        List<PendingOrder> claimed = orderQueueService.claimAll(ids);
+        if (claimed.isEmpty()) {
+          return 0;
+        }
+
+        // Rejected carts come back as failed results, so anything thrown here is unexpected
+        BatchOrderResponse response = checkoutService.commitQueuedCheckouts(claimed.stream()
+            .map(orderQueueService::requestOf)
+            .toList());
+        for (int i = 0; i < claimed.size(); i++) {
+          orderQueueService.complete(claimed.get(i), response.getResults().get(i));
+        }
+        return claimed.size();
+      });
+      return processed == null ? 0 : processed;
+    } catch (RuntimeException e) {
+      log.warn("Failed to commit a batch of {} queued orders; committing them one at a time",
+          ids.size(), e);
+      return processEach(ids);
+    }
+  }
+
+  private int processEach(List<Long> ids) {
+    int processed = 0;
+    for (Long id : ids) {
+      if (process(id)) {
+        processed++;
+      }
+    }
+    return processed;
+  }
+
+  private boolean process(Long id) {
+    try {
+      Boolean processed = transactionTemplate.execute(status -> {
+        PendingOrder pendingOrder = orderQueueService.claim(id);
+        if (pendingOrder == null) {
+          return false;
+        }
+
+        // Rejected carts come back as failed results, so anything thrown here is unexpected
+        BatchOrderResponse response = checkoutService.commitQueuedCheckouts(
+            List.of(orderQueueService.requestOf(pendingOrder)));
+        orderQueueService.complete(pendingOrder, response.getResults().get(0));
+        return true;
+      });
+      return Boolean.TRUE.equals(processed);
+    } catch (RuntimeException e) {
+      log.warn("Failed to commit queued order {}; it will be retried", id, e);
+      transactionTemplate.executeWithoutResult(status ->
+          orderQueueService.retry(id, "Order could not be processed"));
+      return true;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderLineSnapshot;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.repository.OrderLineSnapshotRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service writing the denormalized order line snapshots used for sales reporting.
+ */
+@Service
+public class OrderSnapshotService {
+
+  private final OrderLineSnapshotRepository orderLineSnapshotRepository;
+
+  public OrderSnapshotService(OrderLineSnapshotRepository orderLineSnapshotRepository) {
+    this.orderLineSnapshotRepository = orderLineSnapshotRepository;
+  }
+
+  /**
+   * Append a snapshot of every line of an order, in one batch.
+   *
+   * @param order the saved order
+   * @param plan the checkout plan the order was created from
+   */
+  public void recordLines(Order order, CheckoutPlan plan) {
+    orderLineSnapshotRepository.appendAll(snapshotsOf(order, plan));
+  }
+
+  /**
+   * Append a snapshot of every line of several orders, in one batch.
+   *
+   * @param orders the saved orders
+   * @param plans the checkout plan of each order, in the same order
+   */
+  public void recordLines(List<Order> orders, List<CheckoutPlan> plans) {
+    List<OrderLineSnapshot> snapshots = new ArrayList<>();
+    for (int i = 0; i < orders.size(); i++) {
+      snapshots.addAll(snapshotsOf(orders.get(i), plans.get(i)));
+    }
+    orderLineSnapshotRepository.appendAll(snapshots);
+  }
+
+  private List<OrderLineSnapshot> snapshotsOf(Order order, CheckoutPlan plan) {
+    // Split the order's final price, which may come from a reservation or a quote, over its
+    // lines so the snapshots of an order add up to what was charged. The plan carries the unit
+    // prices that price was calculated from, which are not the current ones for a reservation
+    long[] linePrices = CartPricing.of(plan)
+        .linePrices(CartPricing.toCents(order.getFinalPrice()));
+
+    List<OrderLineSnapshot> snapshots = new ArrayList<>(linePrices.length);
+    int line = 0;
+    for (Map.Entry<Long, Integer> entry : plan.getQuantities().entrySet()) {
+      Product product = plan.getProduct(entry.getKey());
+      BigDecimal unitPrice = plan.getUnitPrice(entry.getKey());
+      int quantity = entry.getValue();
+      BigDecimal listPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+      BigDecimal linePrice = CartPricing.toAmount(linePrices[line++]);
+      snapshots.add(new OrderLineSnapshot(null, order.getId(), plan.getUserId(),
+          product.getId(), product.getName(), quantity, unitPrice,
+          listPrice.subtract(linePrice), linePrice, order.getOrderDate()));
+    }
+    return snapshots;
+  }
+}
@@ -0,0 +1,167 @@
+package com.example.digigoods.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs independent checkout reads concurrently ({@code checkout.parallel-lookups.enabled}).
+ *
+ * <p>Lookups are forked into a {@link Scope} and joined together, so a checkout waits for its
+ * slowest read instead of the sum of them. The scope shuts down on failure, as
+ * {@code StructuredTaskScope.ShutdownOnFailure} does: the first lookup to throw cancels its
+ * siblings, and its exception is rethrown unchanged from {@link Scope#join()}. The caller forks
+ * every lookup and only joins, so no lookup outlives the scope.
+ *
+ * <p>Each forked lookup runs on a virtual thread of its own, or on a fixed pool of platform
+ * threads with {@code checkout.parallel-lookups.threads}, outside of any transaction: each
+ * repository call borrows a connection for its query only and returns it right away, and the
+ * entities it returns are detached. The checkout keeps the connection of its own transaction
+ * while it waits, so with two forked lookups it needs three pooled connections at once, and
+ * {@code spring.datasource.hikari.maximum-pool-size} has to allow for that.
+ */
+@Component
+public class ParallelLookups implements DisposableBean {
+
+  private final boolean enabled;
+  private final Executor executor;
+  // The platform thread pool to shut down, null with virtual threads
+  private final ExecutorService pool;
+
+  /**
+   * Create the lookup executor.
+   *
+   * @param enabled whether checkout reads run concurrently
+   * @param threads the number of platform lookup threads, or 0 for a virtual thread per lookup
+   */
+  public ParallelLookups(@Value("${checkout.parallel-lookups.enabled:false}") boolean enabled,
+                         @Value("${checkout.parallel-lookups.threads:0}") int threads) {
+    this.enabled = enabled;
+    this.pool = enabled && threads > 0
+        ? Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("checkout-lookup-"))
+        : null;
+    this.executor = enabled && pool == null
+        ? new VirtualThreadTaskExecutor("checkout-lookup-")
+        : pool;
+  }
+
+  /**
+   * Check whether checkout reads run concurrently.
+   *
+   * @return true if lookups are enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Open a scope to fork lookups into.
+   *
+   * @return the scope, to be closed by the caller
+   * @throws IllegalStateException if lookups are disabled
+   */
+  public Scope open() {
+    if (!enabled) {
+      throw new IllegalStateException("Parallel lookups are disabled");
+    }
+    return new Scope();
+  }
+
+  @Override
+  public void destroy() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * A group of lookups joined together. Closing the scope cancels lookups still running.
+   */
+  public final class Scope implements AutoCloseable {
+
+    private final List<Future<?>> forks = new ArrayList<>();
+    private final BlockingQueue<Future<?>> completed = new LinkedBlockingQueue<>();
+    private boolean joined;
+
+    private Scope() {
+    }
+
+    /**
+     * Start a lookup on another thread, outside of any transaction.
+     *
+     * @param lookup the lookup
+     * @param <T> the type of the result
+     * @return the result of the lookup, available once the scope is joined
+     */
+    public <T> Supplier<T> fork(Supplier<T> lookup) {
+      FutureTask<T> task = new FutureTask<>(lookup::get) {
+        @Override
+        protected void done() {
+          completed.add(this);
+        }
+      };
+      forks.add(task);
+      executor.execute(task);
+      return () -> {
+        if (!joined) {
+          throw new IllegalStateException("Lookup results are only available after join");
+        }
+        return resultOf(task);
+      };
+    }
+
+    /**
+     * Wait for every lookup, or for the first one to fail.
+     *
+     * @throws RuntimeException the exception of the first lookup that failed
+     */
+    public void join() {
+      try {
+        for (int i = 0; i < forks.size(); i++) {
+          resultOf(completed.take());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for lookups", e);
+      } finally {
+        close();
+      }
+      joined = true;
+    }
+
+    @Override
+    public void close() {
+      forks.forEach(fork -> fork.cancel(true));
+    }
+  }
+
+  private static <T> T resultOf(Future<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (CancellationException | InterruptedException e) {
+      throw new IllegalStateException("Lookup did not complete", e);
+    }
+  }
+}
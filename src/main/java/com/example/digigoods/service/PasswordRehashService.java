@@ -0,0 +1,31 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.repository.UserRepository;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for storing upgraded password hashes in the background.
+ */
+@Service
+public class PasswordRehashService {
+
+  private final UserRepository userRepository;
+
+  public PasswordRehashService(UserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Store a new password hash for a user without delaying the login that produced it.
+   *
+   * @param username the username
+   * @param encodedPassword the new password hash
+   */
+  @Async
+  @Transactional
+  public void storeRehashedPassword(String username, String encodedPassword) {
+    userRepository.updatePassword(username, encodedPassword);
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Combined percentage of the product-specific discounts of a checkout, in basis points and
+ * indexed by product ID.
+ *
+ * <p>Built once per checkout plan, so pricing a cart line is one binary search over the product
+ * IDs instead of a scan over every discount and a lookup in its set of product entities.
+ */
+public final class ProductDiscountIndex {
+
+  private final long[] productIds;
+  private final int[] basisPoints;
+
+  private ProductDiscountIndex(long[] productIds, int[] basisPoints) {
+    this.productIds = productIds;
+    this.basisPoints = basisPoints;
+  }
+
+  /**
+   * Index the product-specific discounts among a list of discounts.
+   *
+   * @param discounts the discounts of a checkout; general discounts are ignored
+   * @return the index
+   * @throws ArithmeticException if a percentage has more than two decimals
+   */
+  public static ProductDiscountIndex of(Collection<Discount> discounts) {
+    Map<Long, Integer> sums = new TreeMap<>();
+    for (Discount discount : discounts) {
+      if (discount.getType() == DiscountType.PRODUCT_SPECIFIC) {
+        int percentage = CartPricing.toBasisPoints(discount.getPercentage());
+        for (Product product : discount.getApplicableProducts()) {
+          sums.merge(product.getId(), percentage, Math::addExact);
+        }
+      }
+    }
+
+    long[] productIds = new long[sums.size()];
+    int[] basisPoints = new int[sums.size()];
+    int i = 0;
+    for (Map.Entry<Long, Integer> sum : sums.entrySet()) {
+      productIds[i] = sum.getKey();
+      basisPoints[i] = sum.getValue();
+      i++;
+    }
+    return new ProductDiscountIndex(productIds, basisPoints);
+  }
+
+  /**
+   * Get the combined percentage of the discounts applicable to a product.
+   *
+   * @param productId the product ID
+   * @return the summed percentage in basis points, zero if no discount applies
+   */
+  public int basisPointsFor(long productId) {
+    int index = Arrays.binarySearch(productIds, productId);
+    return index >= 0 ? basisPoints[index] : 0;
+  }
+}
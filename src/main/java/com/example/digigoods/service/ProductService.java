@@ -4,8 +4,11 @@ import com.example.digigoods.exception.InsufficientStockException;
 import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.ProductRepository;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
@@ -17,35 +20,79 @@ import org.springframework.stereotype.Service;
 public class ProductService {
 
   private final ProductRepository productRepository;
+  private final HotStockLedger hotStockLedger;
+  private final StockWriteCombiner stockWriteCombiner;
 
-  public ProductService(ProductRepository productRepository) {
+  /**
+   * Create the service.
+   *
+   * @param productRepository the product repository
+   * @param hotStockLedger the in-memory stock ledger of hot products
+   * @param stockWriteCombiner the write-combining stage for stock decrements
+   */
+  public ProductService(ProductRepository productRepository, HotStockLedger hotStockLedger,
+                        StockWriteCombiner stockWriteCombiner) {
     this.productRepository = productRepository;
+    this.hotStockLedger = hotStockLedger;
+    this.stockWriteCombiner = stockWriteCombiner;
   }
 
   /**
    * Get products by their IDs and validate they exist.
    *
-   * @param productIds the list of product IDs
-   * @return list of products
+   * <p>Repeated IDs are loaded once, so each product appears once in the result.
+   *
+   * @param productIds the list of product IDs, possibly with duplicates
+   * @return list of distinct products
    * @throws ProductNotFoundException if any product is not found
    */
   public List<Product> getProductsByIds(List<Long> productIds) {
-    List<Product> products = productRepository.findAllByIdIn(productIds);
+    return selectProducts(productIds, loadProducts(productIds));
+  }
 
-    if (products.size() != productIds.size()) {
-      // Find missing product IDs
-      List<Long> foundIds = products.stream()
-          .map(Product::getId)
-          .collect(Collectors.toList());
+  /**
+   * Load the products referenced by several carts in one query.
+   *
+   * <p>Missing products are left out; {@link #selectProducts(List, Map)} reports them per cart.
+   *
+   * @param productIds the product IDs of all carts, possibly with duplicates
+   * @return the existing products, keyed by product ID
+   */
+  public Map<Long, Product> loadProducts(Collection<Long> productIds) {
+    List<Long> distinctIds = productIds.stream().distinct().toList();
+    return productRepository.findAllByIdIn(distinctIds).stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+  }
 
-      List<Long> missingIds = productIds.stream()
-          .filter(id -> !foundIds.contains(id))
-          .collect(Collectors.toList());
+  /**
+   * Pick the products of one cart from products loaded by {@link #loadProducts(Collection)}.
+   *
+   * @param productIds the product IDs of the cart, possibly with duplicates
+   * @param products the loaded products, keyed by product ID
+   * @return list of distinct products, in request order
+   * @throws ProductNotFoundException if any product is not found
+   */
+  public List<Product> selectProducts(List<Long> productIds, Map<Long, Product> products) {
+    List<Long> distinctIds = productIds.stream().distinct().toList();
 
+    List<Long> missingIds = distinctIds.stream()
+        .filter(id -> !products.containsKey(id))
+        .collect(Collectors.toList());
+    if (!missingIds.isEmpty()) {
       throw new ProductNotFoundException("Products not found with IDs: " + missingIds);
     }
 
-    return products;
+    return distinctIds.stream().map(products::get).toList();
+  }
+
+  /**
+   * Check whether a product's stock is taken from the in-memory {@link HotStockLedger}.
+   *
+   * @param productId the product ID
+   * @return true if the product is hot
+   */
+  public boolean isHot(Long productId) {
+    return hotStockLedger.isHot(productId);
   }
 
   /**
@@ -58,37 +105,169 @@ public class ProductService {
   }
 
   /**
-   * Validate and update stock for products.
+   * Validate and update stock for the products of a checkout plan.
+   *
+   * <p>Hot products are taken from the in-memory {@link HotStockLedger}. All other cart lines
+   * are decremented with one batch of guarded updates, so stock is checked and taken atomically
+   * by the database rather than read, checked and saved per product. The updates run in the
+   * caller's transaction, so stock is only taken if the order commits. With the
+   * {@link StockWriteCombiner} enabled those lines are combined with concurrent checkouts of the
+   * same products instead, and the combined stock is kept only if the caller's transaction
+   * commits.
+   *
+   * @param plan the checkout plan
+   * @throws InsufficientStockException if any product has insufficient stock
+   */
+  public void validateAndUpdateStock(CheckoutPlan plan) {
+    Map<Long, Integer> hotQuantities = new LinkedHashMap<>();
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    plan.getQuantities().forEach((productId, quantity) ->
+        (hotStockLedger.isHot(productId) ? hotQuantities : quantities).put(productId, quantity));
+
+    if (!hotQuantities.isEmpty()) {
+      List<Long> insufficient = hotStockLedger.take(hotQuantities);
+      if (!insufficient.isEmpty()) {
+        Long productId = insufficient.get(0);
+        throw new InsufficientStockException(productId, plan.getQuantity(productId),
+            hotStockLedger.available(productId));
+      }
+    }
+
+    if (!quantities.isEmpty() && stockWriteCombiner.isEnabled()) {
+      stockWriteCombiner.take(quantities);
+    } else if (!quantities.isEmpty()) {
+      List<Long> insufficient = productRepository.decrementStock(quantities);
+      if (!insufficient.isEmpty()) {
+        Long productId = insufficient.get(0);
+        int available = productRepository.findStockById(productId).orElse(0);
+        throw new InsufficientStockException(productId, plan.getQuantity(productId), available);
+      }
+    }
+  }
+
+  /**
+   * Lock the rows of the non-hot products of several carts and read their stock.
+   *
+   * <p>The returned counts are the budget {@link #allocateStock(CheckoutPlan, Map)} hands out to
+   * the carts of a batch. Must run inside a transaction.
+   *
+   * @param productIds the product IDs of all carts
+   * @return the stock of each non-hot product, keyed by product ID
+   */
+  public Map<Long, Integer> lockStock(Collection<Long> productIds) {
+    return productRepository.lockStock(productIds.stream()
+        .filter(productId -> !hotStockLedger.isHot(productId))
+        .collect(Collectors.toCollection(TreeSet::new)));
+  }
+
+  /**
+   * Allocate the stock of one cart, all or nothing.
    *
-   * @param productIds the list of product IDs (with duplicates for quantity)
+   * <p>Non-hot products are allocated from the counts read by {@link #lockStock(Collection)},
+   * which are reduced on success; hot products are taken from the {@link HotStockLedger}.
+   *
+   * @param plan the checkout plan of the cart
+   * @param lockedStock the unallocated stock of the non-hot products, keyed by product ID
    * @throws InsufficientStockException if any product has insufficient stock
    */
-  public void validateAndUpdateStock(List<Long> productIds) {
-    // Count quantities for each product
-    Map<Long, Long> productQuantities = productIds.stream()
-        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-
-    // Get all unique products
-    List<Product> products = getProductsByIds(productQuantities.keySet().stream()
-        .collect(Collectors.toList()));
-
-    // Validate stock availability
-    for (Product product : products) {
-      Long requestedQuantity = productQuantities.get(product.getId());
-      if (product.getStock() < requestedQuantity) {
-        throw new InsufficientStockException(
-            product.getId(),
-            requestedQuantity.intValue(),
-            product.getStock()
-        );
+  public void allocateStock(CheckoutPlan plan, Map<Long, Integer> lockedStock) {
+    Map<Long, Integer> hotQuantities = new LinkedHashMap<>();
+    plan.getQuantities().forEach((productId, quantity) -> {
+      if (hotStockLedger.isHot(productId)) {
+        hotQuantities.put(productId, quantity);
+        return;
+      }
+      int available = lockedStock.getOrDefault(productId, 0);
+      if (available < quantity) {
+        throw new InsufficientStockException(productId, quantity, available);
+      }
+    });
+
+    if (!hotQuantities.isEmpty()) {
+      List<Long> insufficient = hotStockLedger.take(hotQuantities);
+      if (!insufficient.isEmpty()) {
+        Long productId = insufficient.get(0);
+        throw new InsufficientStockException(productId, plan.getQuantity(productId),
+            hotStockLedger.available(productId));
       }
     }
 
-    // Update stock
-    for (Product product : products) {
-      Long requestedQuantity = productQuantities.get(product.getId());
-      product.setStock(product.getStock() - requestedQuantity.intValue());
-      productRepository.save(product);
+    plan.getQuantities().forEach((productId, quantity) -> {
+      if (!hotStockLedger.isHot(productId)) {
+        lockedStock.merge(productId, -quantity, Integer::sum);
+      }
+    });
+  }
+
+  /**
+   * Take the stock allocated by {@link #allocateStock(CheckoutPlan, Map)} from the non-hot
+   * products in one batch of guarded updates.
+   *
+   * @param quantities the allocated quantities, keyed by product ID; hot products are ignored
+   * @throws IllegalStateException if a locked row no longer has the allocated stock
+   */
+  public void takeAllocatedStock(Map<Long, Integer> quantities) {
+    Map<Long, Integer> coldQuantities = new LinkedHashMap<>();
+    quantities.forEach((productId, quantity) -> {
+      if (!hotStockLedger.isHot(productId)) {
+        coldQuantities.put(productId, quantity);
+      }
+    });
+
+    if (!coldQuantities.isEmpty()) {
+      List<Long> insufficient = productRepository.decrementStock(coldQuantities);
+      if (!insufficient.isEmpty()) {
+        throw new IllegalStateException("Allocated stock is no longer available for products "
+            + insufficient);
+      }
     }
   }
+
+  /**
+   * Return stock taken by {@link #validateAndUpdateStock(CheckoutPlan)} to where it was taken
+   * from, whether or not the products are still hot.
+   *
+   * @param ledgerQuantities the quantities taken from the {@link HotStockLedger}, keyed by
+   *     product ID
+   * @param columnQuantities the quantities taken from the stock column, keyed by product ID
+   */
+  public void releaseStock(Map<Long, Integer> ledgerQuantities,
+                           Map<Long, Integer> columnQuantities) {
+    if (!ledgerQuantities.isEmpty()) {
+      hotStockLedger.restore(ledgerQuantities);
+    }
+    if (!columnQuantities.isEmpty()) {
+      productRepository.incrementStock(columnQuantities);
+
+      // Ledger counters of products that became hot were loaded from the stock column
+      Map<Long, Integer> nowHot = new LinkedHashMap<>();
+      columnQuantities.forEach((productId, quantity) -> {
+        if (hotStockLedger.isHot(productId)) {
+          nowHot.put(productId, quantity);
+        }
+      });
+      if (!nowHot.isEmpty()) {
+        hotStockLedger.restore(nowHot);
+      }
+    }
+  }
+
+  /**
+   * Journal the hot product stock sold by an order.
+   *
+   * @param orderId the ID of the saved order
+   * @param quantities the sold quantities, keyed by product ID
+   */
+  public void journalHotStock(Long orderId, Map<Long, Integer> quantities) {
+    hotStockLedger.journal(orderId, quantities);
+  }
+
+  /**
+   * Journal the hot product stock sold by several orders in one batch.
+   *
+   * @param quantitiesByOrder the sold quantities, keyed by order ID and then by product ID
+   */
+  public void journalHotStock(Map<Long, Map<Long, Integer>> quantitiesByOrder) {
+    hotStockLedger.journalAll(quantitiesByOrder);
+  }
 }
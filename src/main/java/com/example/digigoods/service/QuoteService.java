@@ -0,0 +1,118 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service remembering cart price quotes.
+ *
+ * <p>Quotes are kept in a bounded, TTL-evicted in-memory table keyed by the canonical cart and
+ * the {@link CatalogVersion} it was priced at, so re-quoting an unchanged cart is a map lookup:
+ * its products and discounts are neither loaded nor priced again. Once a product or discount
+ * changes, the version moves on and the cart is priced afresh. A checkout presenting the quote
+ * token reuses the quoted price on the same condition. Discount uses are not versioned: a quote
+ * may outlive the last use of its discount, which the checkout then rejects.
+ */
+@Service
+public class QuoteService {
+
+  private final CatalogVersion catalogVersion;
+  private final Duration ttl;
+  private final Cache<CartQuote.CartKey, CartQuote> quotesByCart;
+  private final Cache<String, CartQuote> quotesByToken;
+
+  /**
+   * Create the service.
+   *
+   * @param catalogVersion the version of the product prices and discounts
+   * @param ttlSeconds how long quotes are kept
+   * @param maximumSize the maximum number of quotes kept in memory
+   */
+  public QuoteService(CatalogVersion catalogVersion,
+                      @Value("${checkout.quote.ttl-seconds:60}") long ttlSeconds,
+                      @Value("${checkout.quote.maximum-size:100000}") long maximumSize) {
+    this.catalogVersion = catalogVersion;
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.quotesByCart = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .build();
+    this.quotesByToken = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /**
+   * Get the canonical form of a cart at the current catalog version.
+   *
+   * <p>Taken before the cart's products and discounts are loaded, so a quote priced from rows
+   * that change meanwhile is remembered under a version that is already outdated.
+   *
+   * @param request the checkout request
+   * @return the cart key
+   */
+  public CartQuote.CartKey cartKey(CheckoutRequest request) {
+    Map<Long, Integer> quantities = new TreeMap<>(CheckoutPlan.quantitiesOf(request));
+    List<String> discountCodes = request.getDiscountCodes() == null
+        ? List.of()
+        : request.getDiscountCodes().stream().distinct().toList();
+    return new CartQuote.CartKey(Collections.unmodifiableMap(quantities), discountCodes,
+        LocalDate.now(), catalogVersion.current());
+  }
+
+  /**
+   * Find a remembered quote of a cart.
+   *
+   * @param cartKey the cart key from {@link #cartKey(CheckoutRequest)}
+   * @return the quote, or null if the cart was not quoted at this catalog version within the TTL
+   */
+  public CartQuote find(CartQuote.CartKey cartKey) {
+    return quotesByCart.getIfPresent(cartKey);
+  }
+
+  /**
+   * Remember the price of a cart.
+   *
+   * @param cartKey the cart key taken before the cart was loaded and priced
+   * @param originalSubtotal the subtotal before discounts
+   * @param finalPrice the price after discounts
+   * @return the new quote
+   */
+  public CartQuote remember(CartQuote.CartKey cartKey, BigDecimal originalSubtotal,
+                            BigDecimal finalPrice) {
+    CartQuote quote = new CartQuote(UUID.randomUUID().toString(), cartKey, originalSubtotal,
+        finalPrice, LocalDateTime.now().plus(ttl));
+    quotesByCart.put(quote.cartKey(), quote);
+    quotesByToken.put(quote.token(), quote);
+    return quote;
+  }
+
+  /**
+   * Find the quote of a token if its price still holds for a checkout.
+   *
+   * @param token the quote token
+   * @param cartKey the cart key of the checkout from {@link #cartKey(CheckoutRequest)}
+   * @return the quote, or null if the token is unknown or expired, or the cart or catalog
+   *     version differ from the quoted ones
+   */
+  public CartQuote findReusable(String token, CartQuote.CartKey cartKey) {
+    CartQuote quote = quotesByToken.getIfPresent(token);
+    if (quote == null || !quote.cartKey().equals(cartKey)) {
+      return null;
+    }
+    return quote;
+  }
+}
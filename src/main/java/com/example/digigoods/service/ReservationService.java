@@ -0,0 +1,187 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.exception.InvalidDiscountException;
+import com.example.digigoods.exception.InvalidReservationException;
+import com.example.digigoods.exception.ReservationNotFoundException;
+import com.example.digigoods.model.ReservationItem;
+import com.example.digigoods.model.ReservationStatus;
+import com.example.digigoods.model.StockReservation;
+import com.example.digigoods.repository.StockReservationRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for time-limited stock reservations.
+ *
+ * <p>A reservation takes the stock and discount uses of a priced cart up front and holds them
+ * for {@code checkout.reservation.ttl-seconds}, so confirming it cannot run out of either. Holds
+ * that are neither confirmed nor released by then are given back by a background sweeper.
+ */
+@Service
+public class ReservationService {
+
+  private final StockReservationRepository stockReservationRepository;
+  private final ProductService productService;
+  private final DiscountService discountService;
+  private final long ttlSeconds;
+  private final int sweepBatchSize;
+
+  /**
+   * Create the service.
+   *
+   * @param stockReservationRepository the reservation repository
+   * @param productService the product service
+   * @param discountService the discount service
+   * @param ttlSeconds how long a reservation holds its stock
+   * @param sweepBatchSize the maximum number of reservations released per sweep
+   */
+  public ReservationService(StockReservationRepository stockReservationRepository,
+                            ProductService productService,
+                            DiscountService discountService,
+                            @Value("${checkout.reservation.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${checkout.reservation.sweep-batch-size:100}")
+                            int sweepBatchSize) {
+    this.stockReservationRepository = stockReservationRepository;
+    this.productService = productService;
+    this.discountService = discountService;
+    this.ttlSeconds = ttlSeconds;
+    this.sweepBatchSize = sweepBatchSize;
+  }
+
+  /**
+   * Take the stock and discount uses of a checkout plan and hold them in a new reservation.
+   *
+   * @param plan the checkout plan
+   * @param originalSubtotal the original subtotal of the cart
+   * @param finalPrice the discounted price of the cart
+   * @return the saved reservation
+   * @throws InsufficientStockException if any product has insufficient stock
+   * @throws InvalidDiscountException if any discount has no remaining uses left
+   */
+  public StockReservation hold(CheckoutPlan plan, BigDecimal originalSubtotal,
+                               BigDecimal finalPrice) {
+    productService.validateAndUpdateStock(plan);
+    discountService.updateDiscountUsage(plan.getDiscounts());
+
+    final LocalDateTime now = LocalDateTime.now();
+    StockReservation reservation = new StockReservation();
+    reservation.setUserId(plan.getUserId());
+    reservation.setStatus(ReservationStatus.HELD);
+    plan.getQuantities().forEach((productId, quantity) ->
+        reservation.getItems().add(new ReservationItem(productId, quantity,
+            plan.getUnitPrice(productId), productService.isHot(productId))));
+    reservation.setAppliedDiscounts(new HashSet<>(plan.getDiscounts()));
+    reservation.setOriginalSubtotal(originalSubtotal);
+    reservation.setFinalPrice(finalPrice);
+    reservation.setCreatedAt(now);
+    reservation.setExpiresAt(now.plusSeconds(ttlSeconds));
+    return stockReservationRepository.save(reservation);
+  }
+
+  /**
+   * Mark a held reservation of a user as confirmed.
+   *
+   * @param reservationId the reservation ID
+   * @param userId the ID of the authenticated user
+   * @return the confirmed reservation
+   * @throws ReservationNotFoundException if the user has no such reservation
+   * @throws InvalidReservationException if the reservation is expired or no longer held
+   */
+  public StockReservation confirm(Long reservationId, Long userId) {
+    int confirmed = stockReservationRepository.confirm(reservationId, userId, LocalDateTime.now());
+
+    StockReservation reservation = stockReservationRepository.findById(reservationId)
+        .filter(candidate -> candidate.getUserId().equals(userId))
+        .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+
+    if (confirmed == 0) {
+      String reason = reservation.getStatus() == ReservationStatus.HELD
+          ? "reservation has expired"
+          : "reservation is already " + reservation.getStatus().name().toLowerCase();
+      throw new InvalidReservationException(reservationId, reason);
+    }
+    return reservation;
+  }
+
+  /**
+   * Release expired reservations and give back their stock and discount uses.
+   *
+   * @return the number of released reservations
+   */
+  @Scheduled(fixedDelayString = "${checkout.reservation.sweep-interval:10000}")
+  @Transactional
+  public int releaseExpired() {
+    List<StockReservation> expired = stockReservationRepository.findExpired(
+        LocalDateTime.now(), PageRequest.ofSize(sweepBatchSize));
+
+    int released = 0;
+    for (StockReservation reservation : expired) {
+      // A confirm racing the sweep wins or loses on the status, never both
+      if (stockReservationRepository.release(reservation.getId()) == 1) {
+        productService.releaseStock(itemQuantities(reservation, true),
+            itemQuantities(reservation, false));
+        discountService.releaseDiscountUsage(reservation.getAppliedDiscounts());
+        released++;
+      }
+    }
+    return released;
+  }
+
+  /**
+   * Get the reserved quantities of a reservation.
+   *
+   * @param reservation the reservation
+   * @return the quantity of each product, keyed by product ID
+   */
+  public Map<Long, Integer> quantitiesOf(StockReservation reservation) {
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    for (ReservationItem item : reservation.getItems()) {
+      quantities.put(item.getProductId(), item.getQuantity());
+    }
+    return quantities;
+  }
+
+  /**
+   * Get the quantities a reservation holds through the in-memory hot stock ledger.
+   *
+   * @param reservation the reservation
+   * @return the quantity of each product taken from the ledger, keyed by product ID
+   */
+  public Map<Long, Integer> ledgerQuantitiesOf(StockReservation reservation) {
+    return itemQuantities(reservation, true);
+  }
+
+  /**
+   * Get the unit prices a reservation was priced at.
+   *
+   * @param reservation the reservation
+   * @return the unit price of each product, keyed by product ID
+   */
+  public Map<Long, BigDecimal> unitPricesOf(StockReservation reservation) {
+    Map<Long, BigDecimal> unitPrices = new LinkedHashMap<>();
+    for (ReservationItem item : reservation.getItems()) {
+      unitPrices.put(item.getProductId(), item.getUnitPrice());
+    }
+    return unitPrices;
+  }
+
+  private Map<Long, Integer> itemQuantities(StockReservation reservation, boolean fromLedger) {
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    for (ReservationItem item : reservation.getItems()) {
+      if (item.isFromLedger() == fromLedger) {
+        quantities.put(item.getProductId(), item.getQuantity());
+      }
+    }
+    return quantities;
+  }
+}
@@ -0,0 +1,356 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.model.StockClaim;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockClaimRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-combining stage for stock decrements of non-hot products
+ * ({@code inventory.combining.enabled}).
+ *
+ * <p>Decrements of the same product arriving within a short window, or until the batch is full,
+ * are applied as one guarded update, so concurrent checkouts of a popular product wait for one
+ * row lock per batch instead of one each. If the batch as a whole does not fit, the row is locked
+ * and the stock handed out first-come first-served, so every checkout still gets its own result.
+ * There are no combiner threads: the checkout that opens a batch collects it and applies it in a
+ * transaction of its own, while the other checkouts of the batch wait for it.
+ *
+ * <p>The combined update commits ahead of the checkouts it serves, so it records a
+ * {@link StockClaim} for every decrement it took. Each checkout removes its claims in its own
+ * transaction, which makes the stock taken only if the order commits. If the checkout rolls back
+ * its claims are back and their stock is returned right away; if the application stops first,
+ * {@link #releaseAbandoned()} returns them once they are older than
+ * {@code inventory.combining.claim-timeout-seconds}. Only whoever removes a claim returns its
+ * stock, so it is never returned twice.
+ */
+@Component
+public class StockWriteCombiner {
+
+  private final ProductRepository productRepository;
+  private final StockClaimRepository stockClaimRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final long waitTimeoutMillis;
+  private final long claimTimeoutSeconds;
+  private final int sweepBatchSize;
+  private final DistributionSummary batchSizes;
+  private final Map<Long, Batch> openBatches = new ConcurrentHashMap<>();
+
+  /**
+   * Create the combiner.
+   *
+   * @param productRepository the product repository
+   * @param stockClaimRepository the stock claim repository
+   * @param transactionManager the transaction manager
+   * @param enabled whether stock decrements are combined
+   * @param windowMicros how long a batch collects decrements, in microseconds
+   * @param maxBatchSize the number of decrements that applies a batch before its window ends
+   * @param waitTimeoutMillis how long a checkout waits for the batch of another checkout
+   * @param claimTimeoutSeconds how old a claim must be before it is returned as abandoned
+   * @param sweepBatchSize the maximum number of abandoned claims returned per sweep
+   * @param meterRegistry the registry to publish the batch sizes to
+   */
+  public StockWriteCombiner(ProductRepository productRepository,
+                            StockClaimRepository stockClaimRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inventory.combining.enabled:false}") boolean enabled,
+                            @Value("${inventory.combining.window-micros:1000}") long windowMicros,
+                            @Value("${inventory.combining.max-batch-size:64}") int maxBatchSize,
+                            @Value("${inventory.combining.wait-timeout-ms:5000}")
+                            long waitTimeoutMillis,
+                            @Value("${inventory.combining.claim-timeout-seconds:60}")
+                            long claimTimeoutSeconds,
+                            @Value("${inventory.combining.sweep-batch-size:100}")
+                            int sweepBatchSize,
+                            MeterRegistry meterRegistry) {
+    this.productRepository = productRepository;
+    this.stockClaimRepository = stockClaimRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.enabled = enabled;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    this.maxBatchSize = maxBatchSize;
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.claimTimeoutSeconds = claimTimeoutSeconds;
+    this.sweepBatchSize = sweepBatchSize;
+    this.batchSizes = DistributionSummary.builder("inventory.combining.batch.size")
+        .description("Stock decrements applied per combined update")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Check whether stock decrements are combined.
+   *
+   * @return true if the combiner is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Take stock of several products, all or nothing, through combined updates.
+   *
+   * <p>Must run inside the checkout's transaction: the stock stays taken only if it commits.
+   *
+   * @param quantities the quantity to take from each product, keyed by product ID
+   * @throws InsufficientStockException if any product has insufficient stock
+   * @throws CannotAcquireLockException if the batch of another checkout did not finish in time
+   */
+  public void take(Map<Long, Integer> quantities) {
+    List<Submission> submissions = new ArrayList<>();
+    quantities.forEach((productId, quantity) -> submissions.add(submit(productId, quantity)));
+
+    // Apply the batches opened here before waiting for any other, so two checkouts each waiting
+    // for a batch the other opened cannot block each other
+    for (Submission submission : submissions) {
+      if (submission.leader()) {
+        collectAndApply(submission.batch());
+      }
+    }
+
+    List<Decrement> taken = new ArrayList<>();
+    RuntimeException failure = null;
+    for (Submission submission : submissions) {
+      try {
+        await(submission);
+        taken.add(submission.decrement());
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+
+    if (failure != null) {
+      release(taken);
+      throw failure;
+    }
+    keep(taken);
+  }
+
+  /**
+   * Return the stock of claims whose checkout never removed them.
+   *
+   * @return the number of returned claims
+   */
+  @Scheduled(fixedDelayString = "${inventory.combining.sweep-interval:10000}")
+  @Transactional
+  public int releaseAbandoned() {
+    List<StockClaim> abandoned = stockClaimRepository.findAllByCreatedAtBeforeOrderByCreatedAt(
+        LocalDateTime.now().minusSeconds(claimTimeoutSeconds), PageRequest.ofSize(sweepBatchSize));
+    return abandoned.isEmpty() ? 0 : returnStock(abandoned);
+  }
+
+  private Submission submit(Long productId, int quantity) {
+    Decrement decrement = new Decrement(productId, quantity);
+    while (true) {
+      Batch batch = openBatches.computeIfAbsent(productId, Batch::new);
+      synchronized (batch) {
+        if (batch.closed) {
+          // Applied between lookup and lock; open the next batch
+          continue;
+        }
+        boolean leader = batch.decrements.isEmpty();
+        batch.decrements.add(decrement);
+        if (batch.decrements.size() >= maxBatchSize) {
+          close(batch);
+          batch.notifyAll();
+        }
+        return new Submission(batch, decrement, leader);
+      }
+    }
+  }
+
+  private void collectAndApply(Batch batch) {
+    synchronized (batch) {
+      long deadline = System.nanoTime() + windowNanos;
+      long remaining = windowNanos;
+      while (!batch.closed && remaining > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(batch, remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        remaining = deadline - System.nanoTime();
+      }
+      close(batch);
+    }
+
+    batchSizes.record(batch.decrements.size());
+    try {
+      transactionTemplate.executeWithoutResult(status -> allocate(batch));
+    } catch (RuntimeException e) {
+      batch.decrements.forEach(decrement -> decrement.result.completeExceptionally(e));
+      return;
+    }
+
+    // Complete only after the commit, so no checkout counts on stock that was rolled back
+    for (Decrement decrement : batch.decrements) {
+      if (decrement.available < 0) {
+        decrement.result.complete(null);
+      } else {
+        decrement.result.completeExceptionally(new InsufficientStockException(
+            batch.productId, decrement.quantity, decrement.available));
+      }
+    }
+  }
+
+  private void close(Batch batch) {
+    batch.closed = true;
+    openBatches.remove(batch.productId, batch);
+  }
+
+  private void allocate(Batch batch) {
+    int total = batch.decrements.stream().mapToInt(decrement -> decrement.quantity).sum();
+    List<Decrement> allocated = batch.decrements;
+    if (!productRepository.decrementStock(Map.of(batch.productId, total)).isEmpty()) {
+      int remaining = productRepository.lockStock(List.of(batch.productId))
+          .getOrDefault(batch.productId, 0);
+      allocated = new ArrayList<>();
+      for (Decrement decrement : batch.decrements) {
+        if (decrement.quantity <= remaining) {
+          remaining -= decrement.quantity;
+          allocated.add(decrement);
+        } else {
+          decrement.available = remaining;
+        }
+      }
+      if (!allocated.isEmpty()) {
+        productRepository.decrementStock(Map.of(batch.productId,
+            allocated.stream().mapToInt(decrement -> decrement.quantity).sum()));
+      }
+    }
+
+    if (!allocated.isEmpty()) {
+      LocalDateTime now = LocalDateTime.now();
+      stockClaimRepository.recordAll(allocated.stream()
+          .map(decrement -> new StockClaim(decrement.claimId, batch.productId,
+              decrement.quantity, now))
+          .toList());
+    }
+  }
+
+  private void await(Submission submission) {
+    Decrement decrement = submission.decrement();
+    try {
+      decrement.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtimeException
+          ? runtimeException
+          : new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      // Stock the batch takes later is claimed for nobody and returned as abandoned
+      throw new CannotAcquireLockException("Timed out waiting for the combined stock update of "
+          + "product " + decrement.productId);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CannotAcquireLockException("Interrupted waiting for the combined stock update of "
+          + "product " + decrement.productId);
+    }
+  }
+
+  private void keep(List<Decrement> taken) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            release(taken);
+          }
+        }
+      });
+    }
+
+    List<String> claimIds = taken.stream().map(decrement -> decrement.claimId).toList();
+    if (stockClaimRepository.removeAll(claimIds).size() < claimIds.size()) {
+      throw new IllegalStateException("Stock claims were returned as abandoned before the "
+          + "checkout took them");
+    }
+  }
+
+  private void release(List<Decrement> decrements) {
+    if (decrements.isEmpty()) {
+      return;
+    }
+    transactionTemplate.executeWithoutResult(status -> returnStock(decrements.stream()
+        .map(decrement -> new StockClaim(decrement.claimId, decrement.productId,
+            decrement.quantity, null))
+        .toList()));
+  }
+
+  private int returnStock(List<StockClaim> claims) {
+    Set<String> removed = new HashSet<>(stockClaimRepository.removeAll(claims.stream()
+        .map(StockClaim::getId)
+        .toList()));
+    Map<Long, Integer> quantities = new HashMap<>();
+    for (StockClaim claim : claims) {
+      if (removed.contains(claim.getId())) {
+        quantities.merge(claim.getProductId(), claim.getQuantity(), Integer::sum);
+      }
+    }
+    if (!quantities.isEmpty()) {
+      productRepository.incrementStock(quantities);
+    }
+    return removed.size();
+  }
+
+  private record Submission(Batch batch, Decrement decrement, boolean leader) {
+  }
+
+  private static final class Batch {
+
+    private final Long productId;
+    private final List<Decrement> decrements = new ArrayList<>();
+    private boolean closed;
+
+    private Batch(Long productId) {
+      this.productId = productId;
+    }
+  }
+
+  private static final class Decrement {
+
+    private final String claimId = UUID.randomUUID().toString();
+    private final Long productId;
+    private final int quantity;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    // Stock left for this decrement if it was refused, -1 if it was taken
+    private int available = -1;
+
+    private Decrement(Long productId, int quantity) {
+      this.productId = productId;
+      this.quantity = quantity;
+    }
+  }
+}
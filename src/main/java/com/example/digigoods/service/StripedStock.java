@@ -0,0 +1,90 @@
+package com.example.digigoods.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stock counter of one product, split over several stripes to spread contention.
+ *
+ * <p>A take first tries a single stripe with a compare-and-set, so concurrent buyers mostly
+ * touch different cache lines. Only when no stripe holds enough on its own are the stripes
+ * drained and rebalanced under a lock. The total never drops below zero.
+ */
+final class StripedStock {
+
+  // One stripe per 64-byte cache line
+  private static final int PADDING = 16;
+
+  private final AtomicIntegerArray cells;
+  private final int stripes;
+
+  StripedStock(int stripes, int initialStock) {
+    this.stripes = stripes;
+    this.cells = new AtomicIntegerArray(stripes * PADDING);
+    distribute(initialStock);
+  }
+
+  /**
+   * Take a quantity if enough stock is available.
+   *
+   * @param quantity the quantity to take
+   * @return true if the quantity was taken, false if stock is insufficient
+   */
+  boolean tryTake(int quantity) {
+    int home = home();
+    for (int i = 0; i < stripes; i++) {
+      int index = ((home + i) % stripes) * PADDING;
+      int current = cells.get(index);
+      while (current >= quantity) {
+        if (cells.compareAndSet(index, current, current - quantity)) {
+          return true;
+        }
+        current = cells.get(index);
+      }
+    }
+    return takeRebalancing(quantity);
+  }
+
+  /**
+   * Return a previously taken quantity.
+   *
+   * @param quantity the quantity to return
+   */
+  void release(int quantity) {
+    cells.addAndGet(home() * PADDING, quantity);
+  }
+
+  /**
+   * Get the available stock.
+   *
+   * @return the sum of all stripes
+   */
+  int available() {
+    int total = 0;
+    for (int i = 0; i < stripes; i++) {
+      total += cells.get(i * PADDING);
+    }
+    return total;
+  }
+
+  private synchronized boolean takeRebalancing(int quantity) {
+    int total = 0;
+    for (int i = 0; i < stripes; i++) {
+      total += cells.getAndSet(i * PADDING, 0);
+    }
+    boolean taken = total >= quantity;
+    distribute(taken ? total - quantity : total);
+    return taken;
+  }
+
+  private void distribute(int stock) {
+    int share = stock / stripes;
+    int remainder = stock % stripes;
+    for (int i = 0; i < stripes; i++) {
+      cells.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+    }
+  }
+
+  private int home() {
+    return (int) (Thread.currentThread().threadId() % stripes);
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.digigoods.service;
+
+import com.example.digigoods.model.UserTokenEpoch;
+import com.example.digigoods.repository.UserTokenEpochRepository;
+import com.example.digigoods.security.VerifiedToken;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for revoking JWT tokens through per-user token epochs.
+ *
+ * <p>The epochs are held in memory and reloaded in bulk on a fixed schedule, so checking a token
+ * never touches the database. Epochs are kept in milliseconds, so a login right after a logout
+ * gets a token that is not revoked.
+ */
+@Service
+public class TokenRevocationService {
+
+  private final UserTokenEpochRepository userTokenEpochRepository;
+
+  private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+
+  public TokenRevocationService(UserTokenEpochRepository userTokenEpochRepository) {
+    this.userTokenEpochRepository = userTokenEpochRepository;
+  }
+
+  /**
+   * Check whether a token was issued before its user's tokens were revoked.
+   *
+   * @param token the verified token
+   * @return true if revoked, false otherwise
+   */
+  public boolean isRevoked(VerifiedToken token) {
+    Long epochMillis = epochs.get(token.getUserId());
+    return epochMillis != null && token.getIssuedAt().toEpochMilli() < epochMillis;
+  }
+
+  /**
+   * Revoke every token issued to a user so far.
+   *
+   * @param userId the user ID
+   */
+  @Transactional
+  public void revokeTokens(Long userId) {
+    long epochMillis = Instant.now().toEpochMilli();
+    userTokenEpochRepository.save(new UserTokenEpoch(userId, epochMillis));
+    epochs.merge(userId, epochMillis, Math::max);
+  }
+
+  /**
+   * Reload all token epochs from the database.
+   *
+   * <p>Loaded epochs are merged with the ones in memory, keeping the later of the two, so a
+   * revocation racing with the reload is not lost.
+   */
+  @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:30000}")
+  @Transactional(readOnly = true)
+  public void refresh() {
+    userTokenEpochRepository.findAll().forEach(epoch ->
+        epochs.merge(epoch.getUserId(), epoch.getEpochMillis(), Math::max));
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.digigoods.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolGuardTest {
+
+  @Test
+  @DisplayName("Given parallel lookups and workers, when checking pool size, "
+      + "then count the checkouts it serves at once")
+  void givenParallelLookupsAndWorkers_whenCheckingPoolSize_thenCountCheckouts() {
+    // Arrange
+    ConnectionPoolGuard guard = new ConnectionPoolGuard(new HikariDataSource(), true, true,
+        false, true, 2);
+
+    // Act
+    // Two queue workers and the scheduled jobs leave 17 connections, three per checkout
+    int concurrentCheckouts = guard.check(20);
+
+    // Assert
+    assertEquals(5, concurrentCheckouts);
+  }
+
+  @Test
+  @DisplayName("Given stock combining, when checking pool size, "
+      + "then count the batch connection of each checkout")
+  void givenStockCombining_whenCheckingPoolSize_thenCountBatchConnection() {
+    // Arrange
+    ConnectionPoolGuard guard = new ConnectionPoolGuard(new HikariDataSource(), false, false,
+        true, true, 2);
+
+    // Act
+    // Each checkout may hold its own and its combined batch's connection
+    int concurrentCheckouts = guard.check(20);
+
+    // Assert
+    assertEquals(8, concurrentCheckouts);
+  }
+
+  @Test
+  @DisplayName("Given pool smaller than workers and one checkout, when checking pool size, "
+      + "then throw exception")
+  void givenPoolTooSmall_whenCheckingPoolSize_thenThrowException() {
+    // Arrange
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setMaximumPoolSize(2);
+    ConnectionPoolGuard guard = new ConnectionPoolGuard(dataSource, false, true, false, false, 2);
+
+    // Act & Assert
+    assertThrows(IllegalStateException.class, guard::afterPropertiesSet);
+  }
+}
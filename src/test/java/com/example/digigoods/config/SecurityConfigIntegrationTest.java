@@ -0,0 +1,94 @@
+package com.example.digigoods.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.security.JwtAuthenticationFilter;
+import com.example.digigoods.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Integration tests for the security filter chains.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecurityConfigIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  @Autowired
+  private FilterChainProxy springSecurityFilterChain;
+
+  @Autowired
+  private JwtService jwtService;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(SecurityMockMvcConfigurers.springSecurity())
+        .build();
+  }
+
+  @Test
+  @DisplayName("Given catalog read, when resolving filter chain, then skip JWT filter")
+  void givenCatalogRead_whenResolvingFilterChain_thenSkipJwtFilter() {
+    // Arrange
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+
+    // Act
+    SecurityFilterChain chain = findChain(request);
+
+    // Assert
+    assertFalse(chain.getFilters().stream().anyMatch(JwtAuthenticationFilter.class::isInstance));
+  }
+
+  @Test
+  @DisplayName("Given order request, when resolving filter chain, then include JWT filter")
+  void givenOrderRequest_whenResolvingFilterChain_thenIncludeJwtFilter() {
+    // Arrange
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+
+    // Act
+    SecurityFilterChain chain = findChain(request);
+
+    // Assert
+    assertTrue(chain.getFilters().stream().anyMatch(JwtAuthenticationFilter.class::isInstance));
+  }
+
+  @Test
+  @DisplayName("Given token of unknown user, when getting products, then return ok")
+  void givenTokenOfUnknownUser_whenGettingProducts_thenReturnOk() throws Exception {
+    // Arrange
+    String token = jwtService.generateToken(999_999L, "unknownuser");
+
+    // Act & Assert
+    mockMvc.perform(get("/products").header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/discounts").header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+  }
+
+  private SecurityFilterChain findChain(MockHttpServletRequest request) {
+    return springSecurityFilterChain.getFilterChains().stream()
+        .filter(candidate -> candidate.matches(request))
+        .findFirst()
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.digigoods.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadPinningMonitorTest {
+
+  @Test
+  @DisplayName("Given pinned virtual thread, when recording it, then time the pinning")
+  void givenPinnedVirtualThread_whenRecordingIt_thenTimeThePinning() {
+    // Arrange
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(true, 20,
+        meterRegistry);
+
+    // Act
+    monitor.record(Duration.ofMillis(35), "tomcat-handler-1",
+        List.of("com.example.Lock.hold:12", "com.example.Service.call:40"));
+
+    // Assert
+    Timer pinned = meterRegistry.timer("threads.virtual.pinned");
+    assertEquals(1, pinned.count());
+    assertEquals(35.0, pinned.totalTime(TimeUnit.MILLISECONDS));
+  }
+}
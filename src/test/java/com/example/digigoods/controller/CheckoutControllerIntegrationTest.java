@@ -0,0 +1,851 @@
+package com.example.digigoods.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.dto.BatchCheckoutRequest;
+import com.example.digigoods.dto.CheckoutItem;
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.ReservationResponse;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountRedemption;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.OrderItem;
+import com.example.digigoods.model.OrderLineSnapshot;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.StockReservation;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRedemptionRepository;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.OrderLineSnapshotRepository;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockReservationRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.ReservationService;
+import com.example.digigoods.service.TokenRevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Integration tests for CheckoutController.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class CheckoutControllerIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private DiscountRedemptionRepository discountRedemptionRepository;
+
+  @Autowired
+  private StockReservationRepository stockReservationRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderLineSnapshotRepository orderLineSnapshotRepository;
+
+  @Autowired
+  private ReservationService reservationService;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TokenRevocationService tokenRevocationService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private User user;
+  private Product product;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    // Set up MockMvc with the security filter chain
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(SecurityMockMvcConfigurers.springSecurity())
+        .build();
+
+    // Create test user and product
+    user = userRepository.save(new User(null, "checkoutuser", "password"));
+    product = productRepository.save(
+        new Product(null, "Checkout Product", new BigDecimal("40.00"), 10));
+    token = jwtService.generateToken(user.getId(), user.getUsername());
+  }
+
+  @Test
+  @DisplayName("Given valid token and cart, when creating order, then return final price")
+  void givenValidTokenAndCart_whenCreatingOrder_thenReturnFinalPrice() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("Order created successfully!"))
+        .andExpect(jsonPath("$.finalPrice").value(40.00));
+  }
+
+  @Test
+  @DisplayName("Given valid cart, when creating order, then time every checkout stage")
+  void givenValidCart_whenCreatingOrder_thenTimeEveryCheckoutStage() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+
+    // Act
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk());
+
+    // Assert
+    for (String stage : List.of("authorization", "product-validation", "subtotal",
+        "discount-validation", "discount-application", "max-discount", "commit")) {
+      assertNotNull(meterRegistry.find("checkout.stage")
+          .tag("stage", stage)
+          .tag("outcome", "success")
+          .timer(), stage);
+    }
+  }
+
+  @Test
+  @DisplayName("Given repeated product, when creating order, then charge and reserve each unit")
+  void givenRepeatedProduct_whenCreatingOrder_thenChargeAndReserveEachUnit() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId(), product.getId()), List.of());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(80.00));
+    assertEquals(8, productRepository.findStockById(product.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given line item with quantity, when creating order, "
+      + "then charge each unit and store one item")
+  void givenLineItemWithQuantity_whenCreatingOrder_thenChargeEachUnitAndStoreOneItem()
+      throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(user.getId(), null, List.of(),
+        List.of(new CheckoutItem(product.getId(), 3)));
+
+    // Act
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(120.00));
+
+    // Assert
+    assertEquals(7, productRepository.findStockById(product.getId()).orElseThrow());
+    assertEquals(List.of(new OrderItem(product.getId(), 3, new BigDecimal("40.00"))),
+        ordersOf(user).get(0).getItems());
+  }
+
+  @Test
+  @DisplayName("Given line items in batch, when creating orders, then store their items")
+  void givenLineItemsInBatch_whenCreatingOrders_thenStoreTheirItems() throws Exception {
+    // Arrange
+    BatchCheckoutRequest request = new BatchCheckoutRequest(List.of(
+        new CheckoutRequest(user.getId(), List.of(product.getId()), List.of(),
+            List.of(new CheckoutItem(product.getId(), 2)))));
+
+    // Act
+    mockMvc.perform(post("/orders/batch")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].finalPrice").value(120.00));
+
+    // Assert
+    assertEquals(7, productRepository.findStockById(product.getId()).orElseThrow());
+    assertEquals(List.of(new OrderItem(product.getId(), 3, new BigDecimal("40.00"))),
+        ordersOf(user).get(0).getItems());
+  }
+
+  @Test
+  @DisplayName("Given general discount, when creating order, "
+      + "then snapshot each line with its share of the discount")
+  void givenGeneralDiscount_whenCreatingOrder_thenSnapshotEachLine() throws Exception {
+    // Arrange
+    Product other = productRepository.save(
+        new Product(null, "Other Product", new BigDecimal("25.00"), 10));
+    discountRepository.save(new Discount(null, "LINES10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 5,
+        new HashSet<>()));
+    CheckoutRequest request = new CheckoutRequest(user.getId(), List.of(product.getId()),
+        List.of("LINES10"), List.of(new CheckoutItem(other.getId(), 2)));
+
+    // Act
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(81.00));
+
+    // Assert
+    Map<Long, OrderLineSnapshot> snapshots = orderLineSnapshotRepository
+        .findAllByUserId(user.getId()).stream()
+        .collect(Collectors.toMap(OrderLineSnapshot::getProductId, Function.identity()));
+    assertEquals(2, snapshots.size());
+    OrderLineSnapshot otherLine = snapshots.get(other.getId());
+    assertEquals("Other Product", otherLine.getProductName());
+    assertEquals(2, otherLine.getQuantity());
+    assertEquals(0, new BigDecimal("25.00").compareTo(otherLine.getUnitPrice()));
+    assertEquals(0, new BigDecimal("5.00").compareTo(otherLine.getDiscountAmount()));
+    assertEquals(0, new BigDecimal("45.00").compareTo(otherLine.getLinePrice()));
+    assertEquals(0, new BigDecimal("36.00").compareTo(orderLineSnapshotRepository
+        .sumRevenueByProductId(product.getId(), LocalDate.now().atStartOfDay(),
+            LocalDate.now().plusDays(1).atStartOfDay())));
+  }
+
+  @Test
+  @DisplayName("Given neither product IDs nor items, when creating order, "
+      + "then return bad request")
+  void givenNeitherProductIdsNorItems_whenCreatingOrder_thenReturnBadRequest() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(user.getId(), List.of(), List.of(), null);
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given cart above stock, when creating order, then reject and keep stock")
+  void givenCartAboveStock_whenCreatingOrder_thenRejectAndKeepStock() throws Exception {
+    // Arrange
+    Product scarce = productRepository.save(
+        new Product(null, "Scarce Product", new BigDecimal("5.00"), 1));
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId(), scarce.getId(), scarce.getId()), List.of());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Insufficient stock for product "
+            + scarce.getId() + ". Requested: 2, Available: 1"));
+    assertEquals(1, productRepository.findStockById(scarce.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given idempotency key, when retrying order, then replay result and keep stock")
+  void givenIdempotencyKey_whenRetryingOrder_thenReplayResultAndKeepStock() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    CheckoutRequest otherRequest = new CheckoutRequest(
+        user.getId(), List.of(product.getId(), product.getId()), List.of());
+
+    // Act & Assert
+    for (int attempt = 0; attempt < 2; attempt++) {
+      mockMvc.perform(post("/orders")
+              .header("Authorization", "Bearer " + token)
+              .header("Idempotency-Key", "retry-1")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(request)))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.message").value("Order created successfully!"))
+          .andExpect(jsonPath("$.finalPrice").value(40.00));
+    }
+    assertEquals(9, productRepository.findStockById(product.getId()).orElseThrow());
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .header("Idempotency-Key", "retry-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(otherRequest)))
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  @DisplayName("Given async preference and disabled queue, when creating order, "
+      + "then create it synchronously")
+  void givenAsyncPreferenceAndDisabledQueue_whenCreatingOrder_thenCreateItSynchronously()
+      throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .header("Prefer", "respond-async")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("Order created successfully!"));
+    assertEquals(9, productRepository.findStockById(product.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given same cart quoted twice, when quoting, then reuse the quote and keep stock")
+  void givenSameCartQuotedTwice_whenQuoting_thenReuseQuoteAndKeepStock() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId(), product.getId()), List.of());
+
+    // Act
+    String first = quote(request);
+    String second = quote(request);
+
+    // Assert
+    assertEquals(objectMapper.readTree(first).get("quoteToken"),
+        objectMapper.readTree(second).get("quoteToken"));
+    assertEquals(80.00, objectMapper.readTree(first).get("finalPrice").asDouble());
+    assertEquals(10, productRepository.findStockById(product.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given remembered quote, when quoting the same cart again, "
+      + "then serve it without reading the catalog")
+  void givenRememberedQuote_whenQuotingSameCartAgain_thenServeItWithoutReadingCatalog()
+      throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    final String first = quote(request);
+    // Bypasses the application, so the catalog version stays the same
+    jdbcTemplate.update("UPDATE products SET price = 30.00 WHERE id = ?", product.getId());
+
+    // Act
+    String second = quote(request);
+
+    // Assert
+    assertEquals(40.00, objectMapper.readTree(second).get("finalPrice").asDouble());
+    assertEquals(objectMapper.readTree(first).get("quoteToken"),
+        objectMapper.readTree(second).get("quoteToken"));
+  }
+
+  @Test
+  @DisplayName("Given changed price, when quoting the same cart again, then quote the new price")
+  void givenChangedPrice_whenQuotingSameCartAgain_thenQuoteNewPrice() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    final String first = quote(request);
+    product.setPrice(new BigDecimal("30.00"));
+    productRepository.saveAndFlush(product);
+
+    // Act
+    String second = quote(request);
+
+    // Assert
+    assertEquals(30.00, objectMapper.readTree(second).get("finalPrice").asDouble());
+    assertNotEquals(objectMapper.readTree(first).get("quoteToken"),
+        objectMapper.readTree(second).get("quoteToken"));
+  }
+
+  @Test
+  @DisplayName("Given discount used up, when quoting the same cart again, then reject it")
+  void givenDiscountUsedUp_whenQuotingSameCartAgain_thenRejectIt() throws Exception {
+    // Arrange
+    Discount discount = discountRepository.save(new Discount(null, "QUOTE10",
+        new BigDecimal("10.00"), DiscountType.GENERAL, LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1), 1, new HashSet<>()));
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("QUOTE10"));
+    quote(request);
+    discount.setRemainingUses(0);
+    discountRepository.saveAndFlush(discount);
+
+    // Act & Assert
+    mockMvc.perform(post("/orders/quote")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given quote token and changed price, when creating order, then charge new price")
+  void givenQuoteTokenAndChangedPrice_whenCreatingOrder_thenChargeNewPrice() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    String quoteToken = objectMapper.readTree(quote(request)).get("quoteToken").asText();
+    product.setPrice(new BigDecimal("30.00"));
+    productRepository.saveAndFlush(product);
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .header("Quote-Token", quoteToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(30.00));
+  }
+
+  @Test
+  @DisplayName("Given quote token of unchanged cart, when creating order, then charge quoted price")
+  void givenQuoteTokenOfUnchangedCart_whenCreatingOrder_thenChargeQuotedPrice() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    String quoteToken = objectMapper.readTree(quote(request)).get("quoteToken").asText();
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .header("Quote-Token", quoteToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(40.00));
+    assertEquals(9, productRepository.findStockById(product.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given discount with one use, when ordering twice, then redeem it once")
+  void givenDiscountWithOneUse_whenOrderingTwice_thenRedeemItOnce() throws Exception {
+    // Arrange
+    Discount discount = new Discount(null, "ONCE10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 1,
+        new HashSet<>());
+    discount = discountRepository.save(discount);
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("ONCE10"));
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(36.00));
+    List<DiscountRedemption> redemptions = discountRedemptionRepository.findAll().stream()
+        .filter(redemption -> redemption.getUserId().equals(user.getId()))
+        .toList();
+    assertEquals(1, redemptions.size());
+    assertEquals(discount.getId(), redemptions.get(0).getDiscountId());
+
+    // The discount loaded into this persistence context still shows one use, as it would for a
+    // checkout racing the first one, so only the guarded decrement can reject it
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(
+            "Invalid discount code 'ONCE10': discount has no remaining uses"));
+  }
+
+  @Test
+  @DisplayName("Given batch of carts, when creating orders, "
+      + "then create the carts that fit and report the rest")
+  void givenBatchOfCarts_whenCreatingOrders_thenCreateFittingCartsAndReportRest()
+      throws Exception {
+    // Arrange
+    Product scarce = productRepository.save(
+        new Product(null, "Scarce Product", new BigDecimal("5.00"), 1));
+    BatchCheckoutRequest request = new BatchCheckoutRequest(List.of(
+        new CheckoutRequest(user.getId(), List.of(product.getId(), scarce.getId()), List.of()),
+        new CheckoutRequest(user.getId(), List.of(scarce.getId()), List.of()),
+        new CheckoutRequest(user.getId() + 1, List.of(product.getId()), List.of()),
+        new CheckoutRequest(user.getId(), List.of(999999L), List.of())));
+
+    // Act & Assert
+    mockMvc.perform(post("/orders/batch")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.createdCount").value(1))
+        .andExpect(jsonPath("$.failedCount").value(3))
+        .andExpect(jsonPath("$.results[0].created").value(true))
+        .andExpect(jsonPath("$.results[0].finalPrice").value(45.00))
+        .andExpect(jsonPath("$.results[1].created").value(false))
+        .andExpect(jsonPath("$.results[1].message").value("Insufficient stock for product "
+            + scarce.getId() + ". Requested: 1, Available: 0"))
+        .andExpect(jsonPath("$.results[2].message")
+            .value("User cannot place order for another user"))
+        .andExpect(jsonPath("$.results[3].message")
+            .value("Products not found with IDs: [999999]"));
+    assertEquals(9, productRepository.findStockById(product.getId()).orElseThrow());
+    assertEquals(0, productRepository.findStockById(scarce.getId()).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Given discount with one use in two carts, when creating orders, "
+      + "then redeem it for the first cart only")
+  void givenDiscountWithOneUseInTwoCarts_whenCreatingOrders_thenRedeemItForFirstCartOnly()
+      throws Exception {
+    // Arrange
+    discountRepository.save(new Discount(null, "BATCH10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 1,
+        new HashSet<>()));
+    CheckoutRequest cart = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("BATCH10"));
+    BatchCheckoutRequest request = new BatchCheckoutRequest(List.of(cart, cart));
+
+    // Act & Assert
+    mockMvc.perform(post("/orders/batch")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].finalPrice").value(36.00))
+        .andExpect(jsonPath("$.results[1].created").value(false))
+        .andExpect(jsonPath("$.results[1].message").value(
+            "Invalid discount code 'BATCH10': discount has no remaining uses"));
+    assertEquals(9, productRepository.findStockById(product.getId()).orElseThrow());
+    assertEquals(1, discountRedemptionRepository.findAll().stream()
+        .filter(redemption -> redemption.getUserId().equals(user.getId()))
+        .count());
+  }
+
+  @Test
+  @DisplayName("Given empty batch, when creating orders, then return bad request")
+  void givenEmptyBatch_whenCreatingOrders_thenReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/orders/batch")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new BatchCheckoutRequest(List.of()))))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given cart, when reserving and confirming, then hold stock and create order")
+  void givenCart_whenReservingAndConfirming_thenHoldStockAndCreateOrder() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId(), product.getId()), List.of());
+
+    // Act
+    String response = mockMvc.perform(post("/orders/reservations")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(80.00))
+        .andExpect(jsonPath("$.expiresAt").exists())
+        .andReturn().getResponse().getContentAsString();
+    long reservationId = objectMapper.readTree(response).get("reservationId").asLong();
+    int heldStock = productRepository.findStockById(product.getId()).orElseThrow();
+
+    // Assert
+    assertEquals(8, heldStock);
+    mockMvc.perform(post("/orders/reservations/" + reservationId + "/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("Order created successfully!"))
+        .andExpect(jsonPath("$.finalPrice").value(80.00));
+    assertEquals(8, productRepository.findStockById(product.getId()).orElseThrow());
+    mockMvc.perform(post("/orders/reservations/" + reservationId + "/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  @DisplayName("Given price change after reserving, when confirming, "
+      + "then sell at the reserved price")
+  void givenPriceChangeAfterReserving_whenConfirming_thenSellAtReservedPrice() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(user.getId(), null, List.of(),
+        List.of(new CheckoutItem(product.getId(), 2)));
+    ReservationResponse reservation = objectMapper.readValue(
+        mockMvc.perform(post("/orders/reservations")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(),
+        ReservationResponse.class);
+    product.setPrice(new BigDecimal("55.00"));
+    productRepository.saveAndFlush(product);
+
+    // Act
+    mockMvc.perform(post("/orders/reservations/" + reservation.getReservationId() + "/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(80.00));
+
+    // Assert
+    assertEquals(List.of(new OrderItem(product.getId(), 2, new BigDecimal("40.00"))),
+        ordersOf(user).get(0).getItems());
+  }
+
+  @Test
+  @DisplayName("Given price drop after reserving, when confirming, "
+      + "then snapshot the reserved prices")
+  void givenPriceDropAfterReserving_whenConfirming_thenSnapshotReservedPrices()
+      throws Exception {
+    // Arrange
+    discountRepository.save(new Discount(null, "RESERVE10", new BigDecimal("10.00"),
+        DiscountType.GENERAL, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), 5,
+        new HashSet<>()));
+    CheckoutRequest request = new CheckoutRequest(user.getId(), null, List.of("RESERVE10"),
+        List.of(new CheckoutItem(product.getId(), 2)));
+    ReservationResponse reservation = objectMapper.readValue(
+        mockMvc.perform(post("/orders/reservations")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(),
+        ReservationResponse.class);
+    product.setPrice(new BigDecimal("20.00"));
+    productRepository.saveAndFlush(product);
+
+    // Act
+    mockMvc.perform(post("/orders/reservations/" + reservation.getReservationId() + "/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(72.00));
+
+    // Assert
+    List<OrderLineSnapshot> snapshots =
+        orderLineSnapshotRepository.findAllByUserId(user.getId());
+    assertEquals(1, snapshots.size());
+    assertEquals(0, new BigDecimal("40.00").compareTo(snapshots.get(0).getUnitPrice()));
+    assertEquals(0, new BigDecimal("8.00").compareTo(snapshots.get(0).getDiscountAmount()));
+    assertEquals(0, new BigDecimal("72.00").compareTo(snapshots.get(0).getLinePrice()));
+  }
+
+  @Test
+  @DisplayName("Given discount with one use, when reserving, "
+      + "then hold the use until the reservation is confirmed")
+  void givenDiscountWithOneUse_whenReserving_thenHoldUseUntilConfirmed() throws Exception {
+    // Arrange
+    discountRepository.save(new Discount(null, "HOLD1",
+        new BigDecimal("10.00"), DiscountType.GENERAL, LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1), 1, new HashSet<>()));
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("HOLD1"));
+    ReservationResponse reservation = objectMapper.readValue(
+        mockMvc.perform(post("/orders/reservations")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(),
+        ReservationResponse.class);
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(post("/orders/reservations/" + reservation.getReservationId() + "/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given expired reservation with discount, when sweeping, "
+      + "then give the discount use back")
+  void givenExpiredReservationWithDiscount_whenSweeping_thenGiveDiscountUseBack()
+      throws Exception {
+    // Arrange
+    discountRepository.save(new Discount(null, "SWEEP1",
+        new BigDecimal("10.00"), DiscountType.GENERAL, LocalDate.now().minusDays(1),
+        LocalDate.now().plusDays(1), 1, new HashSet<>()));
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("SWEEP1"));
+    ReservationResponse reservation = objectMapper.readValue(
+        mockMvc.perform(post("/orders/reservations")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(),
+        ReservationResponse.class);
+    StockReservation held = stockReservationRepository.findById(reservation.getReservationId())
+        .orElseThrow();
+    held.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+    stockReservationRepository.saveAndFlush(held);
+
+    // Act
+    reservationService.releaseExpired();
+
+    // Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Given expired reservation, when sweeping and confirming, "
+      + "then return stock and reject confirmation")
+  void givenExpiredReservation_whenSweepingAndConfirming_thenReturnStockAndReject()
+      throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    ReservationResponse reservation = objectMapper.readValue(
+        mockMvc.perform(post("/orders/reservations")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(),
+        ReservationResponse.class);
+    StockReservation held = stockReservationRepository.findById(reservation.getReservationId())
+        .orElseThrow();
+    held.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+    stockReservationRepository.saveAndFlush(held);
+
+    // Act
+    int released = reservationService.releaseExpired();
+
+    // Assert
+    assertEquals(1, released);
+    assertEquals(10, productRepository.findStockById(product.getId()).orElseThrow());
+    mockMvc.perform(post("/orders/reservations/" + reservation.getReservationId() + "/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  @DisplayName("Given unknown reservation, when confirming, then return not found")
+  void givenUnknownReservation_whenConfirming_thenReturnNotFound() throws Exception {
+    // Act & Assert
+    mockMvc.perform(post("/orders/reservations/999999/confirm")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Given token of another user, when creating order, then return forbidden")
+  void givenTokenOfAnotherUser_whenCreatingOrder_thenReturnForbidden() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId() + 1, List.of(product.getId()), List.of());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @DisplayName("Given missing token, when creating order, then return unauthorized")
+  void givenMissingToken_whenCreatingOrder_thenReturnUnauthorized() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  @DisplayName("Given revoked token, when creating order, then return unauthorized")
+  void givenRevokedToken_whenCreatingOrder_thenReturnUnauthorized() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    tokenRevocationService.revokeTokens(user.getId());
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isUnauthorized());
+  }
+
+  private String quote(CheckoutRequest request) throws Exception {
+    return mockMvc.perform(post("/orders/quote")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+  }
+
+  private List<Order> ordersOf(User owner) {
+    return orderRepository.findAll().stream()
+        .filter(order -> order.getUser().getId().equals(owner.getId()))
+        .toList();
+  }
+}
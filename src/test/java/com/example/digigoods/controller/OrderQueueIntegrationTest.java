@@ -0,0 +1,175 @@
+package com.example.digigoods.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.example.digigoods.service.OrderQueueService;
+import com.example.digigoods.service.OrderQueueWorker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Integration tests for queued checkouts.
+ */
+@SpringBootTest(properties = {"checkout.async.enabled=true", "checkout.async.workers=0"})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class OrderQueueIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private OrderQueueWorker orderQueueWorker;
+
+  @Autowired
+  private OrderQueueService orderQueueService;
+
+  private User user;
+  private Product product;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(SecurityMockMvcConfigurers.springSecurity())
+        .build();
+
+    user = userRepository.save(new User(null, "queueuser", "password"));
+    product = productRepository.save(
+        new Product(null, "Queued Product", new BigDecimal("40.00"), 1));
+    token = jwtService.generateToken(user.getId(), user.getUsername());
+  }
+
+  @Test
+  @DisplayName("Given async preference, when creating order, then queue it and commit on drain")
+  void givenAsyncPreference_whenCreatingOrder_thenQueueItAndCommitOnDrain() throws Exception {
+    // Arrange
+    final long ticketId = accept();
+    int stockWhileQueued = productRepository.findStockById(product.getId()).orElseThrow();
+
+    // Act
+    int processed = orderQueueWorker.drain();
+
+    // Assert
+    assertEquals(1, stockWhileQueued);
+    assertEquals(1, processed);
+    assertEquals(0, productRepository.findStockById(product.getId()).orElseThrow());
+    mockMvc.perform(get("/orders/tickets/" + ticketId)
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("COMPLETED"))
+        .andExpect(jsonPath("$.finalPrice").value(40.00))
+        .andExpect(jsonPath("$.orderId").exists());
+  }
+
+  @Test
+  @DisplayName("Given two queued orders for the last unit, when draining, "
+      + "then complete the first and fail the second")
+  void givenTwoQueuedOrdersForLastUnit_whenDraining_thenCompleteFirstAndFailSecond()
+      throws Exception {
+    // Arrange
+    long first = accept();
+    long second = accept();
+
+    // Act
+    orderQueueWorker.drain();
+
+    // Assert
+    mockMvc.perform(get("/orders/tickets/" + first)
+            .header("Authorization", "Bearer " + token))
+        .andExpect(jsonPath("$.status").value("COMPLETED"));
+    mockMvc.perform(get("/orders/tickets/" + second)
+            .header("Authorization", "Bearer " + token))
+        .andExpect(jsonPath("$.status").value("FAILED"))
+        .andExpect(jsonPath("$.message").value("Insufficient stock for product "
+            + product.getId() + ". Requested: 1, Available: 0"));
+  }
+
+  @Test
+  @DisplayName("Given order that could not be processed, when retrying, "
+      + "then keep it pending until due and fail it after the last attempt")
+  void givenOrderThatCouldNotBeProcessed_whenRetrying_thenKeepPendingAndFailAfterLastAttempt()
+      throws Exception {
+    // Arrange
+    long ticketId = accept();
+
+    // Act
+    orderQueueService.retry(ticketId, "Order could not be processed");
+    int processedBeforeDue = orderQueueWorker.drain();
+    for (int attempt = 2; attempt <= 5; attempt++) {
+      orderQueueService.retry(ticketId, "Order could not be processed");
+    }
+
+    // Assert
+    assertEquals(0, processedBeforeDue);
+    assertEquals(1, productRepository.findStockById(product.getId()).orElseThrow());
+    mockMvc.perform(get("/orders/tickets/" + ticketId)
+            .header("Authorization", "Bearer " + token))
+        .andExpect(jsonPath("$.status").value("FAILED"))
+        .andExpect(jsonPath("$.message").value("Order could not be processed"));
+  }
+
+  @Test
+  @DisplayName("Given unknown ticket, when getting ticket, then return not found")
+  void givenUnknownTicket_whenGettingTicket_thenReturnNotFound() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/orders/tickets/999999")
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isNotFound());
+  }
+
+  private long accept() throws Exception {
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of());
+    String response = mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .header("Prefer", "respond-async")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Preference-Applied", "respond-async"))
+        .andExpect(jsonPath("$.status").value("PENDING"))
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(response).get("ticketId").asLong();
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.digigoods.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.DiscountRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Integration tests for checkouts reading products and discounts concurrently.
+ *
+ * <p>Not transactional: the lookups run in transactions of their own and only see committed
+ * rows, so the test data is committed and deleted again after each test.
+ */
+@SpringBootTest(properties = "checkout.parallel-lookups.enabled=true")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ParallelLookupsIntegrationTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private DiscountRepository discountRepository;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User user;
+  private Product product;
+  private Discount discount;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+        .apply(SecurityMockMvcConfigurers.springSecurity())
+        .build();
+
+    user = userRepository.save(new User(null, "lookupuser", "password"));
+    product = productRepository.save(
+        new Product(null, "Lookup Product", new BigDecimal("40.00"), 10));
+    discount = discountRepository.save(new Discount(null, "LOOKUP10", new BigDecimal("10.00"),
+        DiscountType.PRODUCT_SPECIFIC, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1),
+        5, Set.of(product)));
+    token = jwtService.generateToken(user.getId(), user.getUsername());
+  }
+
+  @AfterEach
+  void tearDown() {
+    String ordersOfUser = "(SELECT id FROM orders WHERE user_id = ?)";
+    jdbcTemplate.update("DELETE FROM order_line_snapshots WHERE user_id = ?", user.getId());
+    jdbcTemplate.update("DELETE FROM discount_redemptions WHERE user_id = ?", user.getId());
+    for (String table : List.of("order_items", "order_products", "order_applied_discounts")) {
+      jdbcTemplate.update("DELETE FROM " + table + " WHERE order_id IN " + ordersOfUser,
+          user.getId());
+    }
+    jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+    discountRepository.deleteById(discount.getId());
+    productRepository.deleteById(product.getId());
+    userRepository.deleteById(user.getId());
+  }
+
+  @Test
+  @DisplayName("Given parallel lookups, when creating order, then apply loaded discounts")
+  void givenParallelLookups_whenCreatingOrder_thenApplyLoadedDiscounts() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("LOOKUP10"));
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.finalPrice").value(36.00));
+  }
+
+  @Test
+  @DisplayName("Given unknown discount code, when creating order, then report it")
+  void givenUnknownDiscountCode_whenCreatingOrder_thenReportIt() throws Exception {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(
+        user.getId(), List.of(product.getId()), List.of("UNKNOWN"));
+
+    // Act & Assert
+    mockMvc.perform(post("/orders")
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(
+            "Invalid discount code 'UNKNOWN': discount code not found"));
+  }
+}
@@ -47,6 +47,23 @@ class ExceptionClassesTest {
     }
   }
 
+  @Nested
+  @DisplayName("IdempotencyKeyException Tests")
+  class IdempotencyKeyExceptionTest {
+
+    @Test
+    @DisplayName("Given custom message, when creating exception, "
+        + "then message should be set correctly")
+    void givenCustomMessage_whenCreatingException_thenMessageShouldBeSetCorrectly() {
+      // Arrange & Act
+      IdempotencyKeyException exception = new IdempotencyKeyException("key reused");
+
+      // Assert
+      assertEquals("key reused", exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
   @Nested
   @DisplayName("InsufficientStockException Tests")
   class InsufficientStockExceptionTest {
@@ -123,6 +140,59 @@ class ExceptionClassesTest {
     }
   }
 
+  @Nested
+  @DisplayName("InvalidReservationException Tests")
+  class InvalidReservationExceptionTest {
+
+    @Test
+    @DisplayName("Given reservation ID and reason, when creating exception, "
+        + "then formatted message should be created")
+    void givenReservationIdAndReason_whenCreatingException_thenFormattedMessageShouldBeCreated() {
+      // Arrange & Act
+      InvalidReservationException exception =
+          new InvalidReservationException(7L, "reservation has expired");
+
+      // Assert
+      assertEquals("Reservation 7 cannot be confirmed: reservation has expired",
+          exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
+  @Nested
+  @DisplayName("LoginCapacityExceededException Tests")
+  class LoginCapacityExceededExceptionTest {
+
+    @Test
+    @DisplayName("Given custom message, when creating exception, "
+        + "then message should be set correctly")
+    void givenCustomMessage_whenCreatingException_thenMessageShouldBeSetCorrectly() {
+      // Arrange
+      String customMessage = "Custom login capacity message";
+
+      // Act
+      LoginCapacityExceededException exception =
+          new LoginCapacityExceededException(customMessage);
+
+      // Assert
+      assertEquals(customMessage, exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+
+    @Test
+    @DisplayName("Given no parameters, when creating exception, "
+        + "then default message should be used")
+    void givenNoParameters_whenCreatingException_thenDefaultMessageShouldBeUsed() {
+      // Arrange & Act
+      LoginCapacityExceededException exception = new LoginCapacityExceededException();
+
+      // Assert
+      assertEquals("Too many concurrent login attempts, please retry shortly",
+          exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
   @Nested
   @DisplayName("MissingJwtTokenException Tests")
   class MissingJwtTokenExceptionTest {
@@ -191,6 +261,58 @@ class ExceptionClassesTest {
     }
   }
 
+  @Nested
+  @DisplayName("OrderTicketNotFoundException Tests")
+  class OrderTicketNotFoundExceptionTest {
+
+    @Test
+    @DisplayName("Given ticket ID, when creating exception, "
+        + "then formatted message should be created")
+    void givenTicketId_whenCreatingException_thenFormattedMessageShouldBeCreated() {
+      // Arrange & Act
+      OrderTicketNotFoundException exception = new OrderTicketNotFoundException(7L);
+
+      // Assert
+      assertEquals("Order ticket not found with ID: 7", exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
+  @Nested
+  @DisplayName("ReservationNotFoundException Tests")
+  class ReservationNotFoundExceptionTest {
+
+    @Test
+    @DisplayName("Given reservation ID, when creating exception, "
+        + "then formatted message should be created")
+    void givenReservationId_whenCreatingException_thenFormattedMessageShouldBeCreated() {
+      // Arrange & Act
+      ReservationNotFoundException exception = new ReservationNotFoundException(7L);
+
+      // Assert
+      assertEquals("Reservation not found with ID: 7", exception.getMessage());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
+  @Nested
+  @DisplayName("TooManyLoginAttemptsException Tests")
+  class TooManyLoginAttemptsExceptionTest {
+
+    @Test
+    @DisplayName("Given retry delay, when creating exception, "
+        + "then message and retry delay should be set correctly")
+    void givenRetryDelay_whenCreatingException_thenMessageAndRetryDelayShouldBeSetCorrectly() {
+      // Arrange & Act
+      TooManyLoginAttemptsException exception = new TooManyLoginAttemptsException(30);
+
+      // Assert
+      assertEquals("Too many login attempts, please retry later", exception.getMessage());
+      assertEquals(30, exception.getRetryAfterSeconds());
+      assertTrue(exception instanceof RuntimeException);
+    }
+  }
+
   @Nested
   @DisplayName("UnauthorizedAccessException Tests")
   class UnauthorizedAccessExceptionTest {
@@ -0,0 +1,33 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BcryptCostCalibratorTest {
+
+  @Test
+  @DisplayName("Given budget no hash can meet, when calibrating, then return minimum cost")
+  void givenBudgetNoHashCanMeet_whenCalibrating_thenReturnMinimumCost() {
+    // Act
+    int cost = BcryptCostCalibrator.calibrate(Duration.ofNanos(1), 6);
+
+    // Assert
+    assertEquals(6, cost);
+  }
+
+  @Test
+  @DisplayName("Given larger budget, when calibrating, then never choose a lower cost")
+  void givenLargerBudget_whenCalibrating_thenNeverChooseLowerCost() {
+    // Act
+    int smallBudgetCost = BcryptCostCalibrator.calibrate(Duration.ofMillis(1), 4);
+    int largeBudgetCost = BcryptCostCalibrator.calibrate(Duration.ofMillis(20), 4);
+
+    // Assert
+    assertTrue(largeBudgetCost >= smallBudgetCost);
+    assertTrue(largeBudgetCost >= 4);
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CalibratedBcryptPasswordEncoderTest {
+
+  private final CalibratedBcryptPasswordEncoder encoder = new CalibratedBcryptPasswordEncoder(5);
+
+  @Test
+  @DisplayName("Given hash with the same cost, when checking upgrade, then return false")
+  void givenHashWithSameCost_whenCheckingUpgrade_thenReturnFalse() {
+    // Arrange
+    String hash = encoder.encode("password");
+
+    // Act & Assert
+    assertFalse(encoder.upgradeEncoding(hash));
+  }
+
+  @Test
+  @DisplayName("Given weaker hash, when checking upgrade, then return true")
+  void givenWeakerHash_whenCheckingUpgrade_thenReturnTrue() {
+    // Arrange
+    String weaker = new CalibratedBcryptPasswordEncoder(4).encode("password");
+
+    // Act & Assert
+    assertTrue(encoder.upgradeEncoding(weaker));
+  }
+
+  @Test
+  @DisplayName("Given stronger hash, when checking upgrade, then return false")
+  void givenStrongerHash_whenCheckingUpgrade_thenReturnFalse() {
+    // Arrange
+    String stronger = new CalibratedBcryptPasswordEncoder(6).encode("password");
+
+    // Act & Assert
+    assertFalse(encoder.upgradeEncoding(stronger));
+    assertTrue(encoder.matches("password", stronger));
+  }
+
+  @Test
+  @DisplayName("Given missing or non-BCrypt hash, when checking upgrade, then return false")
+  void givenMissingOrNonBcryptHash_whenCheckingUpgrade_thenReturnFalse() {
+    // Act & Assert
+    assertFalse(encoder.upgradeEncoding(null));
+    assertFalse(encoder.upgradeEncoding("plaintext"));
+  }
+}
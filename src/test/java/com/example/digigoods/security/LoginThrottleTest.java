@@ -0,0 +1,104 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTest {
+
+  private AtomicLong clock;
+  private SimpleMeterRegistry meterRegistry;
+  private LoginThrottle loginThrottle;
+
+  @BeforeEach
+  void setUp() {
+    clock = new AtomicLong();
+    meterRegistry = new SimpleMeterRegistry();
+    loginThrottle = new LoginThrottle(
+        new LoginThrottle.Limits(2, 60, 3),
+        new LoginThrottle.Limits(10, 600, 100),
+        60, 300, 1000, meterRegistry, clock::get);
+  }
+
+  @Test
+  @DisplayName("Given burst exhausted, when acquiring, then throw TooManyLoginAttemptsException")
+  void givenBurstExhausted_whenAcquiring_thenThrowTooManyLoginAttemptsException() {
+    // Arrange
+    loginThrottle.acquire("testuser", "10.0.0.1");
+    loginThrottle.acquire("testuser", "10.0.0.1");
+
+    // Act & Assert
+    TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class,
+        () -> loginThrottle.acquire("TestUser", "10.0.0.2"));
+    assertEquals(1, exception.getRetryAfterSeconds());
+    assertEquals(1.0, meterRegistry.get("auth.login.throttled")
+        .tag("key", "username").tag("reason", "rate").counter().count());
+  }
+
+  @Test
+  @DisplayName("Given tokens refilled over time, when acquiring, then allow attempt")
+  void givenTokensRefilledOverTime_whenAcquiring_thenAllowAttempt() {
+    // Arrange
+    loginThrottle.acquire("testuser", "10.0.0.1");
+    loginThrottle.acquire("testuser", "10.0.0.1");
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+    // Act & Assert
+    assertDoesNotThrow(() -> loginThrottle.acquire("testuser", "10.0.0.1"));
+  }
+
+  @Test
+  @DisplayName("Given repeated failures, when acquiring, then lock username out")
+  void givenRepeatedFailures_whenAcquiring_thenLockUsernameOut() {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      loginThrottle.recordFailure("testuser", "10.0.0.1");
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+    // Act & Assert
+    TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class,
+        () -> loginThrottle.acquire("testuser", "10.0.0.1"));
+    assertEquals(290, exception.getRetryAfterSeconds());
+    assertEquals(1.0, meterRegistry.get("auth.login.lockouts").counter().count());
+    assertDoesNotThrow(() -> loginThrottle.acquire("otheruser", "10.0.0.1"));
+  }
+
+  @Test
+  @DisplayName("Given successful login, when failing again, then start counting from zero")
+  void givenSuccessfulLogin_whenFailingAgain_thenStartCountingFromZero() {
+    // Arrange
+    loginThrottle.recordFailure("testuser", "10.0.0.1");
+    loginThrottle.recordFailure("testuser", "10.0.0.1");
+    loginThrottle.recordSuccess("testuser");
+
+    // Act
+    loginThrottle.recordFailure("testuser", "10.0.0.1");
+
+    // Assert
+    assertDoesNotThrow(() -> loginThrottle.acquire("testuser", "10.0.0.1"));
+  }
+
+  @Test
+  @DisplayName("Given failures in an old window, when acquiring, then allow attempt")
+  void givenFailuresInOldWindow_whenAcquiring_thenAllowAttempt() {
+    // Arrange
+    loginThrottle.recordFailure("testuser", "10.0.0.1");
+    loginThrottle.recordFailure("testuser", "10.0.0.1");
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(150));
+
+    // Act
+    loginThrottle.recordFailure("testuser", "10.0.0.1");
+
+    // Assert
+    assertDoesNotThrow(() -> loginThrottle.acquire("testuser", "10.0.0.1"));
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+class PasswordVerificationPoolTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private PasswordVerificationPool pool;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    pool = new PasswordVerificationPool(1, 1, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.destroy();
+  }
+
+  @Test
+  @DisplayName("Given successful task, when executing on pool, then return task result")
+  void givenSuccessfulTask_whenExecutingOnPool_thenReturnTaskResult() {
+    // Act
+    String result = pool.execute(() -> "verified");
+
+    // Assert
+    assertEquals("verified", result);
+    assertEquals(1, meterRegistry.get("auth.login.verification").timer().count());
+  }
+
+  @Test
+  @DisplayName("Given failing task, when executing on pool, then rethrow original exception")
+  void givenFailingTask_whenExecutingOnPool_thenRethrowOriginalException() {
+    // Act & Assert
+    assertThrows(BadCredentialsException.class, () -> pool.execute(() -> {
+      throw new BadCredentialsException("Bad credentials");
+    }));
+  }
+
+  @Test
+  @DisplayName("Given saturated pool, when executing on pool, "
+      + "then throw LoginCapacityExceededException")
+  void givenSaturatedPool_whenExecutingOnPool_thenThrowLoginCapacityExceededException()
+      throws Exception {
+    // Arrange - occupy the only thread and the only queue slot
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    final CompletableFuture<Object> running =
+        CompletableFuture.supplyAsync(() -> pool.execute(() -> {
+          started.countDown();
+          await(release);
+          return null;
+        }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    final CompletableFuture<Object> queued =
+        CompletableFuture.supplyAsync(() -> pool.execute(() -> null));
+    while (meterRegistry.get("auth.login.queue.depth").gauge().value() < 1) {
+      Thread.onSpinWait();
+    }
+
+    // Act & Assert
+    assertThrows(LoginCapacityExceededException.class, () -> pool.execute(() -> null));
+    assertEquals(1.0, meterRegistry.get("auth.login.rejected").counter().count());
+
+    release.countDown();
+    running.get(5, TimeUnit.SECONDS);
+    queued.get(5, TimeUnit.SECONDS);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -9,6 +9,8 @@ import static org.mockito.Mockito.when;
 
 import com.example.digigoods.model.User;
 import com.example.digigoods.repository.UserRepository;
+import com.example.digigoods.service.PasswordRehashService;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,6 +28,9 @@ class UserDetailsServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PasswordRehashService passwordRehashService;
+
   @InjectMocks
   private UserDetailsServiceImpl userDetailsService;
 
@@ -125,4 +130,20 @@ class UserDetailsServiceImplTest {
     assertEquals("User not found: " + username, exception.getMessage());
     verify(userRepository).findByUsername(username);
   }
+
+  @Test
+  @DisplayName("Given upgraded password hash, when updating password, "
+      + "then store it in the background and return updated user")
+  void givenUpgradedPasswordHash_whenUpdatingPassword_thenStoreInBackgroundAndReturnUser() {
+    // Arrange
+    AuthenticatedUser user = new AuthenticatedUser(1L, "testuser", "oldhash", List.of());
+
+    // Act
+    UserDetails updated = userDetailsService.updatePassword(user, "newhash");
+
+    // Assert
+    assertEquals("newhash", updated.getPassword());
+    assertEquals(1L, ((AuthenticatedUser) updated).getId());
+    verify(passwordRehashService).storeRehashedPassword("testuser", "newhash");
+  }
 }
@@ -0,0 +1,83 @@
+package com.example.digigoods.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+  private VerifiedTokenCache tokenCache;
+  private SimpleMeterRegistry meterRegistry;
+  private AtomicInteger verifications;
+
+  @BeforeEach
+  void setUp() {
+    tokenCache = new VerifiedTokenCache(100);
+    meterRegistry = new SimpleMeterRegistry();
+    tokenCache.bindTo(meterRegistry);
+    verifications = new AtomicInteger();
+  }
+
+  @Test
+  @DisplayName("Given repeated token, when getting from cache, then verify only once")
+  void givenRepeatedToken_whenGettingFromCache_thenVerifyOnlyOnce() {
+    // Arrange
+    VerifiedToken verifiedToken =
+        new VerifiedToken("testuser", 1L, Instant.now(), Instant.now().plusSeconds(60));
+
+    // Act
+    VerifiedToken first = tokenCache.get("token", token -> {
+      verifications.incrementAndGet();
+      return verifiedToken;
+    });
+    VerifiedToken second = tokenCache.get("token", token -> {
+      verifications.incrementAndGet();
+      return verifiedToken;
+    });
+
+    // Assert
+    assertSame(first, second);
+    assertEquals(1, verifications.get());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter()
+        .count());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter()
+        .count());
+  }
+
+  @Test
+  @DisplayName("Given already expired token, when getting from cache, then verify every time")
+  void givenAlreadyExpiredToken_whenGettingFromCache_thenVerifyEveryTime() {
+    // Arrange
+    VerifiedToken expiredToken =
+        new VerifiedToken("testuser", 1L, Instant.now(), Instant.now().minusSeconds(1));
+
+    // Act
+    tokenCache.get("token", token -> {
+      verifications.incrementAndGet();
+      return expiredToken;
+    });
+    tokenCache.get("token", token -> {
+      verifications.incrementAndGet();
+      return expiredToken;
+    });
+
+    // Assert
+    assertEquals(2, verifications.get());
+  }
+
+  @Test
+  @DisplayName("Given verifier failure, when getting from cache, then propagate exception")
+  void givenVerifierFailure_whenGettingFromCache_thenPropagateException() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> tokenCache.get("token", token -> {
+      throw new IllegalArgumentException("invalid");
+    }));
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.LoginRequest;
+import com.example.digigoods.exception.LoginCapacityExceededException;
+import com.example.digigoods.security.LoginThrottle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+  @Mock
+  private AuthenticationManager authenticationManager;
+
+  @Mock
+  private JwtService jwtService;
+
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
+  @Mock
+  private LoginThrottle loginThrottle;
+
+  @InjectMocks
+  private AuthService authService;
+
+  @Test
+  @DisplayName("Given bad credentials, when logging in, then record failure")
+  void givenBadCredentials_whenLoggingIn_thenRecordFailure() {
+    // Arrange
+    when(authenticationManager.authenticate(any()))
+        .thenThrow(new BadCredentialsException("Bad credentials"));
+    LoginRequest loginRequest = new LoginRequest("testuser", "wrongpassword");
+
+    // Act & Assert
+    assertThrows(BadCredentialsException.class,
+        () -> authService.login(loginRequest, "127.0.0.1"));
+    verify(loginThrottle).recordFailure("testuser", "127.0.0.1");
+  }
+
+  @Test
+  @DisplayName("Given saturated pool for unknown username, when logging in, "
+      + "then throw LoginCapacityExceededException without recording failure")
+  void givenSaturatedPoolForUnknownUsername_whenLoggingIn_thenThrowCapacityExceeded() {
+    // Arrange
+    when(authenticationManager.authenticate(any()))
+        .thenThrow(new InternalAuthenticationServiceException("Login capacity exceeded",
+            new LoginCapacityExceededException()));
+    LoginRequest loginRequest = new LoginRequest("unknown", "password");
+
+    // Act & Assert
+    assertThrows(LoginCapacityExceededException.class,
+        () -> authService.login(loginRequest, "127.0.0.1"));
+    verify(loginThrottle, never()).recordFailure(anyString(), anyString());
+  }
+}
@@ -0,0 +1,233 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CartPricingTest {
+
+  private static final BigDecimal MAX_DISCOUNT_PERCENTAGE = new BigDecimal("75.00");
+  private static final BigDecimal HUNDRED = new BigDecimal("100.00");
+
+  @Test
+  @DisplayName("Given random carts, when pricing in cents, "
+      + "then match the BigDecimal pricing to the cent")
+  void givenRandomCarts_whenPricingInCents_thenMatchBigDecimalPricing() {
+    Random random = new Random(42);
+    for (int run = 0; run < 5_000; run++) {
+      // Arrange
+      CheckoutPlan plan = randomPlan(random);
+
+      // Act
+      CartPricing pricing = CartPricing.of(plan);
+      long subtotal = pricing.subtotal();
+      long finalPrice = pricing.finalPrice();
+
+      // Assert
+      BigDecimal expectedSubtotal = referenceSubtotal(plan);
+      BigDecimal expectedFinalPrice = referenceFinalPrice(plan);
+      assertEquals(0, expectedSubtotal.compareTo(CartPricing.toAmount(subtotal)),
+          "subtotal of run " + run);
+      assertEquals(0, expectedFinalPrice.compareTo(CartPricing.toAmount(finalPrice)),
+          "final price of run " + run);
+      assertEquals(referenceExceedsMaximumDiscount(expectedSubtotal, expectedFinalPrice),
+          CartPricing.exceedsMaximumDiscount(subtotal, finalPrice),
+          "maximum discount of run " + run);
+      assertEquals(finalPrice, Arrays.stream(pricing.linePrices(finalPrice)).sum(),
+          "line prices of run " + run);
+    }
+  }
+
+  @Test
+  @DisplayName("Given half a cent of discount, when pricing in cents, then round it up")
+  void givenHalfCentOfDiscount_whenPricingInCents_thenRoundItUp() {
+    // Arrange
+    // 10% of 0.05 is 0.005, which rounds to a discount of 0.01
+    Product product = new Product(1L, "Product 1", new BigDecimal("0.05"), 5);
+    CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L), List.of(product),
+        List.of(discount("A", "10.00", DiscountType.PRODUCT_SPECIFIC, Set.of(product))));
+
+    // Act
+    long finalPrice = CartPricing.of(plan).finalPrice();
+
+    // Assert
+    assertEquals(4, finalPrice);
+  }
+
+  @Test
+  @DisplayName("Given discount at the limit, when checking maximum discount, "
+      + "then only reject what rounds above 75%")
+  void givenDiscountAtLimit_whenCheckingMaximumDiscount_thenOnlyRejectAboveLimit() {
+    // Act & Assert
+    assertFalse(CartPricing.exceedsMaximumDiscount(10_000, 2_500));
+    // 75.004% rounds to 75.00%
+    assertFalse(CartPricing.exceedsMaximumDiscount(100_000, 24_996));
+    // 75.005% rounds to 75.01%
+    assertTrue(CartPricing.exceedsMaximumDiscount(200_000, 49_990));
+  }
+
+  @Test
+  @DisplayName("Given general discount, when splitting final price, "
+      + "then share it by line with the rounding cent on the largest remainder")
+  void givenGeneralDiscount_whenSplittingFinalPrice_thenShareItByLine() {
+    // Arrange
+    Product first = new Product(1L, "Product 1", new BigDecimal("0.10"), 5);
+    Product second = new Product(2L, "Product 2", new BigDecimal("0.20"), 5);
+    Product third = new Product(3L, "Product 3", new BigDecimal("0.03"), 5);
+    // 0.33 less 10% is 0.30
+    CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L, 2L, 3L), List.of(first, second, third),
+        List.of(discount("G", "10.00", DiscountType.GENERAL, Set.of())));
+    CartPricing pricing = CartPricing.of(plan);
+
+    // Act
+    long[] linePrices = pricing.linePrices(pricing.finalPrice());
+
+    // Assert
+    // Shares of the 3 cents: 0.91, 1.82 and 0.27
+    assertArrayEquals(new long[] {9, 18, 3}, linePrices);
+  }
+
+  @Test
+  @DisplayName("Given line of the largest quantity at the largest price, when pricing in cents, "
+      + "then price it without overflow")
+  void givenLargestLine_whenPricingInCents_thenPriceItWithoutOverflow() {
+    // Arrange
+    Product first = new Product(1L, "Product 1", new BigDecimal("99999999.99"), 1_000_000);
+    Product second = new Product(2L, "Product 2", new BigDecimal("0.01"), 5);
+    CheckoutPlan plan = CheckoutPlan.of(1L, Map.of(1L, 1_000_000, 2L, 1),
+        List.of(first, second), List.of(discount("G", "10.00", DiscountType.GENERAL, Set.of())));
+    CartPricing pricing = CartPricing.of(plan);
+
+    // Act
+    long subtotal = pricing.subtotal();
+    long finalPrice = pricing.finalPrice();
+    long[] linePrices = pricing.linePrices(finalPrice);
+
+    // Assert
+    // Subtotal 99,999,999,990,000.01 less 10% of it, rounded half up
+    assertEquals(9_999_999_999_000_001L, subtotal);
+    assertEquals(8_999_999_999_100_001L, finalPrice);
+    assertEquals(finalPrice, Arrays.stream(linePrices).sum());
+    assertFalse(CartPricing.exceedsMaximumDiscount(subtotal, finalPrice));
+  }
+
+  private CheckoutPlan randomPlan(Random random) {
+    List<Product> products = new ArrayList<>();
+    int productCount = 1 + random.nextInt(8);
+    for (long id = 1; id <= productCount; id++) {
+      BigDecimal price = BigDecimal.valueOf(1 + random.nextInt(99_999), 2);
+      products.add(new Product(id, "Product " + id, price, 100));
+    }
+
+    List<Long> productIds = new ArrayList<>();
+    int units = 1 + random.nextInt(20);
+    for (int i = 0; i < units; i++) {
+      productIds.add(products.get(random.nextInt(productCount)).getId());
+    }
+
+    List<Discount> discounts = new ArrayList<>();
+    int discountCount = random.nextInt(5);
+    for (int i = 0; i < discountCount; i++) {
+      String percentage = BigDecimal.valueOf(random.nextInt(6_000), 2).toPlainString();
+      if (random.nextBoolean()) {
+        discounts.add(discount("G" + i, percentage, DiscountType.GENERAL, Set.of()));
+      } else {
+        Set<Product> applicableProducts = new HashSet<>();
+        for (Product product : products) {
+          if (random.nextBoolean()) {
+            applicableProducts.add(product);
+          }
+        }
+        discounts.add(discount("P" + i, percentage, DiscountType.PRODUCT_SPECIFIC,
+            applicableProducts));
+      }
+    }
+
+    List<Product> requested = products.stream()
+        .filter(product -> productIds.contains(product.getId()))
+        .toList();
+    return CheckoutPlan.of(1L, productIds, requested, discounts);
+  }
+
+  private Discount discount(String code, String percentage, DiscountType type,
+                            Set<Product> applicableProducts) {
+    return new Discount(null, code, new BigDecimal(percentage), type, LocalDate.now(),
+        LocalDate.now().plusDays(1), 10, applicableProducts);
+  }
+
+  // Reference BigDecimal pricing, as CheckoutService priced carts before the fixed-point core
+
+  private BigDecimal referenceSubtotal(CheckoutPlan plan) {
+    return units(plan).stream()
+        .map(plan::getProduct)
+        .map(Product::getPrice)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  private List<Long> units(CheckoutPlan plan) {
+    List<Long> units = new ArrayList<>();
+    plan.getQuantities().forEach((productId, quantity) -> {
+      for (int i = 0; i < quantity; i++) {
+        units.add(productId);
+      }
+    });
+    return units;
+  }
+
+  private BigDecimal referenceFinalPrice(CheckoutPlan plan) {
+    List<Discount> productSpecificDiscounts = plan.getDiscounts().stream()
+        .filter(d -> d.getType() == DiscountType.PRODUCT_SPECIFIC)
+        .toList();
+    List<Discount> generalDiscounts = plan.getDiscounts().stream()
+        .filter(d -> d.getType() == DiscountType.GENERAL)
+        .toList();
+
+    BigDecimal total = BigDecimal.ZERO;
+    for (Long productId : units(plan)) {
+      Product product = plan.getProduct(productId);
+      BigDecimal itemPrice = product.getPrice();
+      BigDecimal totalDiscountPercentage = productSpecificDiscounts.stream()
+          .filter(discount -> discount.getApplicableProducts().contains(product))
+          .map(Discount::getPercentage)
+          .reduce(BigDecimal.ZERO, BigDecimal::add);
+      if (totalDiscountPercentage.compareTo(BigDecimal.ZERO) > 0) {
+        BigDecimal discountAmount = itemPrice.multiply(totalDiscountPercentage)
+            .divide(HUNDRED, 2, RoundingMode.HALF_UP);
+        itemPrice = itemPrice.subtract(discountAmount);
+      }
+      total = total.add(itemPrice);
+    }
+
+    for (Discount discount : generalDiscounts) {
+      BigDecimal discountAmount = total.multiply(discount.getPercentage())
+          .divide(HUNDRED, 2, RoundingMode.HALF_UP);
+      total = total.subtract(discountAmount);
+    }
+    return total;
+  }
+
+  private boolean referenceExceedsMaximumDiscount(BigDecimal originalSubtotal,
+                                                  BigDecimal finalPrice) {
+    BigDecimal totalDiscount = originalSubtotal.subtract(finalPrice);
+    BigDecimal discountPercentage = totalDiscount.multiply(HUNDRED)
+        .divide(originalSubtotal, 2, RoundingMode.HALF_UP);
+    return discountPercentage.compareTo(MAX_DISCOUNT_PERCENTAGE) > 0;
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.exception.ExcessiveDiscountException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CheckoutObservationsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private CheckoutObservations observations;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+    observationRegistry.observationConfig()
+        .observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+    observations = new CheckoutObservations(observationRegistry);
+  }
+
+  @Test
+  @DisplayName("Given successful stage, when observing, then return result and time success")
+  void givenSuccessfulStage_whenObserving_thenReturnResultAndTimeSuccess() {
+    // Arrange
+    Object expected = new Object();
+
+    // Act
+    Object result = observations.stage("subtotal", () -> expected);
+
+    // Assert
+    assertSame(expected, result);
+    Timer timer = meterRegistry.find(CheckoutObservations.STAGE_OBSERVATION)
+        .tag("stage", "subtotal")
+        .tag("outcome", "success")
+        .timer();
+    assertNotNull(timer);
+    assertEquals(1, timer.count());
+  }
+
+  @Test
+  @DisplayName("Given failing stage, when observing, then rethrow and time error")
+  void givenFailingStage_whenObserving_thenRethrowAndTimeError() {
+    // Arrange
+    ExcessiveDiscountException failure = new ExcessiveDiscountException();
+
+    // Act
+    ExcessiveDiscountException thrown = assertThrows(ExcessiveDiscountException.class,
+        () -> observations.stage("max-discount", () -> {
+          throw failure;
+        }));
+
+    // Assert
+    assertSame(failure, thrown);
+    Timer timer = meterRegistry.find(CheckoutObservations.STAGE_OBSERVATION)
+        .tag("stage", "max-discount")
+        .tag("outcome", "error")
+        .timer();
+    assertNotNull(timer);
+    assertEquals(1, timer.count());
+  }
+}
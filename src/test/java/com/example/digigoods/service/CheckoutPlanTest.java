@@ -0,0 +1,85 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.digigoods.dto.CheckoutItem;
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CheckoutPlanTest {
+
+  private final Product product1 = new Product(1L, "Product 1", new BigDecimal("10.00"), 5);
+  private final Product product2 = new Product(2L, "Product 2", new BigDecimal("20.00"), 3);
+
+  @Test
+  @DisplayName("Given repeated product IDs, when building plan, then count quantities per product")
+  void givenRepeatedProductIds_whenBuildingPlan_thenCountQuantitiesPerProduct() {
+    // Act
+    CheckoutPlan plan = CheckoutPlan.of(7L, List.of(2L, 1L, 2L),
+        List.of(product1, product2), List.of());
+
+    // Assert
+    assertEquals(7L, plan.getUserId());
+    assertEquals(List.of(2L, 1L), List.copyOf(plan.getQuantities().keySet()));
+    assertEquals(List.of(product2, product1), List.copyOf(plan.getProducts()));
+    assertEquals(2, plan.getQuantity(2L));
+    assertEquals(1, plan.getQuantity(1L));
+    assertEquals(0, plan.getQuantity(3L));
+    assertSame(product1, plan.getProduct(1L));
+  }
+
+  @Test
+  @DisplayName("Given product IDs and items, when adding up quantities, "
+      + "then combine them per product")
+  void givenProductIdsAndItems_whenAddingUpQuantities_thenCombineThemPerProduct() {
+    // Arrange
+    CheckoutRequest request = new CheckoutRequest(7L, List.of(2L, 1L), List.of(),
+        List.of(new CheckoutItem(3L, 500), new CheckoutItem(2L, 4)));
+
+    // Act
+    Map<Long, Integer> quantities = CheckoutPlan.quantitiesOf(request);
+
+    // Assert
+    assertEquals(List.of(2L, 1L, 3L), List.copyOf(quantities.keySet()));
+    assertEquals(Map.of(2L, 5, 1L, 1, 3L, 500), quantities);
+  }
+
+  @Test
+  @DisplayName("Given earlier unit prices, when repricing plan, then price at them")
+  void givenEarlierUnitPrices_whenRepricingPlan_thenPriceAtThem() {
+    // Arrange
+    CheckoutPlan plan = CheckoutPlan.of(7L, List.of(1L, 2L), List.of(product1, product2),
+        List.of());
+    Map<Long, BigDecimal> pricedAt = new HashMap<>();
+    pricedAt.put(1L, new BigDecimal("8.00"));
+    pricedAt.put(2L, null);
+
+    // Act
+    CheckoutPlan repriced = plan.withUnitPrices(pricedAt);
+
+    // Assert
+    assertEquals(new BigDecimal("8.00"), repriced.getUnitPrice(1L));
+    assertEquals(new BigDecimal("20.00"), repriced.getUnitPrice(2L));
+    assertEquals(new BigDecimal("10.00"), plan.getUnitPrice(1L));
+    assertSame(product1, repriced.getProduct(1L));
+  }
+
+  @Test
+  @DisplayName("Given built plan, when modifying it, then throw UnsupportedOperationException")
+  void givenBuiltPlan_whenModifyingIt_thenThrowUnsupportedOperationException() {
+    // Arrange
+    CheckoutPlan plan = CheckoutPlan.of(7L, List.of(1L), List.of(product1), List.of());
+
+    // Act & Assert
+    assertThrows(UnsupportedOperationException.class, () -> plan.getQuantities().put(2L, 1));
+    assertThrows(UnsupportedOperationException.class, () -> plan.getDiscounts().clear());
+  }
+}
@@ -11,16 +11,21 @@ import static org.mockito.Mockito.when;
 
 import com.example.digigoods.exception.InvalidDiscountException;
 import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountRedemption;
+import com.example.digigoods.repository.DiscountRedemptionRepository;
 import com.example.digigoods.repository.DiscountRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -35,6 +40,9 @@ class DiscountServiceTest {
   @Mock
   private DiscountRepository discountRepository;
 
+  @Mock
+  private DiscountRedemptionRepository discountRedemptionRepository;
+
   @InjectMocks
   private DiscountService discountService;
 
@@ -200,18 +208,18 @@ class DiscountServiceTest {
   }
 
   @Test
-  @DisplayName("Should update discount usage by decrementing remaining uses")
+  @DisplayName("Should update discount usage with one guarded batch decrement")
   void givenValidDiscounts_whenUpdateDiscountUsage_thenDecrementRemainingUses() {
     // Arrange - Set up discounts with remaining uses
     List<Discount> discounts = Arrays.asList(validDiscount);
-    int originalUses = validDiscount.getRemainingUses();
+    when(discountRepository.decrementRemainingUses(List.of(1L))).thenReturn(List.of());
 
     // Act - Execute the method under test
     discountService.updateDiscountUsage(discounts);
 
-    // Assert - Verify remaining uses are decremented and discount is saved
-    assertEquals(originalUses - 1, validDiscount.getRemainingUses());
-    verify(discountRepository, times(1)).save(validDiscount);
+    // Assert - Verify the decrement runs in the database instead of a read-modify-save
+    verify(discountRepository, times(1)).decrementRemainingUses(List.of(1L));
+    verify(discountRepository, never()).save(any(Discount.class));
   }
 
   @Test
@@ -223,16 +231,27 @@ class DiscountServiceTest {
     Discount discount2 = createDiscount(6L, "MULTI2", BigDecimal.valueOf(15.0), 2,
         LocalDate.now().minusDays(1), LocalDate.now().plusDays(30));
     List<Discount> discounts = Arrays.asList(discount1, discount2);
-    int originalUses1 = discount1.getRemainingUses();
-    int originalUses2 = discount2.getRemainingUses();
+    when(discountRepository.decrementRemainingUses(List.of(5L, 6L))).thenReturn(List.of());
 
     // Act - Execute the method under test
     discountService.updateDiscountUsage(discounts);
 
-    // Assert - Verify both discounts are updated
-    assertEquals(originalUses1 - 1, discount1.getRemainingUses());
-    assertEquals(originalUses2 - 1, discount2.getRemainingUses());
-    verify(discountRepository, times(2)).save(any(Discount.class));
+    // Assert - Verify both discounts are decremented in a single batch
+    verify(discountRepository, times(1)).decrementRemainingUses(List.of(5L, 6L));
+  }
+
+  @Test
+  @DisplayName("Should reject discount whose last use was taken concurrently")
+  void givenExhaustedDiscount_whenUpdateDiscountUsage_thenThrowInvalidDiscountException() {
+    // Arrange - The guarded decrement finds no remaining use
+    List<Discount> discounts = Arrays.asList(validDiscount);
+    when(discountRepository.decrementRemainingUses(List.of(1L))).thenReturn(List.of(1L));
+
+    // Act & Assert - Verify the exhausted code is reported
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.updateDiscountUsage(discounts));
+    assertTrue(exception.getMessage().contains("VALID10"));
+    assertTrue(exception.getMessage().contains("discount has no remaining uses"));
   }
 
   @Test
@@ -245,9 +264,75 @@ class DiscountServiceTest {
     discountService.updateDiscountUsage(discounts);
 
     // Assert - Verify no repository calls are made
+    verify(discountRepository, never()).decrementRemainingUses(any());
     verify(discountRepository, never()).save(any(Discount.class));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  @DisplayName("Should append one redemption record per applied discount")
+  void givenAppliedDiscounts_whenRecordRedemptions_thenAppendOneRecordPerDiscount() {
+    // Arrange - Set up an order with one applied discount
+    List<Discount> discounts = Arrays.asList(validDiscount);
+
+    // Act - Execute the method under test
+    discountService.recordRedemptions(10L, 20L, discounts);
+
+    // Assert - Verify a single batch append with the order and user
+    ArgumentCaptor<List<DiscountRedemption>> captor = ArgumentCaptor.forClass(List.class);
+    verify(discountRedemptionRepository).appendAll(captor.capture());
+    assertEquals(1, captor.getValue().size());
+    DiscountRedemption redemption = captor.getValue().get(0);
+    assertEquals(1L, redemption.getDiscountId());
+    assertEquals(10L, redemption.getOrderId());
+    assertEquals(20L, redemption.getUserId());
+  }
+
+  @Test
+  @DisplayName("Should not append redemption records without applied discounts")
+  void givenNoDiscounts_whenRecordRedemptions_thenAppendNothing() {
+    // Act - Execute the method under test
+    discountService.recordRedemptions(10L, 20L, List.of());
+
+    // Assert - Verify no batch is sent
+    verify(discountRedemptionRepository, never()).appendAll(any());
+  }
+
+  @Test
+  @DisplayName("Should pick each cart's discounts from discounts loaded once")
+  void givenLoadedDiscounts_whenSelectDiscounts_thenReturnDiscountsOfCart() {
+    // Arrange - Load the discounts of several carts in one query
+    when(discountRepository.findAllByCodeIn(List.of("VALID10", "EXPIRED20")))
+        .thenReturn(List.of(validDiscount, expiredDiscount));
+    Map<String, Discount> loaded = discountService.loadDiscounts(
+        List.of("VALID10", "EXPIRED20", "VALID10"));
+
+    // Act & Assert - Verify each cart is validated on its own
+    assertEquals(List.of(validDiscount),
+        discountService.selectDiscounts(List.of("VALID10"), loaded));
+    assertThrows(InvalidDiscountException.class,
+        () -> discountService.selectDiscounts(List.of("EXPIRED20"), loaded));
+    assertThrows(InvalidDiscountException.class,
+        () -> discountService.selectDiscounts(List.of("MISSING"), loaded));
+    verify(discountRepository, times(1)).findAllByCodeIn(any());
+  }
+
+  @Test
+  @DisplayName("Should allocate discount uses until none remain")
+  void givenRemainingUses_whenAllocateUses_thenRejectOnceExhausted() {
+    // Arrange - One remaining use for the discount
+    Map<Long, Integer> remainingUses = new HashMap<>(Map.of(1L, 1));
+
+    // Act - Allocate it to a first cart
+    discountService.allocateUses(List.of(validDiscount), remainingUses);
+
+    // Assert - Verify a second cart is rejected
+    InvalidDiscountException exception = assertThrows(InvalidDiscountException.class,
+        () -> discountService.allocateUses(List.of(validDiscount), remainingUses));
+    assertTrue(exception.getMessage().contains("discount has no remaining uses"));
+    assertEquals(0, remainingUses.get(1L));
+  }
+
   /**
    * Helper method to create discount test data.
    */
@@ -0,0 +1,199 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.model.Order;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.ReservationItem;
+import com.example.digigoods.model.ReservationStatus;
+import com.example.digigoods.model.StockReservation;
+import com.example.digigoods.model.User;
+import com.example.digigoods.repository.OrderRepository;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockLedgerEntryRepository;
+import com.example.digigoods.repository.StockReservationRepository;
+import com.example.digigoods.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for HotStockLedger against the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HotStockLedgerIntegrationTest {
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private StockLedgerEntryRepository stockLedgerEntryRepository;
+
+  @Autowired
+  private StockReservationRepository stockReservationRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transactionTemplate;
+  private Product product;
+  private User user;
+  private Order order;
+  private HotStockLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    product = productRepository.save(
+        new Product(null, "Hot Product", new BigDecimal("9.99"), 10));
+    user = userRepository.save(new User(null, "ledgeruser", "password"));
+    Order newOrder = new Order();
+    newOrder.setUser(user);
+    newOrder.setOriginalSubtotal(new BigDecimal("29.97"));
+    newOrder.setFinalPrice(new BigDecimal("29.97"));
+    order = orderRepository.save(newOrder);
+    ledger = newLedger();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockReservationRepository.deleteAll();
+    stockLedgerEntryRepository.deleteAll(
+        stockLedgerEntryRepository.findAllByOrderId(order.getId()));
+    orderRepository.delete(order);
+    userRepository.delete(user);
+    productRepository.delete(product);
+  }
+
+  @Test
+  @DisplayName("Given committed sale, when flushing, then subtract it from the stock column")
+  void givenCommittedSale_whenFlushing_thenSubtractItFromStockColumn() {
+    // Arrange
+    sell(3);
+
+    // Act
+    int stockBeforeFlush = stockColumn();
+    transactionTemplate.executeWithoutResult(status -> ledger.flush());
+
+    // Assert
+    assertEquals(10, stockBeforeFlush);
+    assertEquals(7, stockColumn());
+    assertEquals(7, ledger.available(product.getId()));
+    assertTrue(stockLedgerEntryRepository.findAllByOrderId(order.getId()).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given rolled back sale, when transaction completes, then return stock to ledger")
+  void givenRolledBackSale_whenTransactionCompletes_thenReturnStockToLedger() {
+    // Act
+    transactionTemplate.executeWithoutResult(status -> {
+      ledger.take(Map.of(product.getId(), 4));
+      ledger.journal(order.getId(), Map.of(product.getId(), 4));
+      status.setRollbackOnly();
+    });
+
+    // Assert
+    assertEquals(10, ledger.available(product.getId()));
+    assertTrue(stockLedgerEntryRepository.findAllByOrderId(order.getId()).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given unflushed sale, when ledger restarts, then rebuild stock from the journal")
+  void givenUnflushedSale_whenLedgerRestarts_thenRebuildStockFromJournal() {
+    // Arrange
+    sell(3);
+
+    // Act
+    HotStockLedger restarted = newLedger();
+
+    // Assert
+    assertEquals(7, restarted.available(product.getId()));
+  }
+
+  @Test
+  @DisplayName("Given holds from ledger and stock column, when ledger restarts, "
+      + "then subtract only the ledger hold")
+  void givenHoldsFromLedgerAndStockColumn_whenLedgerRestarts_thenSubtractOnlyLedgerHold() {
+    // Arrange
+    // The column hold was taken before the product became hot, so the column already lacks it
+    product.setStock(8);
+    productRepository.save(product);
+    hold(2, false);
+    hold(3, true);
+
+    // Act
+    HotStockLedger restarted = newLedger();
+
+    // Assert
+    assertEquals(5, restarted.available(product.getId()));
+  }
+
+  @Test
+  @DisplayName("Given open ledger hold, when product is no longer hot, then refuse to start")
+  void givenOpenLedgerHold_whenProductIsNoLongerHot_thenRefuseToStart() {
+    // Arrange
+    hold(2, true);
+    HotStockLedger cooled = new HotStockLedger(List.of(), 4, stockLedgerEntryRepository);
+
+    // Act & Assert
+    assertThrows(IllegalStateException.class, cooled::afterPropertiesSet);
+  }
+
+  @Test
+  @DisplayName("Given insufficient stock, when taking, then take nothing")
+  void givenInsufficientStock_whenTaking_thenTakeNothing() {
+    // Act
+    List<Long> insufficient = ledger.take(Map.of(product.getId(), 11));
+
+    // Assert
+    assertEquals(List.of(product.getId()), insufficient);
+    assertEquals(10, ledger.available(product.getId()));
+  }
+
+  private HotStockLedger newLedger() {
+    return new HotStockLedger(List.of(product.getId()), 4, stockLedgerEntryRepository);
+  }
+
+  private void hold(int quantity, boolean fromLedger) {
+    StockReservation reservation = new StockReservation();
+    reservation.setUserId(user.getId());
+    reservation.setStatus(ReservationStatus.HELD);
+    reservation.getItems().add(new ReservationItem(product.getId(), quantity,
+        product.getPrice(), fromLedger));
+    reservation.setOriginalSubtotal(new BigDecimal("9.99"));
+    reservation.setFinalPrice(new BigDecimal("9.99"));
+    reservation.setCreatedAt(LocalDateTime.now());
+    reservation.setExpiresAt(LocalDateTime.now().plusMinutes(5));
+    stockReservationRepository.save(reservation);
+  }
+
+  private void sell(int quantity) {
+    transactionTemplate.executeWithoutResult(status -> {
+      assertTrue(ledger.take(Map.of(product.getId(), quantity)).isEmpty());
+      ledger.journal(order.getId(), Map.of(product.getId(), quantity));
+    });
+  }
+
+  private int stockColumn() {
+    return productRepository.findStockById(product.getId()).orElseThrow();
+  }
+}
@@ -0,0 +1,187 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.dto.OrderResponse;
+import com.example.digigoods.exception.IdempotencyKeyException;
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.model.IdempotencyRecord;
+import com.example.digigoods.repository.IdempotencyRecordRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+  @Mock
+  private IdempotencyRecordRepository idempotencyRecordRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private IdempotencyService idempotencyService;
+  private CheckoutRequest request;
+  private OrderResponse response;
+
+  @BeforeEach
+  void setUp() {
+    idempotencyService = new IdempotencyService(idempotencyRecordRepository, transactionManager,
+        3600, 100);
+    request = new CheckoutRequest(1L, List.of(10L), List.of());
+    response = new OrderResponse("Order created successfully!", new BigDecimal("40.00"));
+    when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(any(), any()))
+        .thenReturn(Optional.empty());
+    when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  @DisplayName("Given repeated key, when executing, then run checkout once and replay result")
+  void givenRepeatedKey_whenExecuting_thenRunCheckoutOnceAndReplayResult() {
+    // Arrange
+    AtomicInteger runs = new AtomicInteger();
+
+    // Act
+    OrderResponse first = idempotencyService.execute(1L, "key-1", request, () -> {
+      runs.incrementAndGet();
+      return response;
+    });
+    OrderResponse second = idempotencyService.execute(1L, "key-1", request, () -> {
+      runs.incrementAndGet();
+      return response;
+    });
+
+    // Assert
+    assertSame(response, first);
+    assertSame(response, second);
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  @DisplayName("Given concurrent duplicates, when executing, then wait for the first attempt")
+  void givenConcurrentDuplicates_whenExecuting_thenWaitForFirstAttempt() throws Exception {
+    // Arrange
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // Act
+    List<Future<OrderResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(executor.submit(() -> idempotencyService.execute(1L, "key-2", request, () -> {
+        runs.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return response;
+      })));
+    }
+    Thread.sleep(100);
+    release.countDown();
+
+    // Assert
+    for (Future<OrderResponse> future : futures) {
+      assertSame(response, future.get());
+    }
+    executor.shutdown();
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  @DisplayName("Given stored result, when executing, then replay it without running checkout")
+  void givenStoredResult_whenExecuting_thenReplayWithoutRunningCheckout() {
+    // Arrange
+    idempotencyService.execute(1L, "key-3", request, () -> response);
+    IdempotencyRecord stored = new IdempotencyRecord();
+    stored.setRequestHash(capturedHash());
+    stored.setMessage("Order created successfully!");
+    stored.setFinalPrice(new BigDecimal("40.00"));
+    stored.setCreatedAt(LocalDateTime.now());
+    when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key-3"))
+        .thenReturn(Optional.of(stored));
+    IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository,
+        transactionManager, 3600, 100);
+
+    // Act
+    OrderResponse replayed = restarted.execute(1L, "key-3", request, () -> {
+      throw new AssertionError("checkout must not run again");
+    });
+
+    // Assert
+    assertEquals(response, replayed);
+  }
+
+  @Test
+  @DisplayName("Given key used for another request, when executing, "
+      + "then throw IdempotencyKeyException")
+  void givenKeyUsedForAnotherRequest_whenExecuting_thenThrowIdempotencyKeyException() {
+    // Arrange
+    idempotencyService.execute(1L, "key-4", request, () -> response);
+    CheckoutRequest otherRequest = new CheckoutRequest(1L, List.of(11L), List.of());
+
+    // Act & Assert
+    assertThrows(IdempotencyKeyException.class,
+        () -> idempotencyService.execute(1L, "key-4", otherRequest, () -> response));
+  }
+
+  @Test
+  @DisplayName("Given failed checkout, when retrying with same key, then run checkout again")
+  void givenFailedCheckout_whenRetryingWithSameKey_thenRunCheckoutAgain() {
+    // Arrange
+    assertThrows(InsufficientStockException.class,
+        () -> idempotencyService.execute(1L, "key-5", request, () -> {
+          throw new InsufficientStockException("out of stock");
+        }));
+
+    // Act
+    OrderResponse retried = idempotencyService.execute(1L, "key-5", request, () -> response);
+
+    // Assert
+    assertSame(response, retried);
+  }
+
+  @Test
+  @DisplayName("Given blank key, when executing, then throw IdempotencyKeyException")
+  void givenBlankKey_whenExecuting_thenThrowIdempotencyKeyException() {
+    // Act & Assert
+    assertThrows(IdempotencyKeyException.class,
+        () -> idempotencyService.execute(1L, " ", request, () -> response));
+    verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+  }
+
+  private String capturedHash() {
+    ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+    verify(idempotencyRecordRepository, atLeastOnce())
+        .saveAndFlush(captor.capture());
+    return captor.getValue().getRequestHash();
+  }
+}
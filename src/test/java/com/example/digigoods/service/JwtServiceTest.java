@@ -3,23 +3,31 @@ package com.example.digigoods.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.example.digigoods.security.VerifiedToken;
+import com.example.digigoods.security.VerifiedTokenCache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.time.Instant;
+import java.util.Date;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
 class JwtServiceTest {
 
+  private static final String SECRET = "myVerySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+
   private JwtService jwtService;
 
   @BeforeEach
   void setUp() {
-    jwtService = new JwtService();
-    ReflectionTestUtils.setField(jwtService, "secret",
-        "myVerySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm");
-    ReflectionTestUtils.setField(jwtService, "expiration", 86400000L);
+    jwtService = new JwtService(SECRET, 86400000L, new VerifiedTokenCache(100));
   }
 
   @Test
@@ -112,4 +120,79 @@ class JwtServiceTest {
     // Assert
     assertFalse(isValid);
   }
+
+  @Test
+  @DisplayName("Given valid token, when verifying token, then return all claims at once")
+  void givenValidToken_whenVerifyingToken_thenReturnAllClaims() {
+    // Arrange
+    Long userId = 1L;
+    String username = "testuser";
+    String token = jwtService.generateToken(userId, username);
+
+    // Act
+    VerifiedToken verifiedToken = jwtService.verify(token);
+
+    // Assert
+    assertEquals(username, verifiedToken.getSubject());
+    assertEquals(username, verifiedToken.getName());
+    assertEquals(userId, verifiedToken.getUserId());
+    assertTrue(verifiedToken.getExpiresAt().isAfter(Instant.now()));
+  }
+
+  @Test
+  @DisplayName("Given new token, when verifying token, then return issue time in milliseconds")
+  void givenNewToken_whenVerifyingToken_thenReturnIssueTimeInMilliseconds() {
+    // Arrange
+    long before = System.currentTimeMillis();
+    String token = jwtService.generateToken(1L, "testuser");
+    long after = System.currentTimeMillis();
+
+    // Act
+    VerifiedToken verifiedToken = jwtService.verify(token);
+
+    // Assert
+    long issuedAt = verifiedToken.getIssuedAt().toEpochMilli();
+    assertTrue(issuedAt >= before && issuedAt <= after);
+  }
+
+  @Test
+  @DisplayName("Given token without issue time, when verifying token, "
+      + "then throw MalformedJwtException")
+  void givenTokenWithoutIssueTime_whenVerifyingToken_thenThrowMalformedJwtException() {
+    // Arrange
+    String token = Jwts.builder()
+        .subject("testuser")
+        .claim("userId", 1L)
+        .expiration(new Date(System.currentTimeMillis() + 60000))
+        .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+        .compact();
+
+    // Act & Assert
+    assertThrows(MalformedJwtException.class, () -> jwtService.verify(token));
+  }
+
+  @Test
+  @DisplayName("Given token signed with another key, when verifying token, "
+      + "then throw SignatureException")
+  void givenTokenSignedWithAnotherKey_whenVerifyingToken_thenThrowSignatureException() {
+    // Arrange
+    JwtService otherService = new JwtService(
+        "anotherVerySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm", 86400000L,
+        new VerifiedTokenCache(100));
+    String token = otherService.generateToken(1L, "testuser");
+
+    // Act & Assert
+    assertThrows(SignatureException.class, () -> jwtService.verify(token));
+  }
+
+  @Test
+  @DisplayName("Given expired token, when verifying token, then throw ExpiredJwtException")
+  void givenExpiredToken_whenVerifyingToken_thenThrowExpiredJwtException() {
+    // Arrange
+    JwtService shortLivedService = new JwtService(SECRET, -1000L, new VerifiedTokenCache(100));
+    String token = shortLivedService.generateToken(1L, "testuser");
+
+    // Act & Assert
+    assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+  }
 }
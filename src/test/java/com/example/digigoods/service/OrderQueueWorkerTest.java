@@ -0,0 +1,130 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.dto.BatchOrderResponse;
+import com.example.digigoods.dto.BatchOrderResult;
+import com.example.digigoods.dto.CheckoutRequest;
+import com.example.digigoods.model.PendingOrder;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderQueueWorkerTest {
+
+  @Mock
+  private OrderQueueService orderQueueService;
+
+  @Mock
+  private CheckoutService checkoutService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private OrderQueueWorker worker;
+
+  @BeforeEach
+  void setUp() {
+    worker = new OrderQueueWorker(orderQueueService, checkoutService, transactionManager,
+        true, 0, 10, 200);
+  }
+
+  @Test
+  @DisplayName("Given transient error on one order, when draining, "
+      + "then commit the others one at a time and retry it")
+  void givenTransientErrorOnOneOrder_whenDraining_thenRetryItAndCommitOthers() {
+    // Arrange
+    PendingOrder failing = pendingOrder(1L);
+    PendingOrder passing = pendingOrder(2L);
+    CheckoutRequest failingRequest = new CheckoutRequest(3L, List.of(1L), List.of());
+    CheckoutRequest passingRequest = new CheckoutRequest(3L, List.of(2L), List.of());
+    BatchOrderResult created = new BatchOrderResult(0, true, 9L, "Order created successfully!",
+        new BigDecimal("10.00"));
+    when(orderQueueService.due(10)).thenReturn(List.of(1L, 2L));
+    when(orderQueueService.claimAll(List.of(1L, 2L))).thenReturn(List.of(failing, passing));
+    when(orderQueueService.claim(1L)).thenReturn(failing);
+    when(orderQueueService.claim(2L)).thenReturn(passing);
+    when(orderQueueService.requestOf(failing)).thenReturn(failingRequest);
+    when(orderQueueService.requestOf(passing)).thenReturn(passingRequest);
+    when(checkoutService.commitQueuedCheckouts(List.of(failingRequest, passingRequest)))
+        .thenThrow(new QueryTimeoutException("Lock wait timeout"));
+    when(checkoutService.commitQueuedCheckouts(List.of(failingRequest)))
+        .thenThrow(new QueryTimeoutException("Lock wait timeout"));
+    when(checkoutService.commitQueuedCheckouts(List.of(passingRequest)))
+        .thenReturn(new BatchOrderResponse(1, 0, List.of(created)));
+
+    // Act
+    int processed = worker.drain();
+
+    // Assert
+    assertEquals(2, processed);
+    verify(orderQueueService).retry(eq(1L), anyString());
+    verify(orderQueueService, never()).complete(eq(failing), any());
+    verify(orderQueueService).complete(passing, created);
+  }
+
+  @Test
+  @DisplayName("Given due orders, when draining, then commit them as one batch")
+  void givenDueOrders_whenDraining_thenCommitThemAsOneBatch() {
+    // Arrange
+    PendingOrder first = pendingOrder(1L);
+    PendingOrder second = pendingOrder(2L);
+    CheckoutRequest firstRequest = new CheckoutRequest(3L, List.of(1L), List.of());
+    CheckoutRequest secondRequest = new CheckoutRequest(3L, List.of(2L), List.of());
+    BatchOrderResult created = new BatchOrderResult(0, true, 9L, "Order created successfully!",
+        new BigDecimal("10.00"));
+    BatchOrderResult rejected = new BatchOrderResult(1, false, null, "Insufficient stock",
+        null);
+    when(orderQueueService.due(10)).thenReturn(List.of(1L, 2L));
+    when(orderQueueService.claimAll(List.of(1L, 2L))).thenReturn(List.of(first, second));
+    when(orderQueueService.requestOf(first)).thenReturn(firstRequest);
+    when(orderQueueService.requestOf(second)).thenReturn(secondRequest);
+    when(checkoutService.commitQueuedCheckouts(List.of(firstRequest, secondRequest)))
+        .thenReturn(new BatchOrderResponse(1, 1, List.of(created, rejected)));
+
+    // Act
+    int processed = worker.drain();
+
+    // Assert
+    assertEquals(2, processed);
+    verify(checkoutService).commitQueuedCheckouts(any());
+    verify(orderQueueService).complete(first, created);
+    verify(orderQueueService).complete(second, rejected);
+    verify(orderQueueService, never()).retry(any(), anyString());
+  }
+
+  @Test
+  @DisplayName("Given order claimed by another worker, when draining, then skip it")
+  void givenOrderClaimedByAnotherWorker_whenDraining_thenSkipIt() {
+    // Arrange
+    when(orderQueueService.due(10)).thenReturn(List.of(1L));
+
+    // Act
+    int processed = worker.drain();
+
+    // Assert
+    assertEquals(0, processed);
+    verify(checkoutService, never()).commitQueuedCheckouts(any());
+    verify(orderQueueService, never()).retry(any(), anyString());
+  }
+
+  private static PendingOrder pendingOrder(Long id) {
+    PendingOrder pendingOrder = new PendingOrder();
+    pendingOrder.setId(id);
+    return pendingOrder;
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.digigoods.exception.ProductNotFoundException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ParallelLookupsTest {
+
+  private ParallelLookups lookups;
+
+  @AfterEach
+  void tearDown() {
+    lookups.destroy();
+  }
+
+  @Test
+  @DisplayName("Given two lookups, when joining, then run them concurrently")
+  void givenTwoLookups_whenJoining_thenRunThemConcurrently() {
+    // Arrange
+    lookups = new ParallelLookups(true, 2);
+    // Each lookup only returns once both have started
+    CountDownLatch started = new CountDownLatch(2);
+
+    // Act
+    Supplier<String> first;
+    Supplier<Integer> second;
+    try (ParallelLookups.Scope scope = lookups.open()) {
+      first = scope.fork(() -> awaitOther(started, "first"));
+      second = scope.fork(() -> awaitOther(started, 2));
+      scope.join();
+    }
+
+    // Assert
+    assertEquals("first", first.get());
+    assertEquals(2, second.get());
+  }
+
+  @Test
+  @DisplayName("Given failing lookup, when joining, then cancel the others and rethrow")
+  void givenFailingLookup_whenJoining_thenCancelOthersAndRethrow() throws Exception {
+    // Arrange
+    lookups = new ParallelLookups(true, 2);
+    ProductNotFoundException failure = new ProductNotFoundException(1L);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+
+    // Act
+    ProductNotFoundException thrown;
+    try (ParallelLookups.Scope scope = lookups.open()) {
+      scope.fork(() -> {
+        blocked.countDown();
+        try {
+          new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return null;
+      });
+      scope.fork(() -> {
+        awaitQuietly(blocked);
+        throw failure;
+      });
+      thrown = assertThrows(ProductNotFoundException.class, scope::join);
+    }
+
+    // Assert
+    assertSame(failure, thrown);
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Given disabled lookups, when opening scope, then throw exception")
+  void givenDisabledLookups_whenOpeningScope_thenThrowException() {
+    // Arrange
+    lookups = new ParallelLookups(false, 0);
+
+    // Act & Assert
+    assertThrows(IllegalStateException.class, lookups::open);
+  }
+
+  private static <T> T awaitOther(CountDownLatch started, T result) {
+    started.countDown();
+    awaitQuietly(started);
+    return result;
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      if (!latch.await(5, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Timed out waiting for the other lookup");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
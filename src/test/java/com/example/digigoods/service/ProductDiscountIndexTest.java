@@ -0,0 +1,44 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.digigoods.model.Discount;
+import com.example.digigoods.model.DiscountType;
+import com.example.digigoods.model.Product;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductDiscountIndexTest {
+
+  private final Product product1 = new Product(1L, "Product 1", new BigDecimal("10.00"), 5);
+  private final Product product2 = new Product(2L, "Product 2", new BigDecimal("20.00"), 3);
+
+  @Test
+  @DisplayName("Given overlapping product discounts, when indexing, "
+      + "then sum the percentages per product")
+  void givenOverlappingProductDiscounts_whenIndexing_thenSumPercentagesPerProduct() {
+    // Arrange
+    List<Discount> discounts = List.of(
+        discount("A", "10.00", DiscountType.PRODUCT_SPECIFIC, Set.of(product1, product2)),
+        discount("B", "5.50", DiscountType.PRODUCT_SPECIFIC, Set.of(product1)),
+        discount("C", "20.00", DiscountType.GENERAL, Set.of(product2)));
+
+    // Act
+    ProductDiscountIndex index = ProductDiscountIndex.of(discounts);
+
+    // Assert
+    assertEquals(1550, index.basisPointsFor(1L));
+    assertEquals(1000, index.basisPointsFor(2L));
+    assertEquals(0, index.basisPointsFor(3L));
+  }
+
+  private Discount discount(String code, String percentage, DiscountType type,
+                            Set<Product> applicableProducts) {
+    return new Discount(null, code, new BigDecimal(percentage), type, LocalDate.now(),
+        LocalDate.now().plusDays(1), 10, applicableProducts);
+  }
+}
@@ -4,7 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,7 +14,10 @@ import com.example.digigoods.exception.ProductNotFoundException;
 import com.example.digigoods.model.Product;
 import com.example.digigoods.repository.ProductRepository;
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,6 +32,12 @@ class ProductServiceTest {
   @Mock
   private ProductRepository productRepository;
 
+  @Mock
+  private HotStockLedger hotStockLedger;
+
+  @Mock
+  private StockWriteCombiner stockWriteCombiner;
+
   @InjectMocks
   private ProductService productService;
 
@@ -70,21 +80,38 @@ class ProductServiceTest {
         () -> productService.getProductsByIds(productIds));
   }
 
+  @Test
+  @DisplayName("Given repeated product IDs, when getting products by IDs, "
+      + "then load each product once")
+  void givenRepeatedProductIds_whenGettingProductsByIds_thenLoadEachProductOnce() {
+    // Arrange
+    List<Long> productIds = List.of(1L, 1L, 2L);
+    when(productRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
+
+    // Act
+    List<Product> actualProducts = productService.getProductsByIds(productIds);
+
+    // Assert
+    assertEquals(List.of(product1, product2), actualProducts);
+  }
+
   @Test
   @DisplayName("Given sufficient stock, when validating and updating stock, "
       + "then update stock successfully")
   void givenSufficientStock_whenValidatingAndUpdatingStock_thenUpdateStockSuccessfully() {
     // Arrange
-    List<Long> productIds = List.of(1L, 1L, 2L); // 2 of product1, 1 of product2
-    when(productRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
+    // 2 of product1, 1 of product2
+    CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L, 1L, 2L), List.of(product1, product2),
+        List.of());
+    when(productRepository.decrementStock(plan.getQuantities())).thenReturn(List.of());
 
     // Act
-    productService.validateAndUpdateStock(productIds);
+    productService.validateAndUpdateStock(plan);
 
     // Assert
-    assertEquals(3, product1.getStock()); // 5 - 2 = 3
-    assertEquals(2, product2.getStock()); // 3 - 1 = 2
-    verify(productRepository, times(2)).save(any(Product.class));
+    verify(productRepository).decrementStock(Map.of(1L, 2, 2L, 1));
+    verify(productRepository, never()).save(any(Product.class));
+    verify(productRepository, never()).findAllByIdIn(anyList());
   }
 
   @Test
@@ -92,11 +119,109 @@ class ProductServiceTest {
       + "then throw InsufficientStockException")
   void givenInsufficientStock_whenValidatingAndUpdatingStock_thenThrowInsufficientStockException() {
     // Arrange
-    List<Long> productIds = List.of(1L, 1L, 1L, 1L, 1L, 1L); // 6 of product1, but only 5 in stock
-    when(productRepository.findAllByIdIn(anyList())).thenReturn(List.of(product1));
+    // 6 of product1, but only 5 in stock
+    CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L, 1L, 1L, 1L, 1L, 1L), List.of(product1),
+        List.of());
+    when(productRepository.decrementStock(plan.getQuantities())).thenReturn(List.of(1L));
+    when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+
+    // Act & Assert
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> productService.validateAndUpdateStock(plan));
+    assertEquals("Insufficient stock for product 1. Requested: 6, Available: 5",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given write combining enabled, when validating and updating stock, "
+      + "then take stock through the combiner")
+  void givenWriteCombiningEnabled_whenValidatingAndUpdatingStock_thenTakeThroughCombiner() {
+    // Arrange
+    CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L, 1L, 2L), List.of(product1, product2),
+        List.of());
+    when(stockWriteCombiner.isEnabled()).thenReturn(true);
+
+    // Act
+    productService.validateAndUpdateStock(plan);
+
+    // Assert
+    verify(stockWriteCombiner).take(Map.of(1L, 2, 2L, 1));
+    verify(productRepository, never()).decrementStock(anyMap());
+  }
+
+  @Test
+  @DisplayName("Given hot product in cart, when validating and updating stock, "
+      + "then take it from the ledger and the rest from the database")
+  void givenHotProductInCart_whenValidatingAndUpdatingStock_thenSplitBetweenLedgerAndDatabase() {
+    // Arrange
+    final CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L, 2L, 2L),
+        List.of(product1, product2), List.of());
+    when(hotStockLedger.isHot(1L)).thenReturn(false);
+    when(hotStockLedger.isHot(2L)).thenReturn(true);
+    when(hotStockLedger.take(Map.of(2L, 2))).thenReturn(List.of());
+    when(productRepository.decrementStock(Map.of(1L, 1))).thenReturn(List.of());
+
+    // Act
+    productService.validateAndUpdateStock(plan);
+
+    // Assert
+    verify(hotStockLedger).take(Map.of(2L, 2));
+    verify(productRepository).decrementStock(Map.of(1L, 1));
+  }
+
+  @Test
+  @DisplayName("Given sold out hot product, when validating and updating stock, "
+      + "then throw InsufficientStockException without touching the database")
+  void givenSoldOutHotProduct_whenValidatingAndUpdatingStock_thenThrowWithoutDatabaseUpdate() {
+    // Arrange
+    CheckoutPlan plan = CheckoutPlan.of(1L, List.of(2L), List.of(product2), List.of());
+    when(hotStockLedger.isHot(2L)).thenReturn(true);
+    when(hotStockLedger.take(Map.of(2L, 1))).thenReturn(List.of(2L));
+    when(hotStockLedger.available(2L)).thenReturn(0);
+
+    // Act & Assert
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> productService.validateAndUpdateStock(plan));
+    assertEquals("Insufficient stock for product 2. Requested: 1, Available: 0",
+        exception.getMessage());
+    verify(productRepository, never()).decrementStock(any());
+  }
+
+  @Test
+  @DisplayName("Given locked stock, when allocating carts, then hand it out until it runs out")
+  void givenLockedStock_whenAllocatingCarts_thenHandItOutUntilItRunsOut() {
+    // Arrange
+    CheckoutPlan first = CheckoutPlan.of(1L, List.of(1L, 1L, 1L), List.of(product1), List.of());
+    CheckoutPlan second = CheckoutPlan.of(1L, List.of(1L, 1L, 1L), List.of(product1), List.of());
+    Map<Long, Integer> lockedStock = new HashMap<>(Map.of(1L, 5));
+
+    // Act
+    productService.allocateStock(first, lockedStock);
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> productService.allocateStock(second, lockedStock));
+
+    // Assert
+    assertEquals("Insufficient stock for product 1. Requested: 3, Available: 2",
+        exception.getMessage());
+    assertEquals(2, lockedStock.get(1L));
+    verify(productRepository, never()).decrementStock(any());
+  }
+
+  @Test
+  @DisplayName("Given sold out hot product, when allocating cart, then keep locked stock")
+  void givenSoldOutHotProduct_whenAllocatingCart_thenKeepLockedStock() {
+    // Arrange
+    final CheckoutPlan plan = CheckoutPlan.of(1L, List.of(1L, 2L), List.of(product1, product2),
+        List.of());
+    final Map<Long, Integer> lockedStock = new HashMap<>(Map.of(1L, 5));
+    when(hotStockLedger.isHot(1L)).thenReturn(false);
+    when(hotStockLedger.isHot(2L)).thenReturn(true);
+    when(hotStockLedger.take(Map.of(2L, 1))).thenReturn(List.of(2L));
+    when(hotStockLedger.available(2L)).thenReturn(0);
 
     // Act & Assert
     assertThrows(InsufficientStockException.class,
-        () -> productService.validateAndUpdateStock(productIds));
+        () -> productService.allocateStock(plan, lockedStock));
+    assertEquals(5, lockedStock.get(1L));
   }
 }
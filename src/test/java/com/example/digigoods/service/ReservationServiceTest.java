@@ -0,0 +1,188 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.exception.InvalidReservationException;
+import com.example.digigoods.exception.ReservationNotFoundException;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.ReservationItem;
+import com.example.digigoods.model.ReservationStatus;
+import com.example.digigoods.model.StockReservation;
+import com.example.digigoods.repository.StockReservationRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+  @Mock
+  private StockReservationRepository stockReservationRepository;
+
+  @Mock
+  private ProductService productService;
+
+  @Mock
+  private DiscountService discountService;
+
+  private ReservationService reservationService;
+
+  @BeforeEach
+  void setUp() {
+    reservationService = new ReservationService(stockReservationRepository, productService,
+        discountService, 300, 100);
+  }
+
+  @Test
+  @DisplayName("Given checkout plan, when holding, then take stock and save held reservation")
+  void givenCheckoutPlan_whenHolding_thenTakeStockAndSaveHeldReservation() {
+    // Arrange
+    Product product = new Product(1L, "Product 1", new BigDecimal("10.00"), 5);
+    CheckoutPlan plan = CheckoutPlan.of(3L, List.of(1L, 1L), List.of(product), List.of());
+    when(stockReservationRepository.save(any(StockReservation.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    // Act
+    StockReservation reservation = reservationService.hold(plan, new BigDecimal("20.00"),
+        new BigDecimal("20.00"));
+
+    // Assert
+    verify(productService).validateAndUpdateStock(plan);
+    verify(discountService).updateDiscountUsage(plan.getDiscounts());
+    assertEquals(3L, reservation.getUserId());
+    assertEquals(ReservationStatus.HELD, reservation.getStatus());
+    assertEquals(List.of(new ReservationItem(1L, 2, new BigDecimal("10.00"), false)),
+        reservation.getItems());
+    assertEquals(reservation.getCreatedAt().plusSeconds(300), reservation.getExpiresAt());
+  }
+
+  @Test
+  @DisplayName("Given hot product, when holding, then mark its item as taken from the ledger")
+  void givenHotProduct_whenHolding_thenMarkItemAsTakenFromLedger() {
+    // Arrange
+    Product hot = new Product(1L, "Hot Product", new BigDecimal("10.00"), 5);
+    Product cold = new Product(2L, "Cold Product", new BigDecimal("4.00"), 5);
+    CheckoutPlan plan = CheckoutPlan.of(3L, List.of(1L, 2L), List.of(hot, cold), List.of());
+    when(productService.isHot(1L)).thenReturn(true);
+    when(stockReservationRepository.save(any(StockReservation.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    // Act
+    StockReservation reservation = reservationService.hold(plan, new BigDecimal("14.00"),
+        new BigDecimal("14.00"));
+
+    // Assert
+    assertEquals(Map.of(1L, 1), reservationService.ledgerQuantitiesOf(reservation));
+    assertEquals(Map.of(1L, 1, 2L, 1), reservationService.quantitiesOf(reservation));
+  }
+
+  @Test
+  @DisplayName("Given held reservation, when confirming, then return it")
+  void givenHeldReservation_whenConfirming_thenReturnIt() {
+    // Arrange
+    StockReservation reservation = reservation(ReservationStatus.HELD);
+    when(stockReservationRepository.confirm(eq(5L), eq(3L), any())).thenReturn(1);
+    when(stockReservationRepository.findById(5L)).thenReturn(Optional.of(reservation));
+
+    // Act
+    StockReservation confirmed = reservationService.confirm(5L, 3L);
+
+    // Assert
+    assertSame(reservation, confirmed);
+  }
+
+  @Test
+  @DisplayName("Given reservation of another user, when confirming, "
+      + "then throw ReservationNotFoundException")
+  void givenReservationOfAnotherUser_whenConfirming_thenThrowReservationNotFoundException() {
+    // Arrange
+    when(stockReservationRepository.confirm(eq(5L), eq(4L), any())).thenReturn(0);
+    when(stockReservationRepository.findById(5L))
+        .thenReturn(Optional.of(reservation(ReservationStatus.HELD)));
+
+    // Act & Assert
+    assertThrows(ReservationNotFoundException.class, () -> reservationService.confirm(5L, 4L));
+  }
+
+  @Test
+  @DisplayName("Given released reservation, when confirming, "
+      + "then throw InvalidReservationException")
+  void givenReleasedReservation_whenConfirming_thenThrowInvalidReservationException() {
+    // Arrange
+    when(stockReservationRepository.confirm(eq(5L), eq(3L), any())).thenReturn(0);
+    when(stockReservationRepository.findById(5L))
+        .thenReturn(Optional.of(reservation(ReservationStatus.RELEASED)));
+
+    // Act & Assert
+    InvalidReservationException exception = assertThrows(InvalidReservationException.class,
+        () -> reservationService.confirm(5L, 3L));
+    assertEquals("Reservation 5 cannot be confirmed: reservation is already released",
+        exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Given expired reservations, when sweeping, then release only those still held")
+  void givenExpiredReservations_whenSweeping_thenReleaseOnlyThoseStillHeld() {
+    // Arrange
+    StockReservation expired = reservation(ReservationStatus.HELD);
+    StockReservation confirmedMeanwhile = reservation(ReservationStatus.HELD);
+    confirmedMeanwhile.setId(6L);
+    when(stockReservationRepository.findExpired(any(), any()))
+        .thenReturn(List.of(expired, confirmedMeanwhile));
+    when(stockReservationRepository.release(5L)).thenReturn(1);
+    when(stockReservationRepository.release(6L)).thenReturn(0);
+
+    // Act
+    int released = reservationService.releaseExpired();
+
+    // Assert
+    assertEquals(1, released);
+    verify(productService).releaseStock(Map.of(7L, 1), Map.of(1L, 2));
+    verify(discountService).releaseDiscountUsage(expired.getAppliedDiscounts());
+  }
+
+  @Test
+  @DisplayName("Given no expired reservations, when sweeping, then release nothing")
+  void givenNoExpiredReservations_whenSweeping_thenReleaseNothing() {
+    // Arrange
+    when(stockReservationRepository.findExpired(any(), any())).thenReturn(List.of());
+
+    // Act
+    int released = reservationService.releaseExpired();
+
+    // Assert
+    assertEquals(0, released);
+    verify(stockReservationRepository, never()).release(anyLong());
+    verify(productService, never()).releaseStock(any(), any());
+  }
+
+  private StockReservation reservation(ReservationStatus status) {
+    StockReservation reservation = new StockReservation();
+    reservation.setId(5L);
+    reservation.setUserId(3L);
+    reservation.setStatus(status);
+    reservation.getItems().add(new ReservationItem(1L, 2, new BigDecimal("10.00"), false));
+    reservation.getItems().add(new ReservationItem(7L, 1, new BigDecimal("5.00"), true));
+    reservation.setOriginalSubtotal(new BigDecimal("20.00"));
+    reservation.setFinalPrice(new BigDecimal("20.00"));
+    reservation.setCreatedAt(LocalDateTime.now().minusMinutes(10));
+    reservation.setExpiresAt(LocalDateTime.now().minusMinutes(5));
+    return reservation;
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.model.Product;
+import com.example.digigoods.model.StockClaim;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockClaimRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for StockWriteCombiner against the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockWriteCombinerIntegrationTest {
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private StockClaimRepository stockClaimRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transactionTemplate;
+  private Product product;
+  private StockWriteCombiner combiner;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    product = productRepository.save(
+        new Product(null, "Popular Product", new BigDecimal("9.99"), 10));
+    // A batch closes once four checkouts joined it, or after 50 ms
+    combiner = new StockWriteCombiner(productRepository, stockClaimRepository,
+        transactionManager, true, 50_000, 4, 5000, 60, 100, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockClaimRepository.deleteAll();
+    productRepository.delete(product);
+  }
+
+  @Test
+  @DisplayName("Given committed checkout, when taking stock, then keep it and remove its claim")
+  void givenCommittedCheckout_whenTakingStock_thenKeepItAndRemoveItsClaim() {
+    // Act
+    transactionTemplate.executeWithoutResult(
+        status -> combiner.take(Map.of(product.getId(), 3)));
+
+    // Assert
+    assertEquals(7, stockColumn());
+    assertEquals(0, stockClaimRepository.count());
+  }
+
+  @Test
+  @DisplayName("Given rolled back checkout, when transaction completes, then return its stock")
+  void givenRolledBackCheckout_whenTransactionCompletes_thenReturnItsStock() {
+    // Act
+    transactionTemplate.executeWithoutResult(status -> {
+      combiner.take(Map.of(product.getId(), 3));
+      status.setRollbackOnly();
+    });
+
+    // Assert
+    assertEquals(10, stockColumn());
+    assertEquals(0, stockClaimRepository.count());
+  }
+
+  @Test
+  @DisplayName("Given claim of a checkout that never finished, when sweeping, "
+      + "then return its stock")
+  void givenClaimOfUnfinishedCheckout_whenSweeping_thenReturnItsStock() {
+    // Arrange
+    // The combined update committed, then the application stopped before the checkout did
+    product.setStock(6);
+    productRepository.save(product);
+    stockClaimRepository.save(new StockClaim("abandoned", product.getId(), 4,
+        LocalDateTime.now().minusMinutes(5)));
+
+    // Act
+    Integer released = transactionTemplate.execute(status -> combiner.releaseAbandoned());
+
+    // Assert
+    assertEquals(1, released);
+    assertEquals(10, stockColumn());
+    assertEquals(0, stockClaimRepository.count());
+  }
+
+  @Test
+  @DisplayName("Given more concurrent checkouts than stock, when taking stock, "
+      + "then sell exactly the stock")
+  void givenMoreConcurrentCheckoutsThanStock_whenTakingStock_thenSellExactlyTheStock()
+      throws Exception {
+    // Arrange
+    product.setStock(2);
+    productRepository.save(product);
+
+    // Act
+    List<Throwable> failures = takeConcurrently(4);
+
+    // Assert
+    assertEquals(2, failures.size());
+    failures.forEach(failure -> assertInstanceOf(InsufficientStockException.class, failure));
+    assertEquals(0, stockColumn());
+    assertEquals(0, stockClaimRepository.count());
+  }
+
+  private List<Throwable> takeConcurrently(int checkouts) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(checkouts);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < checkouts; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          transactionTemplate.executeWithoutResult(
+              status -> combiner.take(Map.of(product.getId(), 1)));
+          return null;
+        }));
+      }
+      start.countDown();
+
+      List<Throwable> failures = new ArrayList<>();
+      for (Future<?> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          failures.add(e.getCause());
+        }
+      }
+      return failures;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private int stockColumn() {
+    return productRepository.findStockById(product.getId()).orElseThrow();
+  }
+}
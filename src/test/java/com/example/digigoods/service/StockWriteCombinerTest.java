@@ -0,0 +1,211 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.exception.InsufficientStockException;
+import com.example.digigoods.model.StockClaim;
+import com.example.digigoods.repository.ProductRepository;
+import com.example.digigoods.repository.StockClaimRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockWriteCombinerTest {
+
+  // Long enough that only the batch size cap applies a batch
+  private static final long WINDOW_MICROS = 10_000_000;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private StockClaimRepository stockClaimRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private StockWriteCombiner combiner;
+
+  @BeforeEach
+  void setUp() {
+    // Every claim is still there when its checkout removes it
+    when(stockClaimRepository.removeAll(anyList()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  @DisplayName("Given concurrent decrements of one product, when taking stock, "
+      + "then apply them as one update and claim each of them")
+  void givenConcurrentDecrementsOfOneProduct_whenTakingStock_thenApplyThemAsOneUpdate()
+      throws Exception {
+    // Arrange
+    combiner = newCombiner(3);
+    when(productRepository.decrementStock(Map.of(1L, 3))).thenReturn(List.of());
+
+    // Act
+    List<Throwable> failures = takeConcurrently(Map.of(1L, 1), Map.of(1L, 1), Map.of(1L, 1));
+
+    // Assert
+    assertEquals(List.of(), failures);
+    verify(productRepository).decrementStock(Map.of(1L, 3));
+    ArgumentCaptor<List<StockClaim>> claims = claimCaptor();
+    verify(stockClaimRepository).recordAll(claims.capture());
+    assertEquals(3, claims.getValue().size());
+    verify(productRepository, never()).incrementStock(any());
+    assertEquals(3.0, meterRegistry.summary("inventory.combining.batch.size").totalAmount());
+  }
+
+  @Test
+  @DisplayName("Given batch larger than stock, when taking stock, "
+      + "then take what fits and refuse the rest")
+  void givenBatchLargerThanStock_whenTakingStock_thenTakeWhatFitsAndRefuseTheRest()
+      throws Exception {
+    // Arrange
+    combiner = newCombiner(2);
+    when(productRepository.decrementStock(Map.of(1L, 6))).thenReturn(List.of(1L));
+    when(productRepository.lockStock(List.of(1L))).thenReturn(Map.of(1L, 5));
+    when(productRepository.decrementStock(Map.of(1L, 3))).thenReturn(List.of());
+
+    // Act
+    List<Throwable> failures = takeConcurrently(Map.of(1L, 3), Map.of(1L, 3));
+
+    // Assert
+    assertEquals(1, failures.size());
+    assertEquals("Insufficient stock for product 1. Requested: 3, Available: 2",
+        failures.get(0).getMessage());
+    verify(productRepository).decrementStock(Map.of(1L, 3));
+    ArgumentCaptor<List<StockClaim>> claims = claimCaptor();
+    verify(stockClaimRepository).recordAll(claims.capture());
+    assertEquals(1, claims.getValue().size());
+  }
+
+  @Test
+  @DisplayName("Given one product sold out, when taking stock of several products, "
+      + "then return the stock taken from the others")
+  void givenOneProductSoldOut_whenTakingStockOfSeveralProducts_thenReturnTheOthers() {
+    // Arrange
+    combiner = newCombiner(1);
+    when(productRepository.decrementStock(Map.of(1L, 1))).thenReturn(List.of());
+    when(productRepository.decrementStock(Map.of(2L, 1))).thenReturn(List.of(2L));
+    when(productRepository.lockStock(List.of(2L))).thenReturn(Map.of(2L, 0));
+
+    // Act & Assert
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> combiner.take(Map.of(1L, 1, 2L, 1)));
+    assertEquals("Insufficient stock for product 2. Requested: 1, Available: 0",
+        exception.getMessage());
+    verify(productRepository).incrementStock(Map.of(1L, 1));
+    verify(productRepository, never()).incrementStock(Map.of(2L, 1));
+  }
+
+  @Test
+  @DisplayName("Given checkout rolled back, when its transaction completes, "
+      + "then return its claimed stock")
+  void givenCheckoutRolledBack_whenTransactionCompletes_thenReturnClaimedStock() {
+    // Arrange
+    combiner = newCombiner(1);
+    when(productRepository.decrementStock(Map.of(1L, 2))).thenReturn(List.of());
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      combiner.take(Map.of(1L, 2));
+      verify(productRepository, never()).incrementStock(any());
+
+      // Act
+      TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+          synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Assert
+    verify(productRepository).incrementStock(Map.of(1L, 2));
+  }
+
+  @Test
+  @DisplayName("Given abandoned claims, when sweeping, "
+      + "then return only the claims nobody else removed")
+  void givenAbandonedClaims_whenSweeping_thenReturnOnlyUnremovedClaims() {
+    // Arrange
+    combiner = newCombiner(1);
+    LocalDateTime createdAt = LocalDateTime.now().minusMinutes(5);
+    StockClaim abandoned = new StockClaim("a", 1L, 2, createdAt);
+    StockClaim taken = new StockClaim("b", 1L, 3, createdAt);
+    when(stockClaimRepository.findAllByCreatedAtBeforeOrderByCreatedAt(any(), any()))
+        .thenReturn(List.of(abandoned, taken));
+    when(stockClaimRepository.removeAll(List.of("a", "b"))).thenReturn(List.of("a"));
+
+    // Act
+    int released = combiner.releaseAbandoned();
+
+    // Assert
+    assertEquals(1, released);
+    verify(productRepository).incrementStock(Map.of(1L, 2));
+  }
+
+  private StockWriteCombiner newCombiner(int maxBatchSize) {
+    return new StockWriteCombiner(productRepository, stockClaimRepository, transactionManager,
+        true, WINDOW_MICROS, maxBatchSize, 5000, 60, 100, meterRegistry);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentCaptor<List<StockClaim>> claimCaptor() {
+    return ArgumentCaptor.forClass(List.class);
+  }
+
+  @SafeVarargs
+  private List<Throwable> takeConcurrently(Map<Long, Integer>... carts) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(carts.length);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (Map<Long, Integer> cart : carts) {
+        results.add(executor.submit(() -> {
+          start.await();
+          combiner.take(cart);
+          return null;
+        }));
+      }
+      start.countDown();
+
+      List<Throwable> failures = new ArrayList<>();
+      for (Future<?> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          failures.add(e.getCause());
+        }
+      }
+      return failures;
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
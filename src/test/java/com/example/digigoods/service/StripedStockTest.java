@@ -0,0 +1,96 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StripedStockTest {
+
+  @Test
+  @DisplayName("Given stock spread over stripes, when taking more than one stripe holds, "
+      + "then rebalance and take it")
+  void givenStockSpreadOverStripes_whenTakingMoreThanOneStripe_thenRebalanceAndTakeIt() {
+    // Arrange
+    StripedStock stock = new StripedStock(4, 10);
+
+    // Act
+    boolean taken = stock.tryTake(9);
+
+    // Assert
+    assertTrue(taken);
+    assertEquals(1, stock.available());
+  }
+
+  @Test
+  @DisplayName("Given insufficient stock, when taking, then refuse and keep stock")
+  void givenInsufficientStock_whenTaking_thenRefuseAndKeepStock() {
+    // Arrange
+    StripedStock stock = new StripedStock(4, 3);
+
+    // Act
+    boolean taken = stock.tryTake(4);
+
+    // Assert
+    assertFalse(taken);
+    assertEquals(3, stock.available());
+  }
+
+  @Test
+  @DisplayName("Given released stock, when taking, then make it available again")
+  void givenReleasedStock_whenTaking_thenMakeItAvailableAgain() {
+    // Arrange
+    StripedStock stock = new StripedStock(2, 1);
+    stock.tryTake(1);
+
+    // Act
+    stock.release(1);
+
+    // Assert
+    assertTrue(stock.tryTake(1));
+    assertEquals(0, stock.available());
+  }
+
+  @Test
+  @DisplayName("Given concurrent buyers, when selling out, then never oversell")
+  void givenConcurrentBuyers_whenSellingOut_thenNeverOversell() throws Exception {
+    // Arrange
+    int initialStock = 10_000;
+    int buyers = 16;
+    StripedStock stock = new StripedStock(8, initialStock);
+    AtomicInteger sold = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(buyers);
+    List<Future<?>> futures = new ArrayList<>();
+
+    // Act
+    for (int i = 0; i < buyers; i++) {
+      int quantity = i % 3 + 1;
+      futures.add(executor.submit(() -> {
+        start.await();
+        while (stock.tryTake(quantity)) {
+          sold.addAndGet(quantity);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // Assert
+    assertEquals(initialStock, sold.get() + stock.available());
+    assertTrue(stock.available() < 3);
+  }
+}
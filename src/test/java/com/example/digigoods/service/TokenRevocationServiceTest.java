@@ -0,0 +1,104 @@
+package com.example.digigoods.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.digigoods.model.UserTokenEpoch;
+import com.example.digigoods.repository.UserTokenEpochRepository;
+import com.example.digigoods.security.VerifiedToken;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+  @Mock
+  private UserTokenEpochRepository userTokenEpochRepository;
+
+  @InjectMocks
+  private TokenRevocationService tokenRevocationService;
+
+  @Test
+  @DisplayName("Given no revocation for user, when checking token, then return false")
+  void givenNoRevocationForUser_whenCheckingToken_thenReturnFalse() {
+    // Arrange
+    VerifiedToken token = createToken(1L, Instant.now());
+
+    // Act & Assert
+    assertFalse(tokenRevocationService.isRevoked(token));
+  }
+
+  @Test
+  @DisplayName("Given revoked user, when checking earlier token, then return true")
+  void givenRevokedUser_whenCheckingEarlierToken_thenReturnTrue() {
+    // Arrange
+    VerifiedToken token = createToken(1L, Instant.now().minusSeconds(60));
+
+    // Act
+    tokenRevocationService.revokeTokens(1L);
+
+    // Assert
+    assertTrue(tokenRevocationService.isRevoked(token));
+    verify(userTokenEpochRepository).save(any(UserTokenEpoch.class));
+  }
+
+  @Test
+  @DisplayName("Given refreshed epochs, when checking tokens, then compare against epoch")
+  void givenRefreshedEpochs_whenCheckingTokens_thenCompareAgainstEpoch() {
+    // Arrange
+    Instant epoch = Instant.now().minusSeconds(60);
+    when(userTokenEpochRepository.findAll())
+        .thenReturn(List.of(new UserTokenEpoch(1L, epoch.toEpochMilli())));
+
+    // Act
+    tokenRevocationService.refresh();
+
+    // Assert
+    assertTrue(tokenRevocationService.isRevoked(createToken(1L, epoch.minusMillis(1))));
+    assertFalse(tokenRevocationService.isRevoked(createToken(1L, epoch)));
+    assertFalse(tokenRevocationService.isRevoked(createToken(1L, epoch.plusMillis(1))));
+    assertFalse(tokenRevocationService.isRevoked(createToken(2L, epoch.minusSeconds(1))));
+  }
+
+  @Test
+  @DisplayName("Given token issued in the second of a revocation but after it, "
+      + "when checking token, then return false")
+  void givenTokenIssuedJustAfterRevocation_whenCheckingToken_thenReturnFalse() {
+    // Arrange
+    tokenRevocationService.revokeTokens(1L);
+    VerifiedToken token = createToken(1L, Instant.now().plusMillis(1));
+
+    // Act & Assert
+    assertFalse(tokenRevocationService.isRevoked(token));
+  }
+
+  @Test
+  @DisplayName("Given revocation during refresh, when refreshing older epochs, "
+      + "then keep the revocation")
+  void givenRevocationDuringRefresh_whenRefreshingOlderEpochs_thenKeepRevocation() {
+    // Arrange
+    Instant stale = Instant.now().minusSeconds(60);
+    when(userTokenEpochRepository.findAll())
+        .thenReturn(List.of(new UserTokenEpoch(1L, stale.toEpochMilli())));
+    tokenRevocationService.revokeTokens(1L);
+
+    // Act
+    tokenRevocationService.refresh();
+
+    // Assert
+    assertTrue(tokenRevocationService.isRevoked(createToken(1L, stale.plusSeconds(30))));
+  }
+
+  private VerifiedToken createToken(Long userId, Instant issuedAt) {
+    return new VerifiedToken("testuser", userId, issuedAt, issuedAt.plusSeconds(3600));
+  }
+}